@@ -1,16 +1,23 @@
 package ch.epfl.cs107.play;
 
 import ch.epfl.cs107.play.game.Game;
+import ch.epfl.cs107.play.game.QualityGovernor;
 import ch.epfl.cs107.play.game.areagame.io.ResourcePath;
 import ch.epfl.cs107.play.game.superpacman.SuperPacman;
 import ch.epfl.cs107.play.io.DefaultFileSystem;
 import ch.epfl.cs107.play.io.FileSystem;
+import ch.epfl.cs107.play.io.PackedFileSystem;
 import ch.epfl.cs107.play.io.ResourceFileSystem;
 import ch.epfl.cs107.play.recorder.RecordReplayer;
 import ch.epfl.cs107.play.recorder.Recorder;
+import ch.epfl.cs107.play.window.Keyboard;
 import ch.epfl.cs107.play.window.Window;
+import ch.epfl.cs107.play.window.swing.HeadlessWindow;
 import ch.epfl.cs107.play.window.swing.SwingWindow;
 
+import java.io.File;
+import java.io.IOException;
+
 /**
  * Main entry point.
  */
@@ -30,14 +37,81 @@ public class Play {
         return currentFps;
     }
 
+    // [modification] - headless runs, for servers and benchmarks
+    private static final String HEADLESS_OPTION = "--headless";
+    private static final String NO_RENDER_OPTION = "--no-render";
+    private static final String FRAMES_OPTION = "--frames=";
+    private static final String THREADED_OPTION = "--threaded";
+    private static final int DEFAULT_HEADLESS_FRAMES = 3600;
+    // [modification] - scripted input of the headless runs: frame at which ENTER starts a game from the main menu,
+    // then the arrow keys held in turn to move the player around the level
+    private static final int HEADLESS_START_FRAME = 60;
+    private static final int HEADLESS_KEY_FRAMES = 48;
+    private static final int[] HEADLESS_KEYS = {Keyboard.LEFT, Keyboard.UP, Keyboard.RIGHT, Keyboard.DOWN};
+    // [modification] - source directory of the packed archive
+    private static final String RESOURCE_DIRECTORY = "res";
+
+    /**
+     * [modification] - Resources are read from the packed archive when it was built,
+     * and from the classpath otherwise. An archive older than the res/ directory is rebuilt first,
+     * so that it never shadows edited resources
+     * @return (FileSystem): the cascading file system, not null
+     */
+    private static FileSystem createFileSystem() {
+        FileSystem resources = new ResourceFileSystem(DefaultFileSystem.INSTANCE);
+        File archive = new File(PackedFileSystem.DEFAULT_ARCHIVE);
+        File sources = new File(RESOURCE_DIRECTORY);
+        if (archive.isFile() && sources.isDirectory() && PackedFileSystem.isStale(sources, archive)) {
+            try {
+                PackedFileSystem.pack(sources, archive);
+                System.out.println(archive + " is older than " + sources + ", rebuilt it");
+            } catch (IOException e) {
+                System.out.println("Could not rebuild " + archive + ", using unpacked resources");
+                e.printStackTrace();
+                return resources;
+            }
+        }
+        if (archive.isFile()) {
+            try {
+                return new PackedFileSystem(resources, archive);
+            } catch (IOException e) {
+                System.out.println("Could not open " + archive + ", using unpacked resources");
+                e.printStackTrace();
+            }
+        }
+        return resources;
+    }
+
     /**
      * Main entry point.
-     * @param args (Array of String): ignored
+     * @param args (Array of String): "--headless" to run without display, at unthrottled speed,
+     *             with "--no-render" to skip rendering and "--frames=N" to set the number of frames (3600 by default),
+     *             "--threaded" to render on a dedicated thread
      */
     public static void main(String[] args) {
+        boolean headless = false;
+        boolean render = true;
+        boolean threaded = false;
+        long maxFrames = DEFAULT_HEADLESS_FRAMES;
+        for (String arg : args) {
+            if (arg.equals(HEADLESS_OPTION))
+                headless = true;
+            else if (arg.equals(NO_RENDER_OPTION))
+                render = false;
+            else if (arg.equals(THREADED_OPTION))
+                threaded = true;
+            else if (arg.startsWith(FRAMES_OPTION))
+                maxFrames = Long.parseLong(arg.substring(FRAMES_OPTION.length()));
+            else
+                System.out.println("Unknown option: " + arg);
+        }
+        if (headless) {
+            runHeadless(render, maxFrames);
+            return;
+        }
 
         // Define cascading file system
-        final FileSystem fileSystem = new ResourceFileSystem(DefaultFileSystem.INSTANCE);
+        final FileSystem fileSystem = createFileSystem();
 
         // Create a demo game :
         // (it is expected that at the beginning, the provided file does not compile)
@@ -47,7 +121,7 @@ public class Play {
 //		final AreaGame game = new Tuto2();
 
         // Use Swing display
-        final Window window = new SwingWindow(game.getTitle(), fileSystem, 790, 790);
+        final Window window = new SwingWindow(game.getTitle(), fileSystem, 790, 790, threaded);
         window.registerFonts(ResourcePath.FONTS);
 
         Recorder recorder = new Recorder(window);
@@ -62,6 +136,8 @@ public class Play {
                 long currentTime = System.nanoTime();
                 long lastTime;
                 final float frameDuration = ONE_SEC / game.getFrameRate();
+                // [modification] - Lower the quality when frames run long
+                final QualityGovernor governor = new QualityGovernor(game.getFrameRate(), game.getQualityTierCount());
 
                 // Run until the user try to close the window
                 while (!window.isCloseRequested()) {
@@ -95,13 +171,21 @@ public class Play {
 
 
                     // Let the game do its stuff
+                    final long workStart = System.nanoTime();
                     game.update(deltaTime);
 
                     // Render and update input
                     window.update();
                     //recorder.update();
                     //replayer.update();
+
+                    // [modification] - Time spent on the frame, without sleeping.
+                    // With a render thread, the slower of the two threads sets the frame rate
+                    final float workTime = (System.nanoTime() - workStart) / ONE_SEC;
+                    if (governor.addFrameTime(Math.max(workTime, window.getRenderTime())))
+                        game.setQualityTier(governor.getTier());
                 }
+                System.out.println(governor.getStatistics());
             }
             recorder.stop("record1.xml");
             game.end();
@@ -112,4 +196,53 @@ public class Play {
         }
     }
 
+    /**
+     * [modification] - Runs the game without display, as fast as possible, with a fixed time step.
+     * A game is started from the main menu and the player is moved by scripted input,
+     * so this measures the simulation and rendering throughput of a game in progress
+     * @param render (boolean): whether the frames are rendered
+     * @param maxFrames (long): number of frames to run
+     */
+    private static void runHeadless(boolean render, long maxFrames) {
+        final FileSystem fileSystem = createFileSystem();
+        final Game game = new SuperPacman();
+        final HeadlessWindow window = new HeadlessWindow(fileSystem, 790, 790, render);
+        window.registerFonts(ResourcePath.FONTS);
+        try {
+            if (game.begin(window, fileSystem)) {
+                final float deltaTime = 1.0f / game.getFrameRate();
+                final long startTime = System.nanoTime();
+                while (!window.isCloseRequested() && window.getFrameCount() < maxFrames) {
+                    scriptHeadlessInput(window);
+                    game.update(deltaTime);
+                    window.update();
+                }
+                final float duration = (System.nanoTime() - startTime) / ONE_SEC;
+                System.out.println(window.getFrameCount() + " frames in " + duration + " s ("
+                                   + Math.round(window.getFrameCount() / duration) + " fps, rendering "
+                                   + (render ? "enabled" : "disabled") + ")");
+            }
+            game.end();
+        } finally {
+            window.dispose();
+        }
+    }
+
+    /**
+     * [modification] - Presses ENTER on the main menu, then holds the arrow keys in turn
+     * @param window (HeadlessWindow): the window receiving the input, not null
+     */
+    private static void scriptHeadlessInput(HeadlessWindow window) {
+        final long frame = window.getFrameCount();
+        if (frame == HEADLESS_START_FRAME) {
+            window.pressKey(Keyboard.ENTER);
+        } else if (frame == HEADLESS_START_FRAME + 1) {
+            window.releaseKey(Keyboard.ENTER);
+        } else if (frame > HEADLESS_START_FRAME && (frame - HEADLESS_START_FRAME) % HEADLESS_KEY_FRAMES == 0) {
+            final int turn = (int) ((frame - HEADLESS_START_FRAME) / HEADLESS_KEY_FRAMES);
+            window.releaseKey(HEADLESS_KEYS[(turn + HEADLESS_KEYS.length - 1) % HEADLESS_KEYS.length]);
+            window.pressKey(HEADLESS_KEYS[turn % HEADLESS_KEYS.length]);
+        }
+    }
+
 }
@@ -8,4 +8,20 @@ public interface Game extends Playable{
     default int getFrameRate() {
         return 60;
     }
+
+    /**
+     * Getter for the number of quality tiers the game can fall back to when frames run long
+     * @return (int): the number of tiers, 1 if the quality cannot be lowered
+     */
+    default int getQualityTierCount() {
+        return 1;
+    }
+
+    /**
+     * Changes the quality tier, chosen by a QualityGovernor
+     * @param tier (int): between 0 (full quality) and getQualityTierCount() - 1
+     */
+    default void setQualityTier(int tier) {
+        // Only one tier by default
+    }
 }
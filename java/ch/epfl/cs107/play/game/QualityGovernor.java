@@ -0,0 +1,124 @@
+package ch.epfl.cs107.play.game;
+
+import java.util.Arrays;
+
+/**
+ * Selects the quality tier of a game from the time spent computing and submitting its frames.
+ * A high percentile of the recent frame times is compared to the frame budget: the tier is lowered when it gets close
+ * to the budget, and only raised again after it stayed well below for a while, so that the quality does not oscillate.
+ * Tier 0 is the full quality, higher tiers are cheaper.
+ */
+public final class QualityGovernor {
+
+    /// Number of recent frames whose percentile is evaluated, and evaluation period in frames
+    private static final int WINDOW_SIZE = 64;
+    private static final int EVALUATION_PERIOD = 32;
+    /// Percentile of the frame times compared to the budget
+    private static final float PERCENTILE = 0.9f;
+    /// Fractions of the budget above which the quality is lowered, and below which it may be raised
+    private static final float DOWNGRADE_RATIO = 0.9f;
+    private static final float UPGRADE_RATIO = 0.5f;
+    /// Number of consecutive evaluations below the upgrade ratio before raising the quality
+    private static final int UPGRADE_EVALUATIONS = 4;
+    /// Frames ignored at startup, while classes are loaded and compiled
+    private static final int WARMUP_FRAMES = 120;
+
+    private final float budget;
+    private final int tierCount;
+    private final float[] frameTimes;
+    private final float[] sortedTimes;
+    private int sampleCount;
+    private int nextSample;
+    private int framesToEvaluation;
+    private int upgradeEvaluations;
+    private int warmupFrames;
+    private int tier;
+    /// Statistics: frames spent in each tier, tier changes
+    private final long[] tierFrames;
+    private int downgrades;
+    private int upgrades;
+
+    /**
+     * Creates a new governor, starting at the full quality.
+     * @param frameRate (int): target number of frames per second, positive
+     * @param tierCount (int): number of quality tiers, positive
+     */
+    public QualityGovernor(int frameRate, int tierCount) {
+        if (frameRate <= 0 || tierCount <= 0)
+            throw new IllegalArgumentException("Invalid frame rate or tier count");
+        budget = 1.0f / frameRate;
+        this.tierCount = tierCount;
+        frameTimes = new float[WINDOW_SIZE];
+        sortedTimes = new float[WINDOW_SIZE];
+        tierFrames = new long[tierCount];
+        warmupFrames = WARMUP_FRAMES;
+        reset();
+    }
+
+    /** @return (int): current quality tier, between 0 (full quality) and tierCount - 1 */
+    public int getTier() {
+        return tier;
+    }
+
+    /**
+     * Records the duration of a frame, possibly changing the tier.
+     * @param frameTime (float): time spent on the frame in seconds, excluding the time waiting for the next one
+     * @return (boolean): true if the tier changed
+     */
+    public boolean addFrameTime(float frameTime) {
+        ++tierFrames[tier];
+        if (warmupFrames > 0) {
+            --warmupFrames;
+            return false;
+        }
+        frameTimes[nextSample] = frameTime;
+        nextSample = (nextSample + 1) % WINDOW_SIZE;
+        sampleCount = Math.min(WINDOW_SIZE, sampleCount + 1);
+        if (--framesToEvaluation > 0 || sampleCount < WINDOW_SIZE)
+            return false;
+        framesToEvaluation = EVALUATION_PERIOD;
+
+        System.arraycopy(frameTimes, 0, sortedTimes, 0, WINDOW_SIZE);
+        Arrays.sort(sortedTimes);
+        float percentile = sortedTimes[(int) (PERCENTILE * (WINDOW_SIZE - 1))];
+        if (percentile > DOWNGRADE_RATIO * budget && tier < tierCount - 1) {
+            ++tier;
+            ++downgrades;
+            reset();
+            return true;
+        }
+        if (percentile < UPGRADE_RATIO * budget && tier > 0) {
+            if (++upgradeEvaluations >= UPGRADE_EVALUATIONS) {
+                --tier;
+                ++upgrades;
+                reset();
+                return true;
+            }
+        } else
+            upgradeEvaluations = 0;
+        return false;
+    }
+
+    /** @return (String): human readable governor statistics */
+    public String getStatistics() {
+        long total = 0;
+        for (long frames : tierFrames)
+            total += frames;
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Quality governor: tier %d, %d downgrades, %d upgrades, frames per tier:", tier,
+                                     downgrades, upgrades));
+        for (int i = 0; i < tierCount; ++i)
+            builder.append(String.format(" %d (%.1f%%)", tierFrames[i], total == 0 ? 0.0 : 100.0 * tierFrames[i] / total));
+        return builder.toString();
+    }
+
+    /**
+     * Forgets the recent frames, so that the next decision only sees the current tier.
+     */
+    private void reset() {
+        sampleCount = 0;
+        nextSample = 0;
+        framesToEvaluation = EVALUATION_PERIOD;
+        upgradeEvaluations = 0;
+    }
+}
@@ -5,7 +5,8 @@ import ch.epfl.cs107.play.math.RegionOfInterest;
 import ch.epfl.cs107.play.math.Transform;
 import ch.epfl.cs107.play.math.Vector;
 import ch.epfl.cs107.play.window.Canvas;
-import ch.epfl.cs107.play.window.Image;
+
+import java.awt.Color;
 
 
 /**
@@ -27,6 +28,11 @@ public class ImageGraphics extends Node implements Graphics {
     private float depth;
     ///
     private final boolean removeBackground;
+    /// [modification] - Color given to the mask pixels of the image (see Canvas.TINT_MASK), may be null
+    private Color tint;
+    /// [modification] - Image handle, resolved once per canvas
+    private Canvas handleCanvas;
+    private int handle;
 
     /**
      * Creates a new image graphics.
@@ -116,6 +122,7 @@ public class ImageGraphics extends Node implements Graphics {
      */
     public void setName(String name) {
         this.name = name;
+        handleCanvas = null;
     }
 
     /** @return (String): image name, may be null */
@@ -123,6 +130,20 @@ public class ImageGraphics extends Node implements Graphics {
         return name;
     }
 
+    /**
+     * Sets the tint of the image, shared with the other users of the same image and tint.
+     * @param tint (Color): color given to the pixels of the Canvas.TINT_MASK color, null for the image as is
+     */
+    public void setTint(Color tint) {
+        this.tint = tint;
+        handleCanvas = null;
+    }
+
+    /** @return (Color): tint of the image, may be null */
+    public Color getTint() {
+        return tint;
+    }
+
     /**
      * Sets actual image width, before transformation.
      * @param width (float): image width
@@ -192,8 +213,16 @@ public class ImageGraphics extends Node implements Graphics {
     public void draw(Canvas canvas) {
         if (name == null)
             return;
-        Image image = canvas.getImage(name, roi, removeBackground);
-        Transform transform = Transform.I.scaled(width, height).translated(anchor.x, anchor.y).transformed(getTransform());
-        canvas.drawImage(image, transform, alpha, depth);
+        if (handleCanvas != canvas) {
+            handle = canvas.getImageHandle(name, roi, removeBackground, tint);
+            handleCanvas = canvas;
+        }
+        // [modification] - Same as Transform.I.scaled(width, height).translated(anchor.x, anchor.y).transformed(getTransform()),
+        // without the intermediate transforms
+        Transform t = getTransform();
+        canvas.drawImage(handle,
+                         t.m00 * width, t.m01 * height, t.m00 * anchor.x + t.m01 * anchor.y + t.m02,
+                         t.m10 * width, t.m11 * height, t.m10 * anchor.x + t.m11 * anchor.y + t.m12,
+                         alpha, depth);
     }
 }
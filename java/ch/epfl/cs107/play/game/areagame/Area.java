@@ -3,29 +3,55 @@ package ch.epfl.cs107.play.game.areagame;
 
 import ch.epfl.cs107.play.game.Playable;
 import ch.epfl.cs107.play.game.actor.Actor;
+import ch.epfl.cs107.play.game.areagame.actor.AreaEntity;
+import ch.epfl.cs107.play.game.areagame.actor.CollectableAreaEntity;
 import ch.epfl.cs107.play.game.areagame.actor.Interactable;
 import ch.epfl.cs107.play.game.areagame.actor.Interactor;
+import ch.epfl.cs107.play.game.areagame.actor.MovableAreaEntity;
+import ch.epfl.cs107.play.game.areagame.actor.Snapshotable;
+import ch.epfl.cs107.play.game.areagame.actor.StaticDrawable;
 import ch.epfl.cs107.play.game.superpacman.area.camera.Camera;
 import ch.epfl.cs107.play.game.superpacman.area.camera.Follow;
 import ch.epfl.cs107.play.game.superpacman.area.camera.SmoothLimited;
 import ch.epfl.cs107.play.game.superpacman.menus.MenuStateManager;
 import ch.epfl.cs107.play.io.FileSystem;
 import ch.epfl.cs107.play.math.DiscreteCoordinates;
+import ch.epfl.cs107.play.math.Transform;
 import ch.epfl.cs107.play.math.Vector;
+import ch.epfl.cs107.play.window.Image;
 import ch.epfl.cs107.play.window.Keyboard;
 import ch.epfl.cs107.play.window.Mouse;
 import ch.epfl.cs107.play.window.Window;
 
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Area is a "Part" of the AreaGame. An Area is made of a Behavior, and a List of Actors
  */
 public abstract class Area implements Playable {
 
+    /// Initial size of the snapshot buffer, doubled when too small
+    private static final int SNAPSHOT_INITIAL_CAPACITY = 4096;
+    /// Resolution bounds of the static layer, in pixel per cell, and its maximal size in pixel
+    private static final int STATIC_LAYER_MIN_RESOLUTION = 8;
+    private static final int STATIC_LAYER_MAX_RESOLUTION = 64;
+    private static final int STATIC_LAYER_MAX_SIZE = 4096;
+    /// Size in cells of the culling grid buckets, and margin in cells around the view, for the cell size and glows
+    private static final int CULLING_BUCKET_SIZE = 4;
+    private static final float CULLING_MARGIN = 3.0f;
+    /// Resolution in pixel per cell of the level of detail snapshot, and its refresh period in seconds
+    private static final int LEVEL_OF_DETAIL_RESOLUTION = 16;
+    private static final float LEVEL_OF_DETAIL_PERIOD = 0.25f;
+
     // Context objects
     private Window window;
     private FileSystem fileSystem;
@@ -41,6 +67,24 @@ public abstract class Area implements Playable {
     private List<Interactor> interactors;
     private Map<Interactable, List<DiscreteCoordinates>> interactablesToEnter;
     private Map<Interactable, List<DiscreteCoordinates>> interactablesToLeave;
+    // [modification] - Actors written in snapshots, in registration order
+    private Set<Snapshotable> snapshotables;
+    private ByteBuffer snapshotBuffer;
+    // [modification] - Static actors, rasterized once into a single image
+    private List<Actor> staticActors;
+    private Image staticLayer;
+    private int staticLayerResolution;
+    private boolean staticLayerValid;
+    // [modification] - Cullable actors by bucket of the culling grid, row by row
+    private List<List<Actor>> cullingGrid;
+    private int cullingGridWidth;
+    private int cullingGridHeight;
+    private Map<Actor, List<Actor>> cullingBuckets;
+    private int drawnActorCount;
+    private int culledActorCount;
+    // [modification] - Snapshot of the whole area, drawn instead of the actors when zoomed out
+    private Image levelOfDetail;
+    private float levelOfDetailAge;
     /// The behavior Map
     private AreaBehavior areaBehavior;
     /// stop mechanics and menu to display. May be null
@@ -101,6 +145,17 @@ public abstract class Area implements Playable {
 			errorHappen = errorHappen || !enterAreaCells(((Interactable) a), ((Interactable) a).getCurrentCells());
 		errorHappen = errorHappen || !actors.add(a);
 		// errorHappen == true means that the grid or the Area are against the addition
+		if(!errorHappen && a instanceof Snapshotable)
+			snapshotables.add((Snapshotable) a);
+		if(!errorHappen && a instanceof StaticDrawable) {
+			staticActors.add(a);
+			invalidateStaticLayer();
+		}
+		if(!errorHappen && isCullable(a)) {
+			List<Actor> bucket = getCullingBucket(a);
+			bucket.add(a);
+			cullingBuckets.put(a, bucket);
+		}
 
 		if(errorHappen && !safeMode) {
 			System.out.println("Actor " + a + " cannot be completely added, so remove it from where it was");
@@ -125,6 +180,13 @@ public abstract class Area implements Playable {
 			errorHappen = errorHappen || !leaveAreaCells(((Interactable) a), ((Interactable) a).getCurrentCells());
 		errorHappen = errorHappen || !actors.remove(a);
 		// errorHappen == true means that the grid or the Area are against the removal
+		if(!errorHappen && a instanceof Snapshotable && !((Snapshotable) a).keepsStateWhenUnregistered())
+			snapshotables.remove(a);
+		if(!errorHappen && staticActors.remove(a))
+			invalidateStaticLayer();
+		if(!errorHappen && cullingBuckets.containsKey(a))
+			// The bucket it was added to, a collectable may have moved when collected
+			cullingBuckets.remove(a).remove(a);
 
 		if(errorHappen && !safeMode) {
 			System.out.println("Actor " + a + " cannot be completely removed, so add it from where it was");
@@ -163,6 +225,57 @@ public abstract class Area implements Playable {
 	}
 
 
+	/**
+	 * Request the static layer to be rasterized again before the next draw,
+	 * to be called when the drawing of a StaticDrawable actor changes
+	 */
+	public final void invalidateStaticLayer() {
+		staticLayerValid = false;
+	}
+
+	/**
+	 * Depth of the static layer, and of the zoomed out snapshot: Can be overridden.
+	 * Areas whose actors use explicit depths must override it to keep the static actors at their place
+	 * @return (float): below the RPGSprites by default, whose depth is -y
+	 */
+	protected float getStaticLayerDepth() {
+		return -getHeight() - 1;
+	}
+
+	/**
+	 * Indicate if an actor is only drawn when seen by the camera: Can be overridden.
+	 * Such actors must not move while registered and must not draw further than CULLING_MARGIN from their cell
+	 * @param a (Actor): any actor, not null
+	 * @return (boolean): true by default for the collectables, which only move when collected, and for the fixed
+	 * area entities, except the static and interactor ones
+	 */
+	protected boolean isCullable(Actor a) {
+		if (a instanceof StaticDrawable) {
+			return false;
+		}
+		return a instanceof CollectableAreaEntity
+			   || a instanceof AreaEntity && !(a instanceof MovableAreaEntity) && !(a instanceof Interactor);
+	}
+
+	/**
+	 * Screen resolution below which the area is drawn from a low resolution snapshot: Can be overridden.
+	 * The snapshot holds every actor and their glows, and is only refreshed periodically
+	 * @return (float): threshold in pixel per cell, 0 by default so that the actors are always drawn
+	 */
+	protected float getLevelOfDetailThreshold() {
+		return 0.0f;
+	}
+
+	/** @return (int): number of actors drawn at the last update, the static layer counts as one */
+	public int getDrawnActorCount() {
+		return drawnActorCount;
+	}
+
+	/** @return (int): number of cullable actors not drawn at the last update as they were out of view */
+	public int getCulledActorCount() {
+		return culledActorCount;
+	}
+
 	/**
 	 * Getter for the area width
 	 * @return (int) : the width in number of cols
@@ -263,6 +376,14 @@ public abstract class Area implements Playable {
 		unregisteredActors = new LinkedList<>();
 		interactablesToEnter = new HashMap<>();
 		interactablesToLeave = new HashMap<>();
+		snapshotables = new LinkedHashSet<>();
+		snapshotBuffer = ByteBuffer.allocate(SNAPSHOT_INITIAL_CAPACITY);
+		staticActors = new LinkedList<>();
+		staticLayer = null;
+		staticLayerValid = false;
+		levelOfDetail = null;
+		cullingGrid = null;
+		cullingBuckets = new HashMap<>();
 		camera = null;
 		// [modification] -  removed, not used for camera
 //		viewCenter = Vector.ZERO;
@@ -326,12 +447,134 @@ public abstract class Area implements Playable {
 		// [modification] - adapted to states and settings
 		if (!MenuStateManager.isPaused() && !MenuStateManager.isEndGame()) {
 			// Draw actors and play sounds
+			drawnActorCount = 0;
+			culledActorCount = 0;
+			// [modification] - Zoomed out, the cells are too small on screen for the actors to be drawn one by one
+			boolean zoomedOut = window.getWidth() / window.getScaledWidth() < getLevelOfDetailThreshold();
+			if (zoomedOut) {
+				drawLevelOfDetail(deltaTime);
+			} else {
+				levelOfDetail = null;
+				drawStaticLayer();
+			}
 			for (Actor actor : actors) {
 				if (!MenuStateManager.isSoundDeactivated()) {
 					actor.bip(window);
 				}
+				if (!zoomedOut && !(actor instanceof StaticDrawable) && !isCullable(actor)) {
+					actor.draw(window);
+					++drawnActorCount;
+				}
+			}
+			if (!zoomedOut) {
+				drawVisibleActors();
+			}
+		}
+	}
+
+	/**
+	 * Draw the cullable actors of the culling grid buckets seen by the camera
+	 */
+	private void drawVisibleActors() {
+		if (cullingGrid == null) {
+			return;
+		}
+		int minX = Math.max(0, (int) Math.floor((camera.getViewMin().x - CULLING_MARGIN) / CULLING_BUCKET_SIZE));
+		int minY = Math.max(0, (int) Math.floor((camera.getViewMin().y - CULLING_MARGIN) / CULLING_BUCKET_SIZE));
+		int maxX = Math.min(cullingGridWidth - 1, (int) Math.floor((camera.getViewMax().x + CULLING_MARGIN) / CULLING_BUCKET_SIZE));
+		int maxY = Math.min(cullingGridHeight - 1, (int) Math.floor((camera.getViewMax().y + CULLING_MARGIN) / CULLING_BUCKET_SIZE));
+		int visibleCount = 0;
+		for (int y = minY; y <= maxY; ++y) {
+			for (int x = minX; x <= maxX; ++x) {
+				for (Actor actor : cullingGrid.get(y * cullingGridWidth + x)) {
+					actor.draw(window);
+					++visibleCount;
+				}
+			}
+		}
+		drawnActorCount += visibleCount;
+		culledActorCount = cullingBuckets.size() - visibleCount;
+	}
+
+	/**
+	 * Get the culling grid bucket of a cullable actor, the grid is created with the first one
+	 * @param a (Actor): cullable actor, not null
+	 * @return (List of Actor): the bucket containing the actor position, not null
+	 */
+	private List<Actor> getCullingBucket(Actor a) {
+		if (cullingGrid == null) {
+			cullingGridWidth = Math.max(1, (getWidth() + CULLING_BUCKET_SIZE - 1) / CULLING_BUCKET_SIZE);
+			cullingGridHeight = Math.max(1, (getHeight() + CULLING_BUCKET_SIZE - 1) / CULLING_BUCKET_SIZE);
+			cullingGrid = new ArrayList<>(cullingGridWidth * cullingGridHeight);
+			for (int i = 0; i < cullingGridWidth * cullingGridHeight; ++i) {
+				cullingGrid.add(new ArrayList<>());
+			}
+		}
+		Vector position = a.getPosition();
+		int x = Math.min(cullingGridWidth - 1, Math.max(0, (int) Math.floor(position.x / CULLING_BUCKET_SIZE)));
+		int y = Math.min(cullingGridHeight - 1, Math.max(0, (int) Math.floor(position.y / CULLING_BUCKET_SIZE)));
+		return cullingGrid.get(y * cullingGridWidth + x);
+	}
+
+	/**
+	 * Draw the static actors as a single image, rasterized again only when invalidated
+	 * or when the zoom needs another resolution
+	 */
+	private void drawStaticLayer() {
+		if (staticActors.isEmpty()) {
+			return;
+		}
+		// Screen resolution rounded up to a power of two, so that zooming does not rasterize every frame
+		float screenResolution = window.getWidth() / window.getScaledWidth();
+		int resolution = STATIC_LAYER_MIN_RESOLUTION;
+		while (resolution < screenResolution && resolution < STATIC_LAYER_MAX_RESOLUTION &&
+			   2 * resolution * Math.max(getWidth(), getHeight()) <= STATIC_LAYER_MAX_SIZE) {
+			resolution *= 2;
+		}
+		if (!staticLayerValid || resolution != staticLayerResolution) {
+			staticLayer = window.rasterize(canvas -> {
+				for (Actor actor : staticActors) {
+					actor.draw(canvas);
+				}
+			}, 0, 0, getWidth(), getHeight(), resolution);
+			staticLayerResolution = resolution;
+			staticLayerValid = true;
+		}
+		if (staticLayer != null) {
+			window.drawImage(staticLayer, Transform.I.scaled(getWidth(), getHeight()), 1.0f, getStaticLayerDepth());
+			++drawnActorCount;
+		} else {
+			// The window cannot rasterize offscreen, draw them one by one
+			for (Actor actor : staticActors) {
 				actor.draw(window);
 			}
+			drawnActorCount += staticActors.size();
+		}
+	}
+
+	/**
+	 * Draw every actor as a single low resolution image, rasterized again periodically
+	 * @param deltaTime (float): elapsed time since last update, in seconds, non-negative
+	 */
+	private void drawLevelOfDetail(float deltaTime) {
+		levelOfDetailAge += deltaTime;
+		if (levelOfDetail == null || levelOfDetailAge >= LEVEL_OF_DETAIL_PERIOD) {
+			levelOfDetail = window.rasterize(canvas -> {
+				for (Actor actor : actors) {
+					actor.draw(canvas);
+				}
+			}, 0, 0, getWidth(), getHeight(), LEVEL_OF_DETAIL_RESOLUTION);
+			levelOfDetailAge = 0.0f;
+		}
+		if (levelOfDetail != null) {
+			window.drawImage(levelOfDetail, Transform.I.scaled(getWidth(), getHeight()), 1.0f, getStaticLayerDepth());
+			drawnActorCount = 1;
+		} else {
+			// The window cannot rasterize offscreen, draw them one by one
+			for (Actor actor : actors) {
+				actor.draw(window);
+			}
+			drawnActorCount = actors.size();
 		}
 	}
 
@@ -363,6 +606,77 @@ public abstract class Area implements Playable {
 	}
 
 
+	/**
+	 * Take a snapshot of the mutable state of the area and of its Snapshotable actors.
+	 * The snapshot is only valid for this area or for an area built the same way,
+	 * i.e. with the actors registered in the same order
+	 * @return (byte[]): the compact binary snapshot, not null
+	 */
+	public byte[] snapshot() {
+		while (true) {
+			snapshotBuffer.clear();
+			try {
+				snapshotBuffer.putInt(snapshotables.size());
+				for (Snapshotable snapshotable : snapshotables) {
+					snapshotable.writeState(snapshotBuffer);
+				}
+				writeAreaState(snapshotBuffer);
+				break;
+			} catch (BufferOverflowException e) {
+				snapshotBuffer = ByteBuffer.allocate(snapshotBuffer.capacity() * 2);
+			}
+		}
+		byte[] snapshot = new byte[snapshotBuffer.position()];
+		snapshotBuffer.flip();
+		snapshotBuffer.get(snapshot);
+		return snapshot;
+	}
+
+	/**
+	 * Restore in place a snapshot taken with snapshot(), without reallocating the actors.
+	 * Actors collected since the snapshot are registered back and applied at the next update
+	 * @param snapshot (byte[]): snapshot of this area, not null
+	 * @return (boolean): true if the snapshot matches this area and was restored
+	 */
+	public boolean restore(byte[] snapshot) {
+		if (snapshot == null) {
+			throw new NullPointerException();
+		}
+		ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+		try {
+			if (buffer.getInt() != snapshotables.size()) {
+				System.out.println("Snapshot does not match the actors of " + getTitle());
+				return false;
+			}
+			// Copy, restoring a collected actor may change the set
+			for (Snapshotable snapshotable : snapshotables.toArray(new Snapshotable[0])) {
+				snapshotable.readState(buffer);
+			}
+			readAreaState(buffer);
+		} catch (BufferUnderflowException e) {
+			System.out.println("Snapshot of " + getTitle() + " is truncated");
+			e.printStackTrace();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Write the area own state after the actors in a snapshot: Can be overridden
+	 * @param buffer (ByteBuffer): destination buffer, not null
+	 */
+	protected void writeAreaState(ByteBuffer buffer) {
+		// Nothing by default
+	}
+
+	/**
+	 * Read back the area own state written by writeAreaState: Can be overridden
+	 * @param buffer (ByteBuffer): source buffer, not null
+	 */
+	protected void readAreaState(ByteBuffer buffer) {
+		// Nothing by default
+	}
+
 	/**
 	 * Suspend method: Can be overridden, called before resume other
 	 */
@@ -56,6 +56,9 @@ abstract public class AreaGame implements Game {
 
 			currentArea = newArea;
 
+			// [modification] - Assets of the previous areas may now be evicted
+			window.beginResourceScope();
+
 			// Start/Resume the new one
 			if (forceBegin || !currentArea.isStarted()) {
 				currentArea.begin(window, fileSystem);
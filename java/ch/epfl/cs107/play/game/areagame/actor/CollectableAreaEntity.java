@@ -12,8 +12,11 @@ import ch.epfl.cs107.play.game.areagame.handler.AreaInteractionVisitor;
 import ch.epfl.cs107.play.math.DiscreteCoordinates;
 import ch.epfl.cs107.play.math.Vector;
 
+import java.nio.ByteBuffer;
+
 public abstract class CollectableAreaEntity extends MovableAreaEntity {
     private static final int DEFAULT_POINTS = 0;
+    private boolean collected = false;
 
     /**
      * Default MovableAreaEntity constructor
@@ -49,7 +52,12 @@ public abstract class CollectableAreaEntity extends MovableAreaEntity {
         return DEFAULT_POINTS;
     }
 
+    public boolean isCollected() {
+        return collected;
+    }
+
     public void collect() {
+        collected = true;
         getOwnerArea().unregisterActor(this);
     }
 
@@ -57,4 +65,36 @@ public abstract class CollectableAreaEntity extends MovableAreaEntity {
         setCurrentPosition(new Vector(x, y));
     }
 
+    @Override
+    public boolean keepsStateWhenUnregistered() {
+        return true;
+    }
+
+    @Override
+    public void writeState(ByteBuffer buffer) {
+        buffer.put((byte) (collected ? 1 : 0));
+        // A collected entity is out of the area, its position is not needed
+        if (!collected) {
+            super.writeState(buffer);
+        }
+    }
+
+    @Override
+    public void readState(ByteBuffer buffer) {
+        boolean wasCollected = buffer.get() == 1;
+        if (wasCollected) {
+            if (!collected) {
+                collected = true;
+                getOwnerArea().unregisterActor(this);
+            }
+        } else {
+            if (collected) {
+                // Put the entity back, the area adds it to its cells at the next update
+                collected = false;
+                getOwnerArea().registerActor(this);
+            }
+            super.readState(buffer);
+        }
+    }
+
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import ch.epfl.cs107.play.game.areagame.Area;
 import ch.epfl.cs107.play.math.DiscreteCoordinates;
 import ch.epfl.cs107.play.math.Vector;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -12,7 +13,7 @@ import java.util.Set;
 /**
  * MovableAreaEntity represent AreaEntity which can move on the grid
  */
-public abstract class MovableAreaEntity extends AreaEntity {
+public abstract class MovableAreaEntity extends AreaEntity implements Snapshotable {
 
     /// Indicate if a displacement occurs right now
     private boolean displacementOccurs;
@@ -224,6 +225,84 @@ public abstract class MovableAreaEntity extends AreaEntity {
     	remainingFramesForCurrentMove = Math.max(remainingFramesForCurrentMove - 1, 0);
     }
 
+    /// MovableAreaEntity implements Snapshotable
+
+    @Override
+    public void writeState(ByteBuffer buffer) {
+        DiscreteCoordinates mainCell = getCurrentMainCellCoordinates();
+        buffer.put((byte) getOrientation().ordinal());
+        buffer.putInt(mainCell.x).putInt(mainCell.y);
+        buffer.putFloat(getPosition().x).putFloat(getPosition().y);
+        buffer.put((byte) (displacementOccurs ? 1 : 0));
+        buffer.putInt(framesForCurrentMove).putInt(remainingFramesForCurrentMove);
+        if (displacementOccurs) {
+            buffer.putFloat(originPosition.x).putFloat(originPosition.y);
+            buffer.putFloat(targetPosition.x).putFloat(targetPosition.y);
+        }
+        writeCells(buffer, leftCells);
+        writeCells(buffer, enteredCells);
+    }
+
+    @Override
+    public void readState(ByteBuffer buffer) {
+        // Leave every cell this may currently be registered in, whatever the pending moves are
+        List<DiscreteCoordinates> occupiedCells = new ArrayList<>(getCurrentCells());
+        if (enteredCells != null) {
+            occupiedCells.addAll(enteredCells);
+        }
+        getOwnerArea().leaveAreaCells(this, occupiedCells);
+
+        // Bypass the displacement check of orientate, the motion is restored below
+        super.orientate(Orientation.values()[buffer.get()]);
+        // The main cell is only updated on integer positions: set it before the exact position
+        setCurrentPosition(new Vector(buffer.getInt(), buffer.getInt()));
+        setCurrentPosition(new Vector(buffer.getFloat(), buffer.getFloat()));
+        displacementOccurs = buffer.get() == 1;
+        framesForCurrentMove = buffer.getInt();
+        remainingFramesForCurrentMove = buffer.getInt();
+        if (displacementOccurs) {
+            originPosition = new Vector(buffer.getFloat(), buffer.getFloat());
+            targetPosition = new Vector(buffer.getFloat(), buffer.getFloat());
+        }
+        leftCells = readCells(buffer);
+        enteredCells = readCells(buffer);
+
+        getOwnerArea().enterAreaCells(this, displacementOccurs && enteredCells != null ? enteredCells : getCurrentCells());
+    }
+
+    /**
+     * Write a list of cells into a snapshot buffer
+     * @param buffer (ByteBuffer): destination buffer, not null
+     * @param cells (List of DiscreteCoordinates): the cells to write, may be null
+     */
+    private static void writeCells(ByteBuffer buffer, List<DiscreteCoordinates> cells) {
+        if (cells == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        buffer.putShort((short) cells.size());
+        for (DiscreteCoordinates cell : cells) {
+            buffer.putInt(cell.x).putInt(cell.y);
+        }
+    }
+
+    /**
+     * Read a list of cells written by writeCells
+     * @param buffer (ByteBuffer): source buffer, not null
+     * @return (List of DiscreteCoordinates): the cells read, may be null
+     */
+    private static List<DiscreteCoordinates> readCells(ByteBuffer buffer) {
+        short size = buffer.getShort();
+        if (size < 0) {
+            return null;
+        }
+        List<DiscreteCoordinates> cells = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            cells.add(new DiscreteCoordinates(buffer.getInt(), buffer.getInt()));
+        }
+        return cells;
+    }
+
     /// Implements Positionable
 
     @Override
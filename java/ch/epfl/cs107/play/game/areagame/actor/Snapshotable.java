@@ -0,0 +1,34 @@
+package ch.epfl.cs107.play.game.areagame.actor;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Represent an Actor whose mutable state can be written into a compact binary snapshot
+ * and restored in place, without reallocating the actor
+ * @see ch.epfl.cs107.play.game.areagame.Area#snapshot()
+ */
+public interface Snapshotable {
+
+    /**
+     * Write the mutable state of this into the buffer
+     * @param buffer (ByteBuffer): destination buffer, not null
+     */
+    void writeState(ByteBuffer buffer);
+
+    /**
+     * Read back, in place, a state written by writeState.
+     * Exactly the same amount of bytes as written must be consumed
+     * @param buffer (ByteBuffer): source buffer, not null
+     */
+    void readState(ByteBuffer buffer);
+
+    /**
+     * Indicate if the state must still be kept once this is unregistered from its area,
+     * i.e. if a restore can bring it back into the area
+     * @return (boolean): false by default
+     */
+    default boolean keepsStateWhenUnregistered() {
+        return false;
+    }
+}
@@ -0,0 +1,11 @@
+package ch.epfl.cs107.play.game.areagame.actor;
+
+
+/**
+ * Represent an Actor whose drawing never changes by itself: its area rasterizes it once
+ * into a static layer instead of drawing it every frame.
+ * A change of the drawing must be notified with Area.invalidateStaticLayer()
+ * @see ch.epfl.cs107.play.game.areagame.Area#invalidateStaticLayer()
+ */
+public interface StaticDrawable {
+}
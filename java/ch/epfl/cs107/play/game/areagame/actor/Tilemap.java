@@ -0,0 +1,160 @@
+package ch.epfl.cs107.play.game.areagame.actor;
+
+import ch.epfl.cs107.play.game.actor.Graphics;
+import ch.epfl.cs107.play.math.RegionOfInterest;
+import ch.epfl.cs107.play.window.Canvas;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+
+/**
+ * Grid of tiles of one cell each, stored as a compact array of tile indices into a tile set.
+ * The cell (x, y) covers the world square from (x, y) to (x + 1, y + 1).
+ * All the cells showing the same tile are drawn as a single image batch.
+ */
+public class Tilemap implements Graphics {
+
+    /// Index of the cells without tile
+    public static final short EMPTY = -1;
+
+    private final int width;
+    private final int height;
+    /// Tile index of each cell, row by row from the bottom
+    private final short[] tiles;
+    /// Tile set: image name, region and tint of each tile index
+    private final String[] names;
+    private final RegionOfInterest[] regions;
+    private final Color[] tints;
+    private final float depth;
+
+    /// Image handles of the tiles, resolved once per canvas
+    private Canvas handleCanvas;
+    private final int[] handles;
+    /// Batch instances of each tile, built again when a cell changes
+    private final float[][] instances;
+    private final int[] counts;
+    private boolean batchesValid;
+
+    /**
+     * Creates a new empty tilemap.
+     * @param width (int): number of columns, positive
+     * @param height (int): number of rows, positive
+     * @param names (Array of String): image name of each tile index, not null
+     * @param regions (Array of RegionOfInterest): region of each tile index in its image, same length as names, not null
+     * @param depth (float): render priority, lower-values drawn first
+     */
+    public Tilemap(int width, int height, String[] names, RegionOfInterest[] regions, float depth) {
+        this(width, height, names, regions, null, depth);
+    }
+
+    /**
+     * Creates a new empty tilemap, with tinted tiles.
+     * @param width (int): number of columns, positive
+     * @param height (int): number of rows, positive
+     * @param names (Array of String): image name of each tile index, not null
+     * @param regions (Array of RegionOfInterest): region of each tile index in its image, same length as names, not null
+     * @param tints (Array of Color): tint of each tile index (see Canvas.TINT_MASK), same length as names, null for none
+     * @param depth (float): render priority, lower-values drawn first
+     */
+    public Tilemap(int width, int height, String[] names, RegionOfInterest[] regions, Color[] tints, float depth) {
+        if (names == null || regions == null)
+            throw new NullPointerException();
+        if (names.length != regions.length || (tints != null && tints.length != names.length) || names.length > Short.MAX_VALUE)
+            throw new IllegalArgumentException("Invalid tile set");
+        this.width = width;
+        this.height = height;
+        this.names = names;
+        this.regions = regions;
+        this.tints = tints;
+        this.depth = depth;
+        tiles = new short[width * height];
+        Arrays.fill(tiles, EMPTY);
+        handles = new int[names.length];
+        instances = new float[names.length][];
+        counts = new int[names.length];
+        batchesValid = false;
+    }
+
+    /** @return (int): number of columns */
+    public int getWidth() {
+        return width;
+    }
+
+    /** @return (int): number of rows */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @param x (int): column, between 0 and width - 1
+     * @param y (int): row, between 0 and height - 1
+     * @return (short): tile index of the cell, EMPTY if none
+     */
+    public short getTile(int x, int y) {
+        return tiles[y * width + x];
+    }
+
+    /**
+     * Changes the tile of a cell
+     * @param x (int): column, between 0 and width - 1
+     * @param y (int): row, between 0 and height - 1
+     * @param tile (short): index in the tile set, EMPTY to clear the cell
+     */
+    public void setTile(int x, int y, short tile) {
+        if (tile < EMPTY || tile >= names.length)
+            throw new IllegalArgumentException("Invalid tile index: " + tile);
+        tiles[y * width + x] = tile;
+        batchesValid = false;
+    }
+
+    /**
+     * Groups the cells by tile, in one instance array per tile index
+     */
+    private void buildBatches() {
+        Arrays.fill(counts, 0);
+        for (short tile : tiles) {
+            if (tile != EMPTY)
+                ++counts[tile];
+        }
+        for (int i = 0; i < counts.length; ++i) {
+            int length = counts[i] * Canvas.BATCH_STRIDE;
+            if (instances[i] == null || instances[i].length < length)
+                instances[i] = new float[length];
+        }
+        Arrays.fill(counts, 0);
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                short tile = tiles[y * width + x];
+                if (tile == EMPTY)
+                    continue;
+                float[] batch = instances[tile];
+                int offset = counts[tile]++ * Canvas.BATCH_STRIDE;
+                batch[offset] = x;
+                batch[offset + 1] = y;
+                batch[offset + 2] = 1.0f;
+                batch[offset + 3] = 1.0f;
+                batch[offset + 4] = 1.0f;
+            }
+        }
+        batchesValid = true;
+    }
+
+    /// Tilemap implements Graphics
+
+    @Override
+    public void draw(Canvas canvas) {
+        if (!batchesValid)
+            buildBatches();
+        if (handleCanvas != canvas) {
+            for (int i = 0; i < handles.length; ++i) {
+                handles[i] = canvas.getImageHandle(names[i], regions[i], false, tints == null ? null : tints[i]);
+            }
+            handleCanvas = canvas;
+        }
+        for (int i = 0; i < counts.length; ++i) {
+            if (counts[i] > 0)
+                canvas.drawImageBatch(handles[i], instances[i], counts[i], depth);
+        }
+    }
+}
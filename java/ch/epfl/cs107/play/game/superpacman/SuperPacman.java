@@ -20,7 +20,6 @@ import ch.epfl.cs107.play.game.superpacman.leaderboard.GameScore;
 import ch.epfl.cs107.play.game.superpacman.leaderboard.LeaderboardGameScores;
 import ch.epfl.cs107.play.game.superpacman.menus.MenuStateManager;
 import ch.epfl.cs107.play.io.FileSystem;
-import ch.epfl.cs107.play.io.Serialization;
 import ch.epfl.cs107.play.math.transitions.EaseInOutCubic;
 import ch.epfl.cs107.play.math.transitions.Transition;
 import ch.epfl.cs107.play.window.Window;
@@ -28,6 +27,8 @@ import ch.epfl.cs107.play.window.Window;
 public class SuperPacman extends RPG {
     public static final float INIT_CAMERA_SCALE_FACTOR = 120.0f;
     public static final float FIN_CAMERA_SCALE_FACTOR = 37.0f;
+    // Quality tiers, see MenuStateManager.setQualityTier
+    private static final int QUALITY_TIER_COUNT = 5;
     public static float currentCameraScaleFactor = INIT_CAMERA_SCALE_FACTOR;
     private static LeaderboardGameScores leaderboardGameScores;
     private final String[] areas =
@@ -40,6 +41,8 @@ public class SuperPacman extends RPG {
     private float timer = 0;
     private boolean pauseTimer = false;
     private SuperPacmanPlayer player;
+    // Snapshot of the current area taken while the game is paused, restored when it resumes
+    private byte[] pauseSnapshot;
 
     /* ----------------------------------- ACCESSORS ----------------------------------- */
 
@@ -52,6 +55,16 @@ public class SuperPacman extends RPG {
         return "Super Pac-mac";
     }
 
+    @Override
+    public int getQualityTierCount() {
+        return QUALITY_TIER_COUNT;
+    }
+
+    @Override
+    public void setQualityTier(int tier) {
+        MenuStateManager.setQualityTier(tier);
+    }
+
     @Override
     protected void initPlayer(Player player) {
         super.initPlayer(player);
@@ -68,12 +81,7 @@ public class SuperPacman extends RPG {
 
             arcade = new Arcade(window);
 
-            Object leaderboardScoresTemp = Serialization.deserialize("leaderboard.ser");
-            if (leaderboardScoresTemp != null) {
-                leaderboardGameScores = (LeaderboardGameScores) leaderboardScoresTemp;
-            } else {
-                leaderboardGameScores = new LeaderboardGameScores();
-            }
+            leaderboardGameScores = new LeaderboardGameScores();
             return true;
         }
         return false;
@@ -96,6 +104,7 @@ public class SuperPacman extends RPG {
         if (MenuStateManager.isStartGame()) {
             updateGame(deltaTime);
         }
+        updatePauseSnapshot();
 
         super.update(deltaTime);
         // update arcade
@@ -181,6 +190,23 @@ public class SuperPacman extends RPG {
         }
     }
 
+    /**
+     * Method to keep the state of the current area while the game is paused, and to restore it on resume
+     */
+    private void updatePauseSnapshot() {
+        if (MenuStateManager.isPaused()) {
+            if (pauseSnapshot == null) {
+                pauseSnapshot = getCurrentArea().snapshot();
+            }
+        } else if (pauseSnapshot != null) {
+            // The game ended from the pause menu, the area is begun again
+            if (!MenuStateManager.isEndGame()) {
+                getCurrentArea().restore(pauseSnapshot);
+            }
+            pauseSnapshot = null;
+        }
+    }
+
     @Override
     public void end() {
         super.end();
@@ -3,7 +3,9 @@ package ch.epfl.cs107.play.game.superpacman.actor;
 import ch.epfl.cs107.play.game.areagame.Area;
 import ch.epfl.cs107.play.game.areagame.actor.AreaEntity;
 import ch.epfl.cs107.play.game.areagame.actor.Orientation;
+import ch.epfl.cs107.play.game.areagame.actor.Snapshotable;
 import ch.epfl.cs107.play.game.areagame.actor.Sprite;
+import ch.epfl.cs107.play.game.areagame.actor.StaticDrawable;
 import ch.epfl.cs107.play.game.areagame.handler.AreaInteractionVisitor;
 import ch.epfl.cs107.play.game.rpg.actor.RPGSprite;
 import ch.epfl.cs107.play.game.superpacman.actor.collectables.Key;
@@ -15,10 +17,11 @@ import ch.epfl.cs107.play.math.RegionOfInterest;
 import ch.epfl.cs107.play.signal.logic.Logic;
 import ch.epfl.cs107.play.window.Canvas;
 
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.List;
 
-public class Gate extends AreaEntity {
+public class Gate extends AreaEntity implements Snapshotable, StaticDrawable {
     private static final String GATE_PATHNAME = "superpacman/gateGlow";
     private Sprite sprite;
     private Key singleLogicKey;
@@ -101,20 +104,41 @@ public class Gate extends AreaEntity {
     @Override
     public void update(float deltaTime) {
         if (Pellet.areaAllPelletsCleared()) {
-            signal = Logic.TRUE;
+            setSignal(Logic.TRUE);
         } else {
             if (checkIfTwoKeys) {
                 if (doubleLogicKey[0].getSignal().isOn() && doubleLogicKey[1].getSignal().isOn()) {
-                    signal = Logic.TRUE;
+                    setSignal(Logic.TRUE);
                 }
             } else {
                 if (singleLogicKey != null && singleLogicKey.getSignal().isOn()) {
-                    signal = Logic.TRUE;
+                    setSignal(Logic.TRUE);
                 }
             }
         }
     }
 
+    /**
+     * Method to change the signal, the gate is only drawn while closed
+     * @param signal the new signal
+     */
+    private void setSignal(Logic signal) {
+        if (this.signal.isOn() != signal.isOn()) {
+            getOwnerArea().invalidateStaticLayer();
+        }
+        this.signal = signal;
+    }
+
+    @Override
+    public void writeState(ByteBuffer buffer) {
+        buffer.put((byte) (signal.isOn() ? 1 : 0));
+    }
+
+    @Override
+    public void readState(ByteBuffer buffer) {
+        setSignal(buffer.get() == 1 ? Logic.TRUE : Logic.FALSE);
+    }
+
     @Override
     public List<DiscreteCoordinates> getCurrentCells() {
         return Collections.singletonList(getCurrentMainCellCoordinates());
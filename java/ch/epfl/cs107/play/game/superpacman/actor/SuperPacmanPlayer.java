@@ -36,6 +36,7 @@ import ch.epfl.cs107.play.window.Button;
 import ch.epfl.cs107.play.window.Canvas;
 import ch.epfl.cs107.play.window.Keyboard;
 
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -310,6 +311,39 @@ public class SuperPacmanPlayer extends Player {
         gameOver = false;
     }
 
+    @Override
+    public void writeState(ByteBuffer buffer) {
+        super.writeState(buffer);
+        buffer.putInt(currentHp).putInt(score);
+        buffer.putFloat(areaTimer).putFloat(timer);
+        buffer.put((byte) (desiredOrientation == null ? -1 : desiredOrientation.ordinal()));
+        buffer.put((byte) currentOrientation.ordinal());
+        buffer.put((byte) (gameOver ? 1 : 0));
+        buffer.put((byte) (dead ? 1 : 0));
+        buffer.put((byte) (canUserMove ? 1 : 0));
+        buffer.putInt(comboCount);
+    }
+
+    @Override
+    public void readState(ByteBuffer buffer) {
+        super.readState(buffer);
+        currentHp = buffer.getInt();
+        score = buffer.getInt();
+        areaTimer = buffer.getFloat();
+        timer = buffer.getFloat();
+        byte desired = buffer.get();
+        desiredOrientation = desired < 0 ? null : Orientation.values()[desired];
+        currentOrientation = Orientation.values()[buffer.get()];
+        gameOver = buffer.get() == 1;
+        // Set directly, the death sound must not be replayed
+        dead = buffer.get() == 1;
+        canUserMove = buffer.get() == 1;
+        comboCount = buffer.getInt();
+        if (!dead) {
+            glow.reset();
+        }
+    }
+
     @Override
     public void draw(Canvas canvas) {
         gui.draw(canvas);
@@ -8,16 +8,17 @@
 package ch.epfl.cs107.play.game.superpacman.actor;
 
 import ch.epfl.cs107.play.game.actor.Graphics;
-import ch.epfl.cs107.play.game.actor.ImageGraphics;
-import ch.epfl.cs107.play.game.actor.TextGraphics;
 import ch.epfl.cs107.play.game.areagame.io.ResourcePath;
 import ch.epfl.cs107.play.game.superpacman.SuperPacman;
 import ch.epfl.cs107.play.game.superpacman.actor.collectables.Pellet;
 import ch.epfl.cs107.play.game.superpacman.area.SuperPacmanAreaBehavior;
 import ch.epfl.cs107.play.game.superpacman.globalenums.SuperPacmanDepth;
+import ch.epfl.cs107.play.game.superpacman.globalenums.SuperPacmanDifficulty;
+import ch.epfl.cs107.play.game.superpacman.graphics.HudText;
 import ch.epfl.cs107.play.game.superpacman.menus.MenuStateManager;
 import ch.epfl.cs107.play.math.RegionOfInterest;
-import ch.epfl.cs107.play.math.Vector;
+import ch.epfl.cs107.play.math.TextAlign;
+import ch.epfl.cs107.play.math.Transform;
 import ch.epfl.cs107.play.math.transitions.EaseInOutCubic;
 import ch.epfl.cs107.play.math.transitions.EaseOutCirc;
 import ch.epfl.cs107.play.math.transitions.Transition;
@@ -26,6 +27,7 @@ import ch.epfl.cs107.play.window.Canvas;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 public class SuperPacmanPlayerStatusGUI implements Graphics {
@@ -39,17 +41,33 @@ public class SuperPacmanPlayerStatusGUI implements Graphics {
     private static final int LIFE_SPRITE_SIZE = 14;
     private static final String FONT = "emulogic";
     private static final String LIVES_PATHNAME = "superpacman/lifeDisplaySmall";
+    private static final String INFINITY_PATHNAME = "superpacman/infinitySymbol";
     private static final float FONT_SIZE = 1.0f;
+    private static final float SCORE_FONT_SIZE = FONT_SIZE - 0.1f;
+    private static final float SMALL_FONT_SIZE = FONT_SIZE - 0.4f;
+    private static final float HISTORY_FONT_SIZE = FONT_SIZE - 0.5f;
     private static final int LIFE = 0;
     private static final int NO_LIFE = LIFE_SPRITE_SIZE;
+    private static final RegionOfInterest LIFE_REGION = new RegionOfInterest(LIFE, 0, LIFE_SPRITE_SIZE, LIFE_SPRITE_SIZE);
+    private static final RegionOfInterest NO_LIFE_REGION = new RegionOfInterest(NO_LIFE, 0, LIFE_SPRITE_SIZE, LIFE_SPRITE_SIZE);
     private final int playerMaxHp;
-    private final TextGraphics highScoreTitle;
-    private final TextGraphics score;
-    private final TextGraphics pelletTitle;
-    private final TextGraphics eatenPelletsCount;
-    private final TextGraphics timerTitle;
-    private final TextGraphics timer;
-    private final TextGraphics difficultyMultiplier;
+    // Instances of the remaining and lost lives icons, drawn as two batches
+    private final float[] lives;
+    private final float[] lostLives;
+    // Life icons, resolved once per canvas
+    private Canvas handleCanvas;
+    private int lifeHandle;
+    private int noLifeHandle;
+    private int infinityHandle;
+    // Retained HUD texts, only laid out and rasterized again when their value changes
+    private final HudText highScoreTitle;
+    private final HudText score;
+    private final HudText pelletTitle;
+    private final HudText eatenPelletsCount;
+    private final HudText timerTitle;
+    private final HudText timer;
+    private final HudText difficultyMultiplier;
+    private final List<HudText> historyTimers = new ArrayList<>();
     private int playerCurrentHp;
     private int playerScore = 0;
     private int tmpPlayerScore = 0;
@@ -58,7 +76,15 @@ public class SuperPacmanPlayerStatusGUI implements Graphics {
     private float buffer = 0;
     private Transition points = new EaseOutCirc(0.015f);
     private Transition noPoints = new EaseInOutCubic(0.01f);
-    private List<Float> areaTimerHistory = new ArrayList<>();
+    private Collection<Float> areaTimerHistory = Collections.emptyList();
+    // Values currently shown, to detect the changes
+    private int shownScore = -1;
+    private int shownComboCount = -1;
+    private int shownEatenPellets = -1;
+    private int shownTotalPellets = -1;
+    private float shownAreaTimer = -1;
+    private float[] shownHistory = new float[0];
+    private SuperPacmanDifficulty shownDifficulty;
 
     /**
      * Constructor for SuperPacmanPlayerStatusGUI
@@ -68,48 +94,132 @@ public class SuperPacmanPlayerStatusGUI implements Graphics {
     protected SuperPacmanPlayerStatusGUI(int playerCurrentHp, int playerMaxHp) {
         this.playerCurrentHp = playerCurrentHp;
         this.playerMaxHp = playerMaxHp;
+        lives = new float[playerMaxHp * Canvas.BATCH_STRIDE];
+        lostLives = new float[playerMaxHp * Canvas.BATCH_STRIDE];
 
-        highScoreTitle = new TextGraphics("High Score", FONT_SIZE, Color.WHITE, Color.BLACK, 0.0f, false, false, null);
-        setFontAndDepth(highScoreTitle);
+        highScoreTitle = createText("High Score", FONT_SIZE, TextAlign.Horizontal.CENTER, false);
 
-        score = new TextGraphics("", FONT_SIZE - 0.1f, Color.WHITE, Color.BLACK, 0.0f, false, false, null);
-        setFontAndDepth(score);
+        score = createText("", SCORE_FONT_SIZE, TextAlign.Horizontal.CENTER, false);
+        // The score grows by up to one font size when points are won
+        score.setMaxScale((SCORE_FONT_SIZE + 1) / SCORE_FONT_SIZE);
 
-        pelletTitle = new TextGraphics("Pellets", FONT_SIZE - 0.4f, Color.WHITE, Color.BLACK, 0.0f, false, false, null);
-        setFontAndDepth(pelletTitle);
-
-        eatenPelletsCount =
-                new TextGraphics(Pellet.getNbrOfPelletsEaten() + "/" + Pellet.getTotalPellets(), FONT_SIZE - 0.4f,
-                                 Color.WHITE, Color.BLACK, 0.0f, false, false, null);
-        setFontAndDepth(eatenPelletsCount);
-
-        timerTitle = new TextGraphics("Time", FONT_SIZE - 0.4f, Color.WHITE, Color.BLACK, 0.0f, false, false, null);
-        setFontAndDepth(timerTitle);
-
-        timer = new TextGraphics("", FONT_SIZE - 0.4f, Color.WHITE, Color.BLACK, 0.0f, false, false, null);
-        setFontAndDepth(timer);
-
-        difficultyMultiplier =
-                new TextGraphics("", FONT_SIZE - 0.4f, Color.WHITE, Color.BLACK, 0.0f, false, false, null);
-        setFontAndDepth(difficultyMultiplier);
+        pelletTitle = createText("Pellets", SMALL_FONT_SIZE, TextAlign.Horizontal.LEFT, false);
+        eatenPelletsCount = createText("", SMALL_FONT_SIZE, TextAlign.Horizontal.LEFT, false);
+        timerTitle = createText("Time", SMALL_FONT_SIZE, TextAlign.Horizontal.RIGHT, false);
+        // The timer changes every frame, it is composed from its digits
+        timer = createText("", SMALL_FONT_SIZE, TextAlign.Horizontal.RIGHT, true);
+        difficultyMultiplier = createText("", SMALL_FONT_SIZE, TextAlign.Horizontal.RIGHT, false);
     }
 
-    private void setFontAndDepth(TextGraphics textGraphics) {
-        textGraphics.setFontName(FONT);
-        textGraphics.setDepth(SuperPacmanDepth.PAYER_GUI.value);
+    /**
+     * Method to create a text of the GUI
+     * @param text         (String): the initial content
+     * @param fontSize     (float): the font size
+     * @param hAlign       (TextAlign.Horizontal): the alignment around its position
+     * @param perCharacter (boolean): whether the text changes every frame
+     * @return (HudText): the new text
+     */
+    private static HudText createText(String text, float fontSize, TextAlign.Horizontal hAlign, boolean perCharacter) {
+        return new HudText(text, fontSize, Color.WHITE, FONT, hAlign, perCharacter, SuperPacmanDepth.PAYER_GUI.value);
     }
 
     /**
      * Method to update GUI with new values
-     * @param currentHp the SuperPacmanPlayer's current health
-     * @param score     the SuperPacmanPlayer's current health
+     * @param currentHp    the SuperPacmanPlayer's current health
+     * @param score        the SuperPacmanPlayer's current health
+     * @param historyTimer the times of the completed areas, kept as a live view
      */
     protected void update(int currentHp, int score, int comboCount, float areaTimer, Collection<Float> historyTimer) {
         this.playerCurrentHp = currentHp;
         this.playerScore = score;
         this.playerComboCount = comboCount;
         this.areaTimer = areaTimer;
-        this.areaTimerHistory = new ArrayList<>(historyTimer);
+        this.areaTimerHistory = historyTimer;
+    }
+
+    /**
+     * Method to add a life icon to a batch
+     * @param batch (Array of float): instances of the batch, not null
+     * @param count (int): number of icons already in the batch
+     * @param x     (float): world x coordinate of the icon
+     * @param y     (float): world y coordinate of the icon
+     * @return (int): the new number of icons in the batch
+     */
+    private static int addLife(float[] batch, int count, float x, float y) {
+        int offset = count * Canvas.BATCH_STRIDE;
+        batch[offset] = x;
+        batch[offset + 1] = y;
+        batch[offset + 2] = LIFE_SIZE;
+        batch[offset + 3] = LIFE_SIZE;
+        batch[offset + 4] = 1;
+        return count + 1;
+    }
+
+    /**
+     * Method to set the texts whose value changed since the last frame
+     */
+    private void updateTexts() {
+        // Score
+        if (playerScore != shownScore || playerComboCount != shownComboCount) {
+            String scoreText = String.valueOf(playerScore);
+            if (playerComboCount != 0) {
+                scoreText += " *" + (playerComboCount + 1);
+            }
+            score.setText(scoreText);
+            shownScore = playerScore;
+            shownComboCount = playerComboCount;
+        }
+
+        // Eaten pellets
+        if (Pellet.getNbrOfPelletsEaten() != shownEatenPellets || Pellet.getTotalPellets() != shownTotalPellets) {
+            shownEatenPellets = Pellet.getNbrOfPelletsEaten();
+            shownTotalPellets = Pellet.getTotalPellets();
+            eatenPelletsCount.setText(shownEatenPellets + "/" + shownTotalPellets);
+        }
+
+        // Timer
+        if (areaTimer != shownAreaTimer) {
+            timer.setText(String.format("%.3f", areaTimer));
+            shownAreaTimer = areaTimer;
+        }
+
+        // History Timer
+        if (isHistoryChanged()) {
+            shownHistory = new float[areaTimerHistory.size()];
+            int i = 0;
+            for (Float historyTime : areaTimerHistory) {
+                shownHistory[i] = historyTime;
+                if (i == historyTimers.size()) {
+                    historyTimers.add(createText("", HISTORY_FONT_SIZE, TextAlign.Horizontal.RIGHT, false));
+                }
+                historyTimers.get(i).setText(String.format("%.3f", historyTime));
+                ++i;
+            }
+        }
+
+        // Difficulty Multiplier
+        SuperPacmanDifficulty difficulty = SuperPacmanAreaBehavior.getInitDifficulty();
+        if (difficulty != shownDifficulty) {
+            difficultyMultiplier.setText(String.format("%s *%s", difficulty.name(), difficulty.multiplicationFactor));
+            shownDifficulty = difficulty;
+        }
+    }
+
+    /**
+     * Method to compare the area times to the shown ones, without copying them
+     * @return (boolean): true if an area time was added, removed or changed
+     */
+    private boolean isHistoryChanged() {
+        if (areaTimerHistory.size() != shownHistory.length) {
+            return true;
+        }
+        int i = 0;
+        for (Float historyTime : areaTimerHistory) {
+            if (historyTime != shownHistory[i++]) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -117,61 +227,56 @@ public class SuperPacmanPlayerStatusGUI implements Graphics {
         float width = canvas.getScaledWidth();
         float height = canvas.getScaledHeight();
 
-        Vector anchor = canvas.getTransform().getOrigin().sub(new Vector(width / 2, height / 2));
         if (SuperPacman.currentCameraScaleFactor < 55) {
+            Transform view = canvas.getTransform();
+            float anchorX = view.m02 - width / 2;
+            float anchorY = view.m12 - height / 2;
+            if (handleCanvas != canvas) {
+                String lifeSprite = ResourcePath.getSprite(LIVES_PATHNAME);
+                lifeHandle = canvas.getImageHandle(lifeSprite, LIFE_REGION, false);
+                noLifeHandle = canvas.getImageHandle(lifeSprite, NO_LIFE_REGION, false);
+                infinityHandle = canvas.getImageHandle(ResourcePath.getSprite(INFINITY_PATHNAME), null, false);
+                handleCanvas = canvas;
+            }
+
             // Lives
             if (!MenuStateManager.isGodMode()) {
+                int lifeCount = 0;
+                int lostLifeCount = 0;
                 for (int i = 0; i < playerMaxHp; ++i) {
-                    int x = i < playerCurrentHp ? LIFE : NO_LIFE;
-
                     float xPos =
                             LEFT_EDGE_PADDING + 4 + (HP_SPACING * i) -
                                     (((LIFE_SIZE * playerMaxHp) / 2.f) + (HP_SPACING * ((
                                             playerMaxHp / 2.f) - 2)));
                     float yPos = (BOTTOM_EDGE_PADDING) - 0.75f;
 
-                    ImageGraphics life = new ImageGraphics(ResourcePath.getSprite(LIVES_PATHNAME),
-                                                           LIFE_SIZE, LIFE_SIZE,
-                                                           new RegionOfInterest(x, 0, LIFE_SPRITE_SIZE,
-                                                                                LIFE_SPRITE_SIZE),
-                                                           anchor.add(new Vector(xPos, yPos)), 1,
-                                                           SuperPacmanDepth.PAYER_GUI.value);
-                    life.draw(canvas);
+                    if (i < playerCurrentHp) {
+                        lifeCount = addLife(lives, lifeCount, anchorX + xPos, anchorY + yPos);
+                    } else {
+                        lostLifeCount = addLife(lostLives, lostLifeCount, anchorX + xPos, anchorY + yPos);
+                    }
                 }
+                canvas.drawImageBatch(lifeHandle, lives, lifeCount, SuperPacmanDepth.PAYER_GUI.value);
+                canvas.drawImageBatch(noLifeHandle, lostLives, lostLifeCount, SuperPacmanDepth.PAYER_GUI.value);
             } else {
                 // Infinite lives (god mode)
                 float xPos = LEFT_EDGE_PADDING + 4 -
                         (((LIFE_SIZE * playerMaxHp) / 2.f) + (HP_SPACING * ((playerMaxHp / 2.f) - 2)));
                 float yPos = (BOTTOM_EDGE_PADDING) - 0.75f;
 
-                ImageGraphics life = new ImageGraphics(ResourcePath.getSprite(LIVES_PATHNAME),
-                                                       LIFE_SIZE, LIFE_SIZE,
-                                                       new RegionOfInterest(LIFE, 0, LIFE_SPRITE_SIZE,
-                                                                            LIFE_SPRITE_SIZE),
-                                                       anchor.add(new Vector(xPos, yPos)), 1,
-                                                       SuperPacmanDepth.PAYER_GUI.value);
-                life.draw(canvas);
-
-                ImageGraphics infinity = new ImageGraphics(ResourcePath.getSprite("superpacman/infinitySymbol"),
-                                                           LIFE_SIZE, LIFE_SIZE);
-                infinity.setDepth(SuperPacmanDepth.PAYER_GUI.value);
-                infinity.setAlpha(1);
-                infinity.setAnchor(anchor.add(new Vector(xPos + (HP_SPACING), yPos)));
-
-                infinity.draw(canvas);
+                canvas.drawImage(lifeHandle, LIFE_SIZE, 0, anchorX + xPos, 0, LIFE_SIZE, anchorY + yPos, 1,
+                                 SuperPacmanDepth.PAYER_GUI.value);
+                canvas.drawImage(infinityHandle, LIFE_SIZE, 0, anchorX + xPos + HP_SPACING, 0, LIFE_SIZE,
+                                 anchorY + yPos, 1, SuperPacmanDepth.PAYER_GUI.value);
             }
 
+            updateTexts();
+
             // High Score text
-            highScoreTitle.setAnchor(anchor.add(
-                    new Vector(width / 2 - (highScoreTitle.getText().length() * FONT_SIZE / 2),
-                               height - TOP_EDGE_PADDING)));
+            highScoreTitle.setPosition(width / 2, height - TOP_EDGE_PADDING);
             highScoreTitle.draw(canvas);
 
             // Score
-            String scoreText = String.valueOf(playerScore);
-            if (playerComboCount != 0) {
-                scoreText += " *" + (playerComboCount + 1);
-            }
             if (tmpPlayerScore != playerScore) {
                 buffer = points.getProgress();
                 noPoints.setCurrentProgress(points.getProgress());
@@ -179,55 +284,37 @@ public class SuperPacmanPlayerStatusGUI implements Graphics {
                 points.reset();
                 buffer = noPoints.getInverseProgress();
             }
-            score.setText(scoreText);
-            score.setFontSize(FONT_SIZE - 0.1f + buffer);
-            score.setAnchor(anchor.add(new Vector(width / 2 - (scoreText.length() * score.getFontSize() / 2),
-                                                  height - TOP_EDGE_PADDING - TEXT_PADDING + 0.25f)));
+            score.setScale((SCORE_FONT_SIZE + buffer) / SCORE_FONT_SIZE);
+            score.setPosition(width / 2, height - TOP_EDGE_PADDING - TEXT_PADDING + 0.25f);
             score.draw(canvas);
             tmpPlayerScore = playerScore;
 
             // Pellets text
-            pelletTitle.setAnchor(anchor.add(new Vector(LEFT_EDGE_PADDING, height - TOP_EDGE_PADDING + 0.2f)));
+            pelletTitle.setPosition(LEFT_EDGE_PADDING, height - TOP_EDGE_PADDING + 0.2f);
             pelletTitle.draw(canvas);
 
             // Eaten pellets
-            eatenPelletsCount.setText(Pellet.getNbrOfPelletsEaten() + "/" + Pellet.getTotalPellets());
-            eatenPelletsCount.setAnchor(
-                    anchor.add(new Vector(LEFT_EDGE_PADDING, height - TOP_EDGE_PADDING + 0.2f - TEXT_PADDING + 0.25f)));
+            eatenPelletsCount.setPosition(LEFT_EDGE_PADDING, height - TOP_EDGE_PADDING + 0.2f - TEXT_PADDING + 0.25f);
             eatenPelletsCount.draw(canvas);
 
             // Timer text
-            timerTitle.setAnchor(anchor.add(
-                    new Vector(width + RIGHT_EDGE_PADDING - (4 * 0.6f) + 3, height - TOP_EDGE_PADDING + 0.2f)));
+            timerTitle.setPosition(width + RIGHT_EDGE_PADDING + 3, height - TOP_EDGE_PADDING + 0.2f);
             timerTitle.draw(canvas);
 
             // Timer
-            String timerText = String.format("%.3f", areaTimer);
-            timer.setText(timerText);
-            timer.setAnchor(anchor.add(new Vector(width + RIGHT_EDGE_PADDING - (timerText.length() * 0.6f) + 3,
-                                                  height - TOP_EDGE_PADDING + 0.2f - TEXT_PADDING + 0.25f)));
+            timer.setPosition(width + RIGHT_EDGE_PADDING + 3, height - TOP_EDGE_PADDING + 0.2f - TEXT_PADDING + 0.25f);
             timer.draw(canvas);
 
             // History Timer
-            for (int i = 0; i < areaTimerHistory.size(); ++i) {
-                String historyTimerText = String.format("%.3f", areaTimerHistory.get(i));
-                TextGraphics historyTimer =
-                        new TextGraphics(historyTimerText,
-                                         FONT_SIZE - 0.5f, Color.WHITE, Color.BLACK, 0.0f, false, false, anchor.add(
-                                new Vector(width + RIGHT_EDGE_PADDING - (historyTimerText.length() * 0.5f) + 3,
-                                           height - TOP_EDGE_PADDING - 0.6f - (i * 0.6f) - TEXT_PADDING + 0.25f)));
-                setFontAndDepth(historyTimer);
+            for (int i = 0; i < shownHistory.length; ++i) {
+                HudText historyTimer = historyTimers.get(i);
+                historyTimer.setPosition(width + RIGHT_EDGE_PADDING + 3,
+                                         height - TOP_EDGE_PADDING - 0.6f - (i * 0.6f) - TEXT_PADDING + 0.25f);
                 historyTimer.draw(canvas);
             }
 
             // Difficulty Multiplier
-            String difficulty = SuperPacmanAreaBehavior.getInitDifficulty().name();
-            double multiplier = SuperPacmanAreaBehavior.getInitDifficulty().multiplicationFactor;
-            String difficultyText = String.format("%s *%s", difficulty, multiplier);
-            difficultyMultiplier.setText(difficultyText);
-            difficultyMultiplier.setAnchor(
-                    anchor.add(width + RIGHT_EDGE_PADDING - (difficultyText.length() * (FONT_SIZE - 0.4f)) + 2.75f,
-                               BOTTOM_EDGE_PADDING - 0.75f));
+            difficultyMultiplier.setPosition(width + RIGHT_EDGE_PADDING + 2.75f, BOTTOM_EDGE_PADDING - 0.75f);
             difficultyMultiplier.draw(canvas);
         }
     }
@@ -3,170 +3,174 @@ package ch.epfl.cs107.play.game.superpacman.actor;
 import ch.epfl.cs107.play.game.areagame.Area;
 import ch.epfl.cs107.play.game.areagame.actor.AreaEntity;
 import ch.epfl.cs107.play.game.areagame.actor.Orientation;
-import ch.epfl.cs107.play.game.areagame.actor.Sprite;
+import ch.epfl.cs107.play.game.areagame.actor.StaticDrawable;
+import ch.epfl.cs107.play.game.areagame.actor.Tilemap;
 import ch.epfl.cs107.play.game.areagame.handler.AreaInteractionVisitor;
-import ch.epfl.cs107.play.game.rpg.actor.RPGSprite;
+import ch.epfl.cs107.play.game.areagame.io.ResourcePath;
 import ch.epfl.cs107.play.game.superpacman.globalenums.SuperPacmanDepth;
 import ch.epfl.cs107.play.game.superpacman.handler.SuperPacmanInteractionVisitor;
 import ch.epfl.cs107.play.math.DiscreteCoordinates;
 import ch.epfl.cs107.play.math.RegionOfInterest;
 import ch.epfl.cs107.play.window.Canvas;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-public class Wall extends AreaEntity {
-	private String wallName;
-	Sprite sprite;
+// [modification] - One entity for all the walls of an area, occupying every wall cell and drawn as a tilemap
+public class Wall extends AreaEntity implements StaticDrawable {
+	/// Bits of the neighborhood mask, set for each of the 8 neighbor cells holding a wall
+	public static final int LEFT = 1;
+	public static final int RIGHT = 1 << 1;
+	public static final int UP = 1 << 2;
+	public static final int DOWN = 1 << 3;
+	public static final int UP_LEFT = 1 << 4;
+	public static final int UP_RIGHT = 1 << 5;
+	public static final int DOWN_LEFT = 1 << 6;
+	public static final int DOWN_RIGHT = 1 << 7;
+
+	/// Mask sheet of the walls, tinted with the wall color
+	private static final String SHEET_PATHNAME = "superpacman/wallRoundDarkFilled";
+	/// Number of tiles of a wall sheet, one per row, and their size in pixel
+	private static final int TILE_COUNT = 46;
+	private static final int TILE_SIZE = 64;
+	/// Tile of a four way wall, by diagonal neighbors: bit 0 up left, 1 up right, 2 down right, 3 down left
+	private static final short[] FOUR_WAY_TILES = {14, 42, 43, 37, 44, 40, 38, 34, 41, 36, 39, 33, 35, 32, 31, 45};
+	/// Tile of each neighborhood mask, Tilemap.EMPTY for an isolated wall
+	private static final short[] AUTOTILE = new short[256];
+
+	static {
+		for (int mask = 0; mask < AUTOTILE.length; ++mask) {
+			AUTOTILE[mask] = autotile(mask);
+		}
+	}
+
+	private final Tilemap tilemap;
+	private final List<DiscreteCoordinates> cells;
 
 	/**
-	 * Build a Wall from its position and its neighborhood.
-	 * The neighborhood allows to select the sprite, it is a 3x3 matrix
-	 * that indicate if a wall is present in the neighborhood,
-	 * the center corresponds to the current wall position
-	 * @param area         (Area): Owner area. Not null
+	 * Build the empty wall layer of an area, filled with addWall before its registration
+	 * @param area (Area): Owner area, with its behavior set. Not null
+	 */
+	public Wall(Area area) {
+		super(area, Orientation.DOWN, DiscreteCoordinates.ORIGIN);
+		Color[] colors = Color.values();
+		String[] names = new String[colors.length * TILE_COUNT];
+		RegionOfInterest[] regions = new RegionOfInterest[names.length];
+		java.awt.Color[] tints = new java.awt.Color[names.length];
+		for (Color color : colors) {
+			for (int row = 0; row < TILE_COUNT; ++row) {
+				names[color.ordinal() * TILE_COUNT + row] = ResourcePath.getSprite(SHEET_PATHNAME);
+				regions[color.ordinal() * TILE_COUNT + row] = new RegionOfInterest(0, row * TILE_SIZE, TILE_SIZE, TILE_SIZE);
+				tints[color.ordinal() * TILE_COUNT + row] = color.tint;
+			}
+		}
+		tilemap = new Tilemap(area.getWidth(), area.getHeight(), names, regions, tints, SuperPacmanDepth.WALL.value);
+		cells = new ArrayList<>();
+	}
+
+	/**
+	 * Add a wall cell, its sprite is selected from its neighborhood
 	 * @param position     (DiscreteCoordinates): The wall position. Not null
-	 * @param neighborhood (boolean[][]):. The 3x3 matrix. Not null
+	 * @param neighborhood (int): The neighbor cells holding a wall, as a combination of the LEFT ... DOWN_RIGHT bits
+	 * @param color        (Color): The wall color. Not null
 	 */
-	public Wall(Area area, DiscreteCoordinates position, boolean[][] neighborhood, Color color) {
-		super(area, Orientation.DOWN, position);
-		wallName = color.path;
+	public void addWall(DiscreteCoordinates position, int neighborhood, Color color) {
+		short tile = AUTOTILE[neighborhood & 0xFF];
+		if (tile != Tilemap.EMPTY) {
+			tile += color.ordinal() * TILE_COUNT;
+		}
+		tilemap.setTile(position.x, position.y, tile);
+		cells.add(position);
+	}
 
-		if (neighborhood[0][1] && neighborhood[2][1] && !neighborhood[1][0] && !neighborhood[1][2]) {
+	/**
+	 * Select the sheet row of a wall from its neighborhood
+	 * @param mask (int): The neighbor cells holding a wall
+	 * @return (short): The row, Tilemap.EMPTY if the wall is not drawn
+	 */
+	private static short autotile(int mask) {
+		boolean left = (mask & LEFT) != 0;
+		boolean right = (mask & RIGHT) != 0;
+		boolean up = (mask & UP) != 0;
+		boolean down = (mask & DOWN) != 0;
+		boolean upLeft = (mask & UP_LEFT) != 0;
+		boolean upRight = (mask & UP_RIGHT) != 0;
+		boolean downLeft = (mask & DOWN_LEFT) != 0;
+		boolean downRight = (mask & DOWN_RIGHT) != 0;
+
+		if (left && right && !up && !down) {
 			//horizontal
-			sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 0*64, 64, 64));
-		}else if(!neighborhood[0][1] && !neighborhood[2][1] && neighborhood[1][0] && neighborhood[1][2]) {
+			return 0;
+		} else if (!left && !right && up && down) {
 			//vertical
-			sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 1*64, 64, 64));
-		}else if(neighborhood[0][1] && !neighborhood[2][1] && !neighborhood[1][0] && !neighborhood[1][2]) {
+			return 1;
+		} else if (left && !right && !up && !down) {
 			//horizontal dead end right
-			sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 2*64, 64, 64));
-		}else if(!neighborhood[0][1] && neighborhood[2][1] && !neighborhood[1][0] && !neighborhood[1][2]) {
+			return 2;
+		} else if (!left && right && !up && !down) {
 			//horizontal dead end left
-			sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 3*64, 64, 64));
-		}else if(!neighborhood[0][1] && !neighborhood[2][1] && neighborhood[1][0] && !neighborhood[1][2]) {
+			return 3;
+		} else if (!left && !right && up && !down) {
 			//vertical dead end bottom
-			sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 4*64, 64, 64));
-		}else if(!neighborhood[0][1] && !neighborhood[2][1] && !neighborhood[1][0] && neighborhood[1][2]) {
+			return 4;
+		} else if (!left && !right && !up && down) {
 			//vertical dead end top
-			sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 5*64, 64, 64));
-		}else if(neighborhood[0][1] && !neighborhood[2][1] && neighborhood[1][0] && !neighborhood[1][2]) {
+			return 5;
+		} else if (left && !right && up && !down) {
 			//corner left to top
-			if(neighborhood[0][0]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 15*64, 64, 64));
-			}else {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 6*64, 64, 64));
-			}
-		}else if(!neighborhood[0][1] && neighborhood[2][1] && neighborhood[1][0] && !neighborhood[1][2]) {
+			return (short) (upLeft ? 15 : 6);
+		} else if (!left && right && up && !down) {
 			//corner right to top
-			if(neighborhood[2][0]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 16*64, 64, 64));
-			}else {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 7*64, 64, 64));
-			}
-		}else if(neighborhood[0][1] && !neighborhood[2][1] && !neighborhood[1][0] && neighborhood[1][2]) {
+			return (short) (upRight ? 16 : 7);
+		} else if (left && !right && !up && down) {
 			//corner left to bottom
-			if(neighborhood[0][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 17*64, 64, 64));
-			}else {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 8*64, 64, 64));
-			}
-		}else if(!neighborhood[0][1] && neighborhood[2][1] && !neighborhood[1][0] && neighborhood[1][2]) {
+			return (short) (downLeft ? 17 : 8);
+		} else if (!left && right && !up && down) {
 			//corner right to bottom
-			if(neighborhood[2][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 18*64, 64, 64));
-			}else {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 9*64, 64, 64));
-			}
-		}else if(!neighborhood[0][1] && neighborhood[2][1] && neighborhood[1][0] && neighborhood[1][2]) {
+			return (short) (downRight ? 18 : 9);
+		} else if (!left && right && up && down) {
 			//3 way but left
-			if(neighborhood[2][0] && !neighborhood[2][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 19*64, 64, 64));
-			}else if(!neighborhood[2][0] && neighborhood[2][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 20*64, 64, 64));
-			}else if(neighborhood[2][0] && neighborhood[2][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 21*64, 64, 64));
-			}else {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 10*64, 64, 64));
-			}
-		}else if(neighborhood[0][1] && !neighborhood[2][1] && neighborhood[1][0] && neighborhood[1][2]) {
+			return threeWay(upRight, downRight, 19, 10);
+		} else if (left && !right && up && down) {
 			//3 way but right
-			if(neighborhood[0][0] && !neighborhood[0][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 22*64, 64, 64));
-			}else if(!neighborhood[0][0] && neighborhood[0][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 23*64, 64, 64));
-			}else if(neighborhood[0][0] && neighborhood[0][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 24*64, 64, 64));
-			}else {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 11*64, 64, 64));
-			}
-		}else if(neighborhood[0][1] && neighborhood[2][1] && !neighborhood[1][0] && neighborhood[1][2]) {
+			return threeWay(upLeft, downLeft, 22, 11);
+		} else if (left && right && !up && down) {
 			//3 way but top
-			if(neighborhood[0][2] && !neighborhood[2][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 25*64, 64, 64));
-			}else if(!neighborhood[0][2] && neighborhood[2][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 26*64, 64, 64));
-			}else if(neighborhood[0][2] && neighborhood[2][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 27*64, 64, 64));
-			}else {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 12*64, 64, 64));
-			}
-		}else if(neighborhood[0][1] && neighborhood[2][1] && neighborhood[1][0] && !neighborhood[1][2]) {
+			return threeWay(downLeft, downRight, 25, 12);
+		} else if (left && right && up && !down) {
 			//3 way but bottom
-			if(neighborhood[0][0] && !neighborhood[2][0]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 28*64, 64, 64));
-			}else if(!neighborhood[0][0] && neighborhood[2][0]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 29*64, 64, 64));
-			}else if(neighborhood[0][0] && neighborhood[2][0]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 30*64, 64, 64));
-			}else {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 13*64, 64, 64));
-			}
-		}else if(neighborhood[0][1] && neighborhood[2][1] && neighborhood[1][0] && neighborhood[1][2]) {
+			return threeWay(upLeft, upRight, 28, 13);
+		} else if (left && right && up && down) {
 			//4 way
-			if(!neighborhood[0][0] && neighborhood[2][0] && neighborhood[2][2] && neighborhood[0][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 31*64, 64, 64));
-			}else if(neighborhood[0][0] && !neighborhood[2][0] && neighborhood[2][2] && neighborhood[0][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 32*64, 64, 64));
-			}else if(neighborhood[0][0] && neighborhood[2][0] && !neighborhood[2][2] && neighborhood[0][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 33*64, 64, 64));
-			}else if(neighborhood[0][0] && neighborhood[2][0] && neighborhood[2][2] && !neighborhood[0][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 34*64, 64, 64));
-			}else if(!neighborhood[0][0] && !neighborhood[2][0] && neighborhood[2][2] && neighborhood[0][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 35*64, 64, 64));
-			}else if(neighborhood[0][0] && !neighborhood[2][0] && !neighborhood[2][2] && neighborhood[0][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 36*64, 64, 64));
-			}else if(neighborhood[0][0] && neighborhood[2][0] && !neighborhood[2][2] && !neighborhood[0][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 37*64, 64, 64));
-			}else if(!neighborhood[0][0] && neighborhood[2][0] && neighborhood[2][2] && !neighborhood[0][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 38*64, 64, 64));
-			}else if(!neighborhood[0][0] && neighborhood[2][0] && !neighborhood[2][2] && neighborhood[0][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 39*64, 64, 64));
-			}else if(neighborhood[0][0] && !neighborhood[2][0] && neighborhood[2][2] && !neighborhood[0][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 40*64, 64, 64));
-			}else if(!neighborhood[0][0] && !neighborhood[2][0] && !neighborhood[2][2] && neighborhood[0][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 41*64, 64, 64));
-			}else if(neighborhood[0][0] && !neighborhood[2][0] && !neighborhood[2][2] && !neighborhood[0][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 42*64, 64, 64));
-			}else if(!neighborhood[0][0] && neighborhood[2][0] && !neighborhood[2][2] && !neighborhood[0][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 43*64, 64, 64));
-			}else if(!neighborhood[0][0] && !neighborhood[2][0] && neighborhood[2][2] && !neighborhood[0][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 44*64, 64, 64));
-			}else if(neighborhood[0][0] && neighborhood[2][0] && neighborhood[2][2] && neighborhood[0][2]) {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 45*64, 64, 64));
-			}else {
-				sprite = new RPGSprite(wallName, 1, 1, this, new RegionOfInterest(0, 14*64, 64, 64));
-			}
+			return FOUR_WAY_TILES[(upLeft ? 1 : 0) | (upRight ? 2 : 0) | (downRight ? 4 : 0) | (downLeft ? 8 : 0)];
 		}
-		// [modification] - added depth
-		if (sprite != null) {
-			sprite.setDepth(SuperPacmanDepth.WALL.value);
+		return Tilemap.EMPTY;
+	}
+
+	/**
+	 * Select the row of a three way wall from the diagonal neighbors on its open side
+	 * @param first  (boolean): the first diagonal neighbor holds a wall
+	 * @param second (boolean): the second diagonal neighbor holds a wall
+	 * @param filled (int): row of the first diagonal alone, followed by the second alone and both
+	 * @param empty  (int): row without diagonal neighbor
+	 * @return (short): The row
+	 */
+	private static short threeWay(boolean first, boolean second, int filled, int empty) {
+		if (first && !second) {
+			return (short) filled;
+		} else if (!first && second) {
+			return (short) (filled + 1);
+		} else if (first) {
+			return (short) (filled + 2);
 		}
+		return (short) empty;
 	}
 
 	@Override
 	public List<DiscreteCoordinates> getCurrentCells() {
-		return Collections.singletonList(getCurrentMainCellCoordinates());
+		// [modification] - every wall cell
+		return Collections.unmodifiableList(cells);
 	}
 
 	@Override
@@ -193,19 +197,18 @@ public class Wall extends AreaEntity {
 
 	@Override
 	public void draw(Canvas canvas) {
-		if(sprite != null)
-			sprite.draw(canvas);
+		tilemap.draw(canvas);
 	}
 
-	// [modification] - Set wall color
+	// [modification] - Set wall color, given to the mask sheet at runtime
 	public enum Color {
-		BLUE("superpacman/wallBlueRoundDarkFilled"),
-		RED("superpacman/wallRedRoundDarkFilled");
+		BLUE(new java.awt.Color(0x0000B8)),
+		RED(new java.awt.Color(0xD80000));
 
-		public final String path;
+		public final java.awt.Color tint;
 
-		Color(String path) {
-			this.path = path;
+		Color(java.awt.Color tint) {
+			this.tint = tint;
 		}
 
 	}
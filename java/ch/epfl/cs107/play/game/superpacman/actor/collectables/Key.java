@@ -11,6 +11,7 @@ import ch.epfl.cs107.play.math.DiscreteCoordinates;
 import ch.epfl.cs107.play.signal.logic.Logic;
 import ch.epfl.cs107.play.window.Canvas;
 
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.List;
 
@@ -53,6 +54,18 @@ public class Key extends CollectableAreaEntity {
 
     }
 
+    @Override
+    public void writeState(ByteBuffer buffer) {
+        super.writeState(buffer);
+        buffer.put((byte) (signal.isOn() ? 1 : 0));
+    }
+
+    @Override
+    public void readState(ByteBuffer buffer) {
+        super.readState(buffer);
+        signal = buffer.get() == 1 ? Logic.TRUE : Logic.FALSE;
+    }
+
     @Override
     public void draw(Canvas canvas) {
         sprite.draw(canvas);
@@ -21,6 +21,7 @@ import ch.epfl.cs107.play.game.superpacman.handler.SuperPacmanInteractionVisitor
 import ch.epfl.cs107.play.math.DiscreteCoordinates;
 import ch.epfl.cs107.play.window.Canvas;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -87,6 +88,16 @@ public class Pellet extends CollectableAreaEntity implements Interactor {
         super.collect();
     }
 
+    @Override
+    public void readState(ByteBuffer buffer) {
+        boolean wasCollected = isCollected();
+        super.readState(buffer);
+        // Keep the eaten pellets count coherent with the restored pellets
+        if (wasCollected != isCollected()) {
+            nbrOfPelletsEaten += isCollected() ? 1 : -1;
+        }
+    }
+
     @Override
     public List<DiscreteCoordinates> getFieldOfViewCells() {
         List<DiscreteCoordinates> cellsInView = new ArrayList<>();
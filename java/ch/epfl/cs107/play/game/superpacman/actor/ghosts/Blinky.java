@@ -11,12 +11,14 @@ import ch.epfl.cs107.play.game.areagame.Area;
 import ch.epfl.cs107.play.game.superpacman.graphics.Glow;
 import ch.epfl.cs107.play.math.DiscreteCoordinates;
 
+import java.awt.*;
+
 public class Blinky extends Ghost {
-    private static final String SPRITE_NAME = "superpacman/ghost.blinky";
+    private static final Color COLOR = new Color(0xFF0101);
     private static final int FIELD_OF_VIEW = 5;
 
     public Blinky(Area area, DiscreteCoordinates homePosition) {
-        super(area, homePosition, homePosition, SPRITE_NAME, Glow.GlowColors.RED, FIELD_OF_VIEW);
+        super(area, homePosition, homePosition, COLOR, Glow.GlowColors.RED, FIELD_OF_VIEW);
     }
 
     @Override
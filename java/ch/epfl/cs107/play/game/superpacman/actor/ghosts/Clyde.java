@@ -11,10 +11,11 @@ import ch.epfl.cs107.play.game.areagame.Area;
 import ch.epfl.cs107.play.game.superpacman.graphics.Glow;
 import ch.epfl.cs107.play.math.DiscreteCoordinates;
 
+import java.awt.*;
 import java.util.List;
 
 public class Clyde extends Ghost {
-    private static final String SPRITE_NAME = "superpacman/ghost.clyde";
+    private static final Color COLOR = new Color(0xFF810F);
     private static final int FIELD_OF_VIEW = 35;
     private static final int FORWARD_VISION = 6;
     private static final int MIN_AFRAID_DISTANCE = 8;
@@ -22,7 +23,7 @@ public class Clyde extends Ghost {
     private static final float TRIGGER_TO_PLAYER = 4;
 
     public Clyde(Area area, DiscreteCoordinates homePosition) {
-        super(area, homePosition, homePosition, SPRITE_NAME, Glow.GlowColors.ORANGE, FIELD_OF_VIEW);
+        super(area, homePosition, homePosition, COLOR, Glow.GlowColors.ORANGE, FIELD_OF_VIEW);
     }
 
     @Override
@@ -27,6 +27,8 @@ import ch.epfl.cs107.play.math.Vector;
 import ch.epfl.cs107.play.window.Audio;
 import ch.epfl.cs107.play.window.Canvas;
 
+import java.awt.Color;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 public abstract class Ghost extends MovableAreaEntity implements Interactor {
@@ -43,6 +45,8 @@ public abstract class Ghost extends MovableAreaEntity implements Interactor {
     private static final String[] SCORE_COMBOS_PATHNAMES =
             {"superpacman/score200", "superpacman/score400", "superpacman/score800", "superpacman/score1600"};
     private static final int SPRITE_SIZE = 16;
+    // Mask sheet shared by all the ghosts, tinted with their color
+    private static final String GHOST_PATHNAME = "superpacman/ghost";
     private static final SoundAcoustics RETREATING_SOUND = SuperPacmanSound.RETREATING.sound;
     private static SoundUtility ghostSoundUtility;
     private final int fieldOfView;
@@ -95,10 +99,10 @@ public abstract class Ghost extends MovableAreaEntity implements Interactor {
      * @param area            (Area): Owner area. Not null
      * @param homePosition    (Coordinate): Initial position of the entity. Not null
      * @param scatterPosition (Coorinate): The target position while in scatter mode
-     * @param spriteName      (String): The name of the Ghost sprite
+     * @param color           (Color): The body color of the Ghost sprite
      * @param glowColor       (Glow.GlowColors): The glow color for the Ghost sprite
      */
-    protected Ghost(Area area, DiscreteCoordinates homePosition, DiscreteCoordinates scatterPosition, String spriteName,
+    protected Ghost(Area area, DiscreteCoordinates homePosition, DiscreteCoordinates scatterPosition, Color color,
                     Glow.GlowColors glowColor, int fieldOfView) {
         super(area, DEFAULT_ORIENTATION, homePosition);
         ghostHandler = new GhostInteractionHandler();
@@ -123,7 +127,12 @@ public abstract class Ghost extends MovableAreaEntity implements Interactor {
 
 
         // Normal Animation
-        Sprite[][] sprites = createOrientableGhostSprites(spriteName);
+        Sprite[][] sprites = createOrientableGhostSprites(GHOST_PATHNAME);
+        for (Sprite[] spriteFrames : sprites) {
+            for (Sprite sprite : spriteFrames) {
+                sprite.setTint(color);
+            }
+        }
         normalAnimation = Animation.createAnimations(animationDuration / 2, sprites);
 
         // BackToHome Animation
@@ -623,6 +632,73 @@ public abstract class Ghost extends MovableAreaEntity implements Interactor {
         }
     }
 
+    @Override
+    public void writeState(ByteBuffer buffer) {
+        super.writeState(buffer);
+        // Difficulty parameters, increased over time
+        buffer.putInt(animationDuration).putFloat(frightenTime).putFloat(stateUpdateTime);
+        // Game state
+        buffer.put((byte) ((reset ? 1 : 0) | (hasReset ? 2 : 0) | (paused ? 4 : 0) | (gameOver ? 8 : 0) |
+                           (timerIsFinished ? 16 : 0)));
+        buffer.putFloat(pauseTime).putFloat(timer);
+        // Movement
+        buffer.put((byte) ((isFrightened ? 1 : 0) | (isEaten ? 2 : 0) | (blink ? 4 : 0) | (playerInView ? 8 : 0) |
+                           (comboOccurring ? 16 : 0)));
+        buffer.put((byte) currentOrientation.ordinal());
+        buffer.putInt(movementDuration).putFloat(frightenedTimeCounter).putFloat(blinkCount).putFloat(stateCount);
+        buffer.putInt(comboIndex);
+        if (lastPlayerPosition == null || lastPlayerOrientation == null) {
+            buffer.put((byte) -1);
+        } else {
+            buffer.put((byte) lastPlayerOrientation.ordinal());
+            buffer.putInt(lastPlayerPosition.x).putInt(lastPlayerPosition.y);
+        }
+    }
+
+    @Override
+    public void readState(ByteBuffer buffer) {
+        super.readState(buffer);
+        animationDuration = buffer.getInt();
+        frightenTime = buffer.getFloat();
+        stateUpdateTime = buffer.getFloat();
+
+        byte flags = buffer.get();
+        reset = (flags & 1) != 0;
+        hasReset = (flags & 2) != 0;
+        paused = (flags & 4) != 0;
+        gameOver = (flags & 8) != 0;
+        timerIsFinished = (flags & 16) != 0;
+        pauseTime = buffer.getFloat();
+        timer = buffer.getFloat();
+
+        flags = buffer.get();
+        isFrightened = (flags & 1) != 0;
+        isEaten = (flags & 2) != 0;
+        blink = (flags & 4) != 0;
+        playerInView = (flags & 8) != 0;
+        comboOccurring = (flags & 16) != 0;
+        currentOrientation = Orientation.values()[buffer.get()];
+        movementDuration = buffer.getInt();
+        frightenedTimeCounter = buffer.getFloat();
+        blinkCount = buffer.getFloat();
+        stateCount = buffer.getFloat();
+        comboIndex = buffer.getInt();
+        byte playerOrientation = buffer.get();
+        if (playerOrientation < 0) {
+            lastPlayerOrientation = null;
+            lastPlayerPosition = null;
+        } else {
+            lastPlayerOrientation = Orientation.values()[playerOrientation];
+            lastPlayerPosition = new DiscreteCoordinates(buffer.getInt(), buffer.getInt());
+        }
+
+        // The path is recomputed from the restored position and state
+        path = null;
+        targetPos = null;
+        stateUpdate = true;
+        ghostSoundUtility.setAudioPaused(paused);
+    }
+
     /**
      * Method to set ghost into a new position, leaving the current cells
      * @param destination the new position
@@ -8,13 +8,15 @@
 package ch.epfl.cs107.play.game.superpacman.actor.ghosts;
 
 import ch.epfl.cs107.play.game.Updatable;
+import ch.epfl.cs107.play.game.areagame.actor.Snapshotable;
 import ch.epfl.cs107.play.game.superpacman.actor.SuperPacmanPlayer;
 import ch.epfl.cs107.play.game.superpacman.globalenums.SuperPacmanDifficulty;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
-public class GhostsBehavior implements Updatable {
+public class GhostsBehavior implements Updatable, Snapshotable {
     private static final int ANIMATION_DURATION_DECREASE = -1;
     private static final float FRIGHTEN_TIME_DECREASE = -0.5f;
     private static final float STATE_UPDATE_TIME_DECREASE = -0.25f;
@@ -80,6 +82,22 @@ public class GhostsBehavior implements Updatable {
 
     }
 
+    @Override
+    public void writeState(ByteBuffer buffer) {
+        buffer.put((byte) ((isDifficultSet ? 1 : 0) | (updateTimer ? 2 : 0) | (requestToFrighten ? 4 : 0)));
+        buffer.putInt(increaseCount).putFloat(timer);
+    }
+
+    @Override
+    public void readState(ByteBuffer buffer) {
+        byte flags = buffer.get();
+        isDifficultSet = (flags & 1) != 0;
+        updateTimer = (flags & 2) != 0;
+        requestToFrighten = (flags & 4) != 0;
+        increaseCount = buffer.getInt();
+        timer = buffer.getFloat();
+    }
+
     /**
      * Method to set ghosts difficulty, and increase ghosts difficulty
      */
@@ -11,15 +11,17 @@ import ch.epfl.cs107.play.game.areagame.Area;
 import ch.epfl.cs107.play.game.superpacman.graphics.Glow;
 import ch.epfl.cs107.play.math.DiscreteCoordinates;
 
+import java.awt.*;
+
 public class Inky extends Ghost {
-    private static final String SPRITE_NAME = "superpacman/ghost.inky";
+    private static final Color COLOR = new Color(0x00CCFF);
     private static final int FIELD_OF_VIEW = 5;
     private static final int MAX_DISTANCE_WHEN_SCARED = 5;
     private static final int MAX_DISTANCE_WHEN_NOT_SCARED = 10;
     private static final DiscreteCoordinates SCATTER_POS = new DiscreteCoordinates(24, 24);
 
     public Inky(Area area, DiscreteCoordinates homePosition) {
-        super(area, homePosition, homePosition, SPRITE_NAME, Glow.GlowColors.LIGHT_BLUE, FIELD_OF_VIEW);
+        super(area, homePosition, homePosition, COLOR, Glow.GlowColors.LIGHT_BLUE, FIELD_OF_VIEW);
         setScatterPosition(SCATTER_POS);
     }
 
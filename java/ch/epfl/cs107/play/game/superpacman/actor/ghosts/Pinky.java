@@ -11,8 +11,10 @@ import ch.epfl.cs107.play.game.areagame.Area;
 import ch.epfl.cs107.play.game.superpacman.graphics.Glow;
 import ch.epfl.cs107.play.math.DiscreteCoordinates;
 
+import java.awt.*;
+
 public class Pinky extends Ghost {
-    private static final String SPRITE_NAME = "superpacman/ghost.pinky";
+    private static final Color COLOR = new Color(0xFD99CB);
     private static final int MIN_AFRAID_DISTANCE = 5;
     private static final int RANDOM_POS_RANGE = 20;
     private static final int MAX_RANDOM_ATTEMPT = 200;
@@ -20,7 +22,7 @@ public class Pinky extends Ghost {
     private int count;
 
     public Pinky(Area area, DiscreteCoordinates homePosition) {
-        super(area, homePosition, homePosition, SPRITE_NAME, Glow.GlowColors.PINK, FIELD_OF_VIEW);
+        super(area, homePosition, homePosition, COLOR, Glow.GlowColors.PINK, FIELD_OF_VIEW);
     }
 
     @Override
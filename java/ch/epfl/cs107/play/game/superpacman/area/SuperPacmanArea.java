@@ -10,11 +10,16 @@ package ch.epfl.cs107.play.game.superpacman.area;
 import ch.epfl.cs107.play.game.areagame.Area;
 import ch.epfl.cs107.play.game.superpacman.SuperPacman;
 import ch.epfl.cs107.play.game.superpacman.actor.ghosts.GhostsBehavior;
+import ch.epfl.cs107.play.game.superpacman.globalenums.SuperPacmanDepth;
 import ch.epfl.cs107.play.io.FileSystem;
 import ch.epfl.cs107.play.math.DiscreteCoordinates;
 import ch.epfl.cs107.play.window.Window;
 
+import java.nio.ByteBuffer;
+
 public abstract class SuperPacmanArea extends Area {
+    // Pixels per cell below which the maze is drawn from a snapshot, while the camera zooms on the arcade
+    private static final float LEVEL_OF_DETAIL_THRESHOLD = 12.0f;
     private SuperPacmanAreaBehavior behavior;
 
 
@@ -36,6 +41,17 @@ public abstract class SuperPacmanArea extends Area {
         return SuperPacman.currentCameraScaleFactor;
     }
 
+    @Override
+    protected float getStaticLayerDepth() {
+        // Lowest depth of the static actors, the walls stay below the collectables
+        return SuperPacmanDepth.GATE.value;
+    }
+
+    @Override
+    protected float getLevelOfDetailThreshold() {
+        return LEVEL_OF_DETAIL_THRESHOLD;
+    }
+
     @Override
     public boolean begin(Window window, FileSystem fileSystem) {
         if (super.begin(window, fileSystem)) {
@@ -49,6 +65,16 @@ public abstract class SuperPacmanArea extends Area {
         return false;
     }
 
+    @Override
+    protected void writeAreaState(ByteBuffer buffer) {
+        behavior.getGhostsManagement().writeState(buffer);
+    }
+
+    @Override
+    protected void readAreaState(ByteBuffer buffer) {
+        behavior.getGhostsManagement().readState(buffer);
+    }
+
     /**
      * Abstract method to create and add actors to area
      */
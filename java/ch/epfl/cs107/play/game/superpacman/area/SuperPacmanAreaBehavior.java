@@ -115,18 +115,16 @@ public class SuperPacmanAreaBehavior extends AreaBehavior {
         // Reset the amount of pellets eaten
         Pellet.resetPelletCount();
 
+        // All the walls are held by a single entity
+        Wall walls = new Wall(area);
         for (int y = 0; y < getHeight(); ++y) {
             for (int x = 0; x < getWidth(); ++x) {
                 switch (((SuperPacmanCell) getCell(x, y)).type) {
                     case WALL:
-                        Wall wallBlue =
-                                new Wall(area, new DiscreteCoordinates(x, y), neighborhood(x, y), Wall.Color.BLUE);
-                        area.registerActor(wallBlue);
+                        walls.addWall(new DiscreteCoordinates(x, y), neighborhood(x, y), Wall.Color.BLUE);
                         break;
                     case WALL_RED:
-                        Wall wallRed =
-                                new Wall(area, new DiscreteCoordinates(x, y), neighborhood(x, y), Wall.Color.RED);
-                        area.registerActor(wallRed);
+                        walls.addWall(new DiscreteCoordinates(x, y), neighborhood(x, y), Wall.Color.RED);
                         break;
                     case FREE_WITH_POWER_PELLET:
                         PowerPellet powerPellet = new PowerPellet(area, new DiscreteCoordinates(x, y));
@@ -165,27 +163,31 @@ public class SuperPacmanAreaBehavior extends AreaBehavior {
                 }
             }
         }
+        area.registerActor(walls);
     }
 
     /**
      * Method to find if neighborhood cells are walls.
      * @param x coordinate of the cell
      * @param y coordinate of the cell
-     * @return 3x3 array with the true for surrounding walls
+     * @return the Wall neighbor bits of the surrounding walls
      */
-    public boolean[][] neighborhood(int x, int y) {
-        boolean[][] neighbors = new boolean[3][3];
+    public int neighborhood(int x, int y) {
+        return (isWall(x - 1, y) ? Wall.LEFT : 0) | (isWall(x + 1, y) ? Wall.RIGHT : 0) |
+                (isWall(x, y + 1) ? Wall.UP : 0) | (isWall(x, y - 1) ? Wall.DOWN : 0) |
+                (isWall(x - 1, y + 1) ? Wall.UP_LEFT : 0) | (isWall(x + 1, y + 1) ? Wall.UP_RIGHT : 0) |
+                (isWall(x - 1, y - 1) ? Wall.DOWN_LEFT : 0) | (isWall(x + 1, y - 1) ? Wall.DOWN_RIGHT : 0);
+    }
 
-        for (int tabY = -1; tabY < 2; ++tabY) {
-            for (int tabX = -1; tabX < 2; ++tabX) {
-                if (((x + tabX) >= 0) && ((x + tabX) < getWidth()) && ((y + tabY) >= 0) && ((y + tabY) < getHeight()) &&
-                        (cellEqualsToType(x + tabX, y + tabY, SuperPacmanCellType.WALL) ||
-                                cellEqualsToType(x + tabX, y + tabY, SuperPacmanCellType.WALL_RED))) {
-                    neighbors[tabX + 1][-tabY + 1] = true;
-                }
-            }
-        }
-        return neighbors;
+    /**
+     * Method to check if a cell is a wall.
+     * @param x coordinate of the cell, may be outside of the area
+     * @param y coordinate of the cell, may be outside of the area
+     * @return true if the cell is inside the area and is a wall
+     */
+    private boolean isWall(int x, int y) {
+        return x >= 0 && x < getWidth() && y >= 0 && y < getHeight() &&
+                (cellEqualsToType(x, y, SuperPacmanCellType.WALL) || cellEqualsToType(x, y, SuperPacmanCellType.WALL_RED));
     }
 
     /**
@@ -34,6 +34,9 @@ public abstract class Camera implements Updatable {
     private Vector cameraPosXY;  // viewCenter
     private float[] minMaxPosX = {Float.MIN_VALUE, Float.MAX_VALUE};
     private float[] minMaxPosY = {Float.MIN_VALUE, Float.MAX_VALUE};
+    // World-space rectangle seen through the camera, bottom left and top right corners
+    private Vector viewMin = Vector.ZERO;
+    private Vector viewMax = Vector.ZERO;
 
     /**
      * Constructor for class.
@@ -91,6 +94,20 @@ public abstract class Camera implements Updatable {
         this.cameraPosXY = cameraPosXY;
     }
 
+    /**
+     * @return the bottom left corner of the world-space rectangle seen by the camera at the last update
+     */
+    public Vector getViewMin() {
+        return viewMin;
+    }
+
+    /**
+     * @return the top right corner of the world-space rectangle seen by the camera at the last update
+     */
+    public Vector getViewMax() {
+        return viewMax;
+    }
+
     /**
      * Method to update the instantiated class with the current player position.
      * @param playerPos the current player position
@@ -114,6 +131,11 @@ public abstract class Camera implements Updatable {
         // Compute new viewport
         Transform viewTransform = Transform.I.scaled(area.getCameraScaleFactor()).translated(cameraPosXY);
         area.getWindow().setRelativeTransform(viewTransform);
+
+        // The scaled size of the window takes its ratio into account
+        Vector halfView = new Vector(area.getWindow().getScaledWidth() / 2, area.getWindow().getScaledHeight() / 2);
+        viewMin = cameraPosXY.sub(halfView);
+        viewMax = cameraPosXY.add(halfView);
     }
 
     /**
@@ -9,7 +9,6 @@ package ch.epfl.cs107.play.game.superpacman.graphics;
 
 import ch.epfl.cs107.play.game.actor.Acoustics;
 import ch.epfl.cs107.play.game.actor.Graphics;
-import ch.epfl.cs107.play.game.actor.ImageGraphics;
 import ch.epfl.cs107.play.game.actor.SoundAcoustics;
 import ch.epfl.cs107.play.game.areagame.actor.Orientation;
 import ch.epfl.cs107.play.game.areagame.io.ResourcePath;
@@ -17,7 +16,7 @@ import ch.epfl.cs107.play.game.superpacman.globalenums.SuperPacmanDepth;
 import ch.epfl.cs107.play.game.superpacman.globalenums.SuperPacmanSound;
 import ch.epfl.cs107.play.game.superpacman.menus.MenuStateManager;
 import ch.epfl.cs107.play.math.RegionOfInterest;
-import ch.epfl.cs107.play.math.Vector;
+import ch.epfl.cs107.play.math.Transform;
 import ch.epfl.cs107.play.window.Audio;
 import ch.epfl.cs107.play.window.Canvas;
 import ch.epfl.cs107.play.window.Keyboard;
@@ -26,8 +25,19 @@ import ch.epfl.cs107.play.window.Window;
 public class Arcade implements Graphics, Acoustics {
     private static final SoundAcoustics GAME_START_SOUND = SuperPacmanSound.ARCADE_ON.sound;
     private static final SoundAcoustics TURN_OFF_SOUND = SuperPacmanSound.ARCADE_OFF.sound;
+    private static final String ARCADE_ON_PATHNAME = "superpacman/pacmanArcadeOn";
+    private static final String ARCADE_OFF_PATHNAME = "superpacman/pacmanArcadeOff";
+    private static final RegionOfInterest ARCADE_REGION = new RegionOfInterest(0, 0, 1100, 1100);
+    private static final float JOYSTICK_SIZE = 3;
+    private static final float JOYSTICK_X_DISPLACEMENT = 1.4f;
+    private static final float JOYSTICK_Y_DISPLACEMENT = 12.45f;
     private final Window window;
-    String arcadePathName = "superpacman/pacmanArcadeOff";
+    // Images of the arcade and of the joystick, resolved once per canvas
+    private Canvas handleCanvas;
+    private int arcadeOnHandle;
+    private int arcadeOffHandle;
+    private final int[] joystickHandles = new int[4];
+    private int joystickDefaultHandle;
     private float alpha = 1.0f;
     private float xScaledInit;
     private float yScaledInit;
@@ -58,12 +68,10 @@ public class Arcade implements Graphics, Acoustics {
             if (!MenuStateManager.isSoundDeactivated()) {
                 GAME_START_SOUND.shouldBeStarted();
             }
-            arcadePathName = "superpacman/pacmanArcadeOn";
         } else {
             if (!MenuStateManager.isSoundDeactivated()) {
                 TURN_OFF_SOUND.shouldBeStarted();
             }
-            arcadePathName = "superpacman/pacmanArcadeOff";
         }
     }
 
@@ -73,60 +81,57 @@ public class Arcade implements Graphics, Acoustics {
         TURN_OFF_SOUND.bip(audio);
     }
 
+    /**
+     * Method to resolve the images once for a canvas
+     * @param canvas (Canvas): the canvas drawing the arcade. Not null
+     */
+    private void resolveHandles(Canvas canvas) {
+        arcadeOnHandle = canvas.getImageHandle(ResourcePath.getBackgrounds(ARCADE_ON_PATHNAME), ARCADE_REGION, false);
+        arcadeOffHandle = canvas.getImageHandle(ResourcePath.getBackgrounds(ARCADE_OFF_PATHNAME), ARCADE_REGION, false);
+        String joystickSprite = ResourcePath.getSprite("superpacman/joystickArcade");
+        for (int i = 0; i < joystickHandles.length; ++i) {
+            joystickHandles[i] = canvas.getImageHandle(joystickSprite, new RegionOfInterest(0, 28 * i, 28, 28), false);
+        }
+        joystickDefaultHandle = canvas.getImageHandle(ResourcePath.getSprite("superpacman/joystickArcadeDefault"),
+                                                      new RegionOfInterest(0, 0, 28, 28), false);
+        handleCanvas = canvas;
+    }
+
     @Override
     public void draw(Canvas canvas) {
-        float width = canvas.getWidth();
-        float height = canvas.getHeight();
-
         // Save initial window scaled size
         if (!areInitPosSaved) {
             xScaledInit = canvas.getScaledWidth();
             yScaledInit = canvas.getScaledHeight();
             areInitPosSaved = true;
         }
-        Vector anchor = canvas.getTransform().getOrigin().sub(new Vector(width / 2, height / 2));
-
-        // DRAW ARCADE
-        ImageGraphics arcade = new ImageGraphics(ResourcePath.getBackgrounds(arcadePathName), xScaledInit, yScaledInit,
-                                                 new RegionOfInterest(0, 0, 1100, 1100), anchor.add(
-                new Vector((width / 2) - (xScaledInit / 2), (height / 2) - (yScaledInit / 2))), alpha, SuperPacmanDepth.ARCADE.value);
-        arcade.draw(canvas);
+        if (handleCanvas != canvas) {
+            resolveHandles(canvas);
+        }
+        Transform view = canvas.getTransform();
 
+        // DRAW ARCADE, centered on the view
+        canvas.drawImage(isArcadeTurnedOn ? arcadeOnHandle : arcadeOffHandle,
+                         xScaledInit, 0, view.m02 - xScaledInit / 2, 0, yScaledInit, view.m12 - yScaledInit / 2,
+                         alpha, SuperPacmanDepth.ARCADE.value);
 
         // DRAW JOYSTICK ON ARCADE
         if (isArcadeTurnedOn) {
-            ImageGraphics[] joystick = new ImageGraphics[4];
-            final float yDisplacement = 12.45f;
-            final float xDisplacement = 1.4f;
-            for (int i = 0; i < 4; ++i) {
-                joystick[i] = new ImageGraphics(ResourcePath.getSprite("superpacman/joystickArcade"), 3, 3,
-                                                new RegionOfInterest(0, 28 * i, 28, 28), anchor.add(
-                        new Vector((width / 2) - xDisplacement, (height / 2) - yDisplacement)), alpha,
-                                                SuperPacmanDepth.ARCADE_JOYSTICK.value);
-            }
-
-            ImageGraphics joystickDefault =
-                    new ImageGraphics(ResourcePath.getSprite("superpacman/joystickArcadeDefault"), 3, 3,
-                                      new RegionOfInterest(0, 0, 28, 28), anchor.add(
-                            new Vector((width / 2) - xDisplacement, (height / 2) - yDisplacement)), alpha,
-                                      SuperPacmanDepth.ARCADE_JOYSTICK.value);
-
             // Set joystick orientation
+            int joystick = joystickDefaultHandle;
             if (window.getKeyboard() != null) {
                 if (window.getKeyboard().get(Keyboard.UP).isDown()) {
-                    joystick[Orientation.UP.ordinal()].draw(canvas);
+                    joystick = joystickHandles[Orientation.UP.ordinal()];
                 } else if (window.getKeyboard().get(Keyboard.RIGHT).isDown()) {
-                    joystick[Orientation.RIGHT.ordinal()].draw(canvas);
+                    joystick = joystickHandles[Orientation.RIGHT.ordinal()];
                 } else if (window.getKeyboard().get(Keyboard.LEFT).isDown()) {
-                    joystick[Orientation.LEFT.ordinal()].draw(canvas);
+                    joystick = joystickHandles[Orientation.LEFT.ordinal()];
                 } else if (window.getKeyboard().get(Keyboard.DOWN).isDown()) {
-                    joystick[Orientation.DOWN.ordinal()].draw(canvas);
-                } else {
-                    joystickDefault.draw(canvas);
+                    joystick = joystickHandles[Orientation.DOWN.ordinal()];
                 }
-            } else {
-                joystickDefault.draw(canvas);
             }
+            canvas.drawImage(joystick, JOYSTICK_SIZE, 0, view.m02 - JOYSTICK_X_DISPLACEMENT, 0, JOYSTICK_SIZE,
+                             view.m12 - JOYSTICK_Y_DISPLACEMENT, alpha, SuperPacmanDepth.ARCADE_JOYSTICK.value);
         }
 
     }
@@ -9,16 +9,24 @@ package ch.epfl.cs107.play.game.superpacman.graphics;
 
 import ch.epfl.cs107.play.game.actor.Graphics;
 import ch.epfl.cs107.play.game.actor.ImageGraphics;
-import ch.epfl.cs107.play.game.areagame.io.ResourcePath;
 import ch.epfl.cs107.play.game.superpacman.globalenums.SuperPacmanDepth;
 import ch.epfl.cs107.play.game.superpacman.menus.MenuStateManager;
 import ch.epfl.cs107.play.math.Positionable;
-import ch.epfl.cs107.play.math.RegionOfInterest;
 import ch.epfl.cs107.play.math.Vector;
 import ch.epfl.cs107.play.window.Canvas;
 
+import java.awt.Color;
+
 public class Glow implements Graphics {
-    private final ImageGraphics glow;
+    // Radius of the emissive spot, relative to the glow size
+    private static final float SPOT_RATIO = 0.2f;
+    // Opacity of the glow center, relative to the glow alpha
+    private static final float INTENSITY = 0.62f;
+
+    private final Positionable parent;
+    private final Vector center;
+    private final Color color;
+    private final float radius;
     private final float alpha;
     private float currentAlpha;
 
@@ -31,17 +39,12 @@ public class Glow implements Graphics {
      * @param alpha  (float): transparency, between 0 (invisible) and 1 (opaque)
      */
     public Glow(Positionable parent, ImageGraphics sprite, GlowColors color, float size, float alpha) {
+        this.parent = parent;
+        this.center = new Vector(sprite.getWidth() / 2, sprite.getHeight() / 2);
+        this.color = color.color;
+        this.radius = size * SPOT_RATIO;
         this.alpha = alpha;
         currentAlpha = alpha;
-
-        glow = new ImageGraphics(ResourcePath.getSprite(color.pathToColor),
-                                 size,
-                                 size,
-                                 new RegionOfInterest(0, 0, 195, 195),
-                                 new Vector(-size / 2 + sprite.getWidth() / 2,
-                                            -size / 2 + sprite.getHeight() / 2),
-                                 currentAlpha, SuperPacmanDepth.GLOW.value);
-        glow.setParent(parent);
     }
 
     /**
@@ -64,31 +67,32 @@ public class Glow implements Graphics {
 
     @Override
     public void draw(Canvas canvas) {
+        // The spots are blurred together by the canvas, no spot means no bloom pass at all
         if (!MenuStateManager.isGlowDeactivated()) {
-            glow.setAlpha(currentAlpha);
-            glow.draw(canvas);
+            Vector position = parent == null ? center : parent.getTransform().onPoint(center);
+            canvas.drawGlow(position.x, position.y, radius, color, currentAlpha * INTENSITY, SuperPacmanDepth.GLOW.value);
         }
     }
 
     /**
-     * Enum of all the glow colors pathname
+     * Enum of all the glow colors
      */
     public enum GlowColors {
-        TEST("superpacman/glowTest"),
-        YELLOW("superpacman/glowYellow"),
-        RED("superpacman/glowRed"),
-        BLUE("superpacman/glowBlue"),
-        LIGHT_BLUE("superpacman/glowLightBlue"),
-        LIGHT_BLUE_KEY("superpacman/glowLightBlueKey"),
-        PINK("superpacman/glowPink"),
-        ORANGE("superpacman/glowOrange"),
-        LIGHT_PINK("superpacman/glowLightPink"),
-        WHITE("superpacman/glowWhite");
+        TEST(new Color(0xFF0101)),
+        YELLOW(new Color(0xF6DC00)),
+        RED(new Color(0xFF0202)),
+        BLUE(new Color(0x0000FF)),
+        LIGHT_BLUE(new Color(0x00CDFF)),
+        LIGHT_BLUE_KEY(new Color(0x00C0F9)),
+        PINK(new Color(0xFD99CB)),
+        ORANGE(new Color(0xFF810F)),
+        LIGHT_PINK(new Color(0xF88998)),
+        WHITE(new Color(0xF9F9F9));
 
-        final String pathToColor;
+        final Color color;
 
-        GlowColors(String pathToColor) {
-            this.pathToColor = pathToColor;
+        GlowColors(Color color) {
+            this.color = color;
         }
     }
 }
@@ -0,0 +1,208 @@
+package ch.epfl.cs107.play.game.superpacman.graphics;
+
+import ch.epfl.cs107.play.game.actor.Graphics;
+import ch.epfl.cs107.play.game.actor.TextGraphics;
+import ch.epfl.cs107.play.math.TextAlign;
+import ch.epfl.cs107.play.math.Transform;
+import ch.epfl.cs107.play.math.Vector;
+import ch.epfl.cs107.play.window.Canvas;
+import ch.epfl.cs107.play.window.Image;
+
+import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Retained text of the HUD, positioned relatively to the bottom left corner of the screen.
+ * The text is rasterized once into an image, and only rasterized again when its content, its font size or the screen
+ * resolution change. A text changing every frame (e.g. a timer) can instead be composed from one image per
+ * character, so that only the characters never drawn before are rasterized.
+ * The font is assumed monospaced, with an advance of the font size (as emulogic), so that the layout needs no metrics.
+ */
+public class HudText implements Graphics {
+    // Space kept around the text, as a fraction of the font size, for the antialiasing and the descending characters
+    private static final float MARGIN = 0.25f;
+    private final TextGraphics graphics;
+    private final TextAlign.Horizontal hAlign;
+    private final boolean perCharacter;
+    private final float depth;
+    private String text;
+    private float fontSize;
+    private float x;
+    private float y;
+    private float scale = 1.0f;
+    private float maxScale = 1.0f;
+    private float alpha = 1.0f;
+    // Rasterized content and the resolution it was rasterized at, in pixel per world unit
+    private Image image;
+    private final Map<Character, Image> characters = new HashMap<>();
+    private int resolution;
+
+    /**
+     * Constructor for HudText
+     * @param text         (String): the content. Not null
+     * @param fontSize     (float): the font size
+     * @param color        (Color): the fill color. Not null
+     * @param fontName     (String): the font name
+     * @param hAlign       (TextAlign.Horizontal): the alignment of the text around its position
+     * @param perCharacter (boolean): whether the text is composed from one image per character
+     * @param depth        (float): the render priority
+     */
+    public HudText(String text, float fontSize, Color color, String fontName, TextAlign.Horizontal hAlign,
+                   boolean perCharacter, float depth) {
+        this.text = text;
+        this.fontSize = fontSize;
+        this.hAlign = hAlign;
+        this.perCharacter = perCharacter;
+        this.depth = depth;
+        graphics = new TextGraphics(text, fontSize, color, null, 0.0f, false, false, Vector.ZERO,
+                                    TextAlign.Horizontal.LEFT, TextAlign.Vertical.BOTTOM, 1.0f, 0.0f);
+        graphics.setFontName(fontName);
+    }
+
+    /* ----------------------------------- ACCESSORS ----------------------------------- */
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Method to change the content, only rasterized again if it differs
+     * @param text (String): the new content. Not null
+     */
+    public void setText(String text) {
+        if (!this.text.equals(text)) {
+            this.text = text;
+            graphics.setText(text);
+            image = null;
+        }
+    }
+
+    /**
+     * Method to change the font size, only rasterized again if it differs
+     * @param fontSize (float): the new font size
+     */
+    public void setFontSize(float fontSize) {
+        if (this.fontSize != fontSize) {
+            this.fontSize = fontSize;
+            graphics.setFontSize(fontSize);
+            image = null;
+            characters.clear();
+        }
+    }
+
+    /**
+     * Method to set the position of the text baseline, from the bottom left corner of the screen
+     * @param x (float): the x coordinate of the alignment point
+     * @param y (float): the y coordinate of the baseline
+     */
+    public void setPosition(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Method to scale the text around its position without rasterizing it again
+     * @param scale (float): the scale, up to the max scale to stay sharp
+     */
+    public void setScale(float scale) {
+        this.scale = scale;
+    }
+
+    /**
+     * Method to set the largest scale the text is drawn at, the text is rasterized at the matching resolution
+     * @param maxScale (float): the max scale, at least 1
+     */
+    public void setMaxScale(float maxScale) {
+        this.maxScale = Math.max(1.0f, maxScale);
+    }
+
+    public void setAlpha(float alpha) {
+        this.alpha = alpha;
+    }
+
+    /**
+     * @return (float): the width of the text, before scaling
+     */
+    public float getWidth() {
+        return text.length() * fontSize;
+    }
+
+    @Override
+    public void draw(Canvas canvas) {
+        if (text.isEmpty() || fontSize <= 0 || alpha <= 0) {
+            return;
+        }
+        float screenWidth = canvas.getScaledWidth();
+        float screenHeight = canvas.getScaledHeight();
+
+        // Rasterize again when the zoom needs another resolution
+        int currentResolution =
+                Math.max(1, (int) Math.ceil(canvas.getWidth() / screenWidth * maxScale));
+        if (currentResolution != resolution) {
+            resolution = currentResolution;
+            image = null;
+            characters.clear();
+        }
+
+        Transform view = canvas.getTransform();
+        float size = fontSize * scale;
+        float left = view.m02 - screenWidth / 2 + x;
+        float bottom = view.m12 - screenHeight / 2 + y;
+        if (hAlign == TextAlign.Horizontal.CENTER) {
+            left -= getWidth() * scale / 2;
+        } else if (hAlign == TextAlign.Horizontal.RIGHT) {
+            left -= getWidth() * scale;
+        }
+
+        float margin = size * MARGIN;
+        if (perCharacter) {
+            for (int i = 0; i < text.length(); ++i) {
+                Image character = getCharacter(canvas, text.charAt(i));
+                if (character != null) {
+                    canvas.drawImage(character, new Transform(size + 2 * margin, 0, left + i * size - margin,
+                                                              0, size + 2 * margin, bottom - margin), alpha, depth);
+                }
+            }
+        } else {
+            if (image == null) {
+                image = rasterize(canvas, getWidth());
+            }
+            if (image != null) {
+                canvas.drawImage(image, new Transform(getWidth() * scale + 2 * margin, 0, left - margin,
+                                                      0, size + 2 * margin, bottom - margin), alpha, depth);
+            }
+        }
+    }
+
+    /**
+     * Method to get the image of a character, rasterized on its first use
+     * @param canvas    (Canvas): the canvas rasterizing the character. Not null
+     * @param character (char): the character
+     * @return (Image): the image of the character. May be null
+     */
+    private Image getCharacter(Canvas canvas, char character) {
+        Image image = characters.get(character);
+        if (image == null) {
+            graphics.setText(String.valueOf(character));
+            image = rasterize(canvas, fontSize);
+            graphics.setText(text);
+            if (image != null) {
+                characters.put(character, image);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Method to rasterize the current content of the text graphics, with a margin on every side
+     * @param canvas (Canvas): the canvas rasterizing the text. Not null
+     * @param width  (float): the width of the content
+     * @return (Image): the image. May be null
+     */
+    private Image rasterize(Canvas canvas, float width) {
+        float margin = fontSize * MARGIN;
+        return canvas.rasterize(graphics::draw, -margin, -margin, width + 2 * margin, fontSize + 2 * margin,
+                                resolution);
+    }
+}
@@ -20,6 +20,10 @@ import java.awt.*;
 public class ScreenFade implements Graphics {
     private final float overlayDepth;
     private final Transition transitionOverlay;
+    // Black overlay, its circle is only built again when the canvas size changes
+    private final ShapeGraphics overlay;
+    private float overlayWidth = -1;
+    private float overlayHeight = -1;
     private boolean fadeIn = false;
     private boolean fadeOut = false;
 
@@ -31,6 +35,7 @@ public class ScreenFade implements Graphics {
     public ScreenFade(float depth, float velocity) {
         overlayDepth = depth;
         transitionOverlay = new EaseInOutCubic(velocity);
+        overlay = new ShapeGraphics(null, Color.BLACK, Color.BLACK, 0.0f, 0.0f, overlayDepth);
     }
 
     public void setFadeIn() {
@@ -55,11 +60,12 @@ public class ScreenFade implements Graphics {
 
         if (alpha > 0) {
             // DRAW BLACK OVERLAY
-            ShapeGraphics overlay =
-                    new ShapeGraphics(
-                            new Circle(400, new Vector(canvas.getScaledWidth(), canvas.getScaledHeight())),
-                            Color.BLACK, Color.BLACK, 0.0f,
-                            alpha, overlayDepth);
+            if (canvas.getScaledWidth() != overlayWidth || canvas.getScaledHeight() != overlayHeight) {
+                overlayWidth = canvas.getScaledWidth();
+                overlayHeight = canvas.getScaledHeight();
+                overlay.setShape(new Circle(400, new Vector(overlayWidth, overlayHeight)));
+            }
+            overlay.setAlpha(alpha);
             overlay.draw(canvas);
         }
     }
@@ -7,45 +7,335 @@
 
 package ch.epfl.cs107.play.game.superpacman.leaderboard;
 
-import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
+import ch.epfl.cs107.play.io.Serialization;
 
-public class LeaderboardGameScores implements Serializable {
-    private final List<GameScore> gameScores = new ArrayList<>();
+import java.io.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+public class LeaderboardGameScores {
+    public static final int TOP_K = 10;
+    private static final String LOG_FILENAME = "leaderboard.log";
+    // Every record starts with this magic, its length and the checksum of its bytes
+    private static final int RECORD_MAGIC = 0x5053474C;
+    private static final int RECORD_HEADER_SIZE = 12;
+    // Java-serialized leaderboard of the previous versions, imported into the log once
+    private static final String LEGACY_FILENAME = "leaderboard.ser";
+    // Ranking by score, the most recent game first on equal scores
+    private static final Comparator<RankedGameScore> RANKING =
+            Comparator.comparingInt((RankedGameScore ranked) -> ranked.gameScore.getScore())
+                      .thenComparingInt(ranked -> ranked.sequence);
+    // Min-heap of the best games, the root is the weakest one and is dropped first
+    private final PriorityQueue<RankedGameScore> topGameScores = new PriorityQueue<>(TOP_K + 1, RANKING);
+    private final List<GameScore> sortedGameScores = new ArrayList<>(TOP_K);
+    private final List<GameScore> sortedGameScoresView = Collections.unmodifiableList(sortedGameScores);
+    private boolean sortedGameScoresOutdated = false;
+    // Secondary indexes, area title to best time and to the game that made it
+    private final Map<String, Float> bestAreaTimes = new TreeMap<>();
+    private final Map<String, GameScore> bestAreaGameScores = new HashMap<>();
+    // Games not yet appended to the log
+    private final List<GameScore> unsavedGameScores = new ArrayList<>();
+    private GameScore lastGame = null;
+    private int gameCount = 0;
+
+    /**
+     * Constructor for LeaderboardGameScores, replays the score log saved in /tmp
+     */
+    public LeaderboardGameScores() {
+        load();
+    }
+
+    /* ----------------------------------- ACCESSORS ----------------------------------- */
 
     /**
-     * Method to sort List<GameScore> by score
-     * @return a sorted List
+     * Method to get the best games by score, the sorted view is only rebuilt after an insertion
+     * @return an unmodifiable sorted List of at most TOP_K games
      */
     public List<GameScore> getSortedGameScores() {
-        gameScores.sort(Comparator.comparingInt(GameScore::getScore));
-        Collections.reverse(gameScores);
-        return gameScores;
+        if (sortedGameScoresOutdated) {
+            RankedGameScore[] rankedGameScores = topGameScores.toArray(new RankedGameScore[0]);
+            Arrays.sort(rankedGameScores, RANKING.reversed());
+            sortedGameScores.clear();
+            for (RankedGameScore rankedGameScore : rankedGameScores) {
+                sortedGameScores.add(rankedGameScore.gameScore);
+            }
+            sortedGameScoresOutdated = false;
+        }
+        return sortedGameScoresView;
+    }
+
+    /**
+     * Method to get the best time of all games in an area
+     * @param areaTitle the title of the area
+     * @return the best time or (null) if the area was never played
+     */
+    public Float getBestAreaTime(String areaTitle) {
+        return bestAreaTimes.get(areaTitle);
+    }
+
+    /**
+     * Method to get the game that made the best time in an area
+     * @param areaTitle the title of the area
+     * @return the GameScore or (null) if the area was never played
+     */
+    public GameScore getBestAreaGameScore(String areaTitle) {
+        return bestAreaGameScores.get(areaTitle);
     }
 
     /**
-     * Method to add a new GameScore to the leaderboard
+     * Method to get the best time of every played area
+     * @return an unmodifiable Map of the area titles, in order, to their best time
+     */
+    public Map<String, Float> getBestAreaTimes() {
+        return Collections.unmodifiableMap(bestAreaTimes);
+    }
+
+    /**
+     * Method to add a new GameScore to the leaderboard, it is written to the log on the next save
      * @param gameScore the GameScore to add
      */
     public void add(GameScore gameScore) {
-        gameScores.add(gameScore);
+        insert(gameScore);
+        unsavedGameScores.add(gameScore);
     }
 
     /**
-     * Method to get the last game saved into the List<GameScore>
+     * Method to get the last game added to the leaderboard
      * @return the last game
      */
     public GameScore getLastGame() {
-        return gameScores.get(gameScores.size() - 1);
+        return lastGame;
+    }
+
+    /**
+     * Method to append the games added since the last save to the score log
+     */
+    public void save() {
+        if (unsavedGameScores.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        try (DataOutputStream logOut = new DataOutputStream(log)) {
+            for (GameScore gameScore : unsavedGameScores) {
+                byte[] record = encode(gameScore);
+                logOut.writeInt(RECORD_MAGIC);
+                logOut.writeInt(record.length);
+                logOut.writeInt(checksum(record));
+                logOut.write(record);
+            }
+        } catch (IOException i) {
+            // Cannot happen when writing into memory
+            i.printStackTrace();
+        }
+        Serialization.append(log.toByteArray(), LOG_FILENAME);
+        unsavedGameScores.clear();
     }
 
     /**
-     * Method to clear the List of GameScore
+     * Method to clear the leaderboard and delete its log
      */
     public void clear() {
-        gameScores.clear();
+        topGameScores.clear();
+        sortedGameScores.clear();
+        sortedGameScoresOutdated = false;
+        bestAreaTimes.clear();
+        bestAreaGameScores.clear();
+        unsavedGameScores.clear();
+        lastGame = null;
+        gameCount = 0;
+        Serialization.delete(LOG_FILENAME);
+    }
+
+    /**
+     * Method to insert a game into the top scores heap and the area indexes
+     * @param gameScore the GameScore to insert
+     */
+    private void insert(GameScore gameScore) {
+        topGameScores.add(new RankedGameScore(gameScore, gameCount++));
+        if (topGameScores.size() > TOP_K) {
+            topGameScores.poll();
+        }
+        sortedGameScoresOutdated = true;
+
+        for (Map.Entry<String, Float> areaTime : gameScore.getOrderedAreaHistoryTimes().entrySet()) {
+            Float bestTime = bestAreaTimes.get(areaTime.getKey());
+            if (bestTime == null || areaTime.getValue() < bestTime) {
+                bestAreaTimes.put(areaTime.getKey(), areaTime.getValue());
+                bestAreaGameScores.put(areaTime.getKey(), gameScore);
+            }
+        }
+        lastGame = gameScore;
+    }
+
+    /**
+     * Method to replay the score log. A truncated or corrupt record ends the log: the file is cut back to the
+     * last valid record before anything is appended, so that the next games are not read as part of it
+     */
+    private void load() {
+        byte[] log = Serialization.read(LOG_FILENAME);
+        if (log == null) {
+            if (!importLegacy()) {
+                System.out.println(LOG_FILENAME + " is not yet saved, so created new leaderboard");
+            }
+            return;
+        }
+        int validLength = 0;
+        DataInputStream logIn = new DataInputStream(new ByteArrayInputStream(log));
+        try {
+            while (logIn.available() > 0) {
+                if (logIn.available() < RECORD_HEADER_SIZE || logIn.readInt() != RECORD_MAGIC) {
+                    throw new IOException("bad record header at byte " + validLength);
+                }
+                int length = logIn.readInt();
+                int checksum = logIn.readInt();
+                if (length < 0 || length > logIn.available()) {
+                    throw new EOFException("truncated record at byte " + validLength);
+                }
+                byte[] record = new byte[length];
+                logIn.readFully(record);
+                if (checksum(record) != checksum) {
+                    throw new IOException("bad record checksum at byte " + validLength);
+                }
+                insert(decode(record));
+                validLength += RECORD_HEADER_SIZE + length;
+            }
+        } catch (IOException i) {
+            System.out.println("An ERROR occurred while reading \"" + LOG_FILENAME + "\", kept " + gameCount +
+                                       " games...");
+            i.printStackTrace();
+            // Replaced atomically, the appends queued afterwards follow the last valid record
+            Serialization.write(Arrays.copyOf(log, validLength), LOG_FILENAME);
+        }
+    }
+
+    /**
+     * Method to import the games of a leaderboard.ser left by a previous version into the log, then delete it
+     * @return true if a leaderboard was imported
+     */
+    private boolean importLegacy() {
+        byte[] legacy = Serialization.read(LEGACY_FILENAME);
+        if (legacy == null) {
+            return false;
+        }
+        try (ObjectInputStream objectIn = new LegacyInputStream(new ByteArrayInputStream(legacy))) {
+            LegacyLeaderboard legacyLeaderboard = (LegacyLeaderboard) objectIn.readObject();
+            for (GameScore gameScore : legacyLeaderboard.gameScores) {
+                add(gameScore);
+            }
+        } catch (IOException | ClassNotFoundException | ClassCastException i) {
+            // Kept on the disk, the import is tried again on the next start
+            System.out.println("An ERROR occurred while importing \"" + LEGACY_FILENAME + "\"...");
+            i.printStackTrace();
+            return false;
+        }
+        save();
+        Serialization.delete(LEGACY_FILENAME);
+        System.out.println("Imported " + gameCount + " games from " + LEGACY_FILENAME + " into " + LOG_FILENAME);
+        return true;
+    }
+
+    /**
+     * Method to encode a game into a log record
+     * @param gameScore the GameScore to encode
+     * @return the record bytes
+     */
+    private static byte[] encode(GameScore gameScore) {
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        try (DataOutputStream recordOut = new DataOutputStream(record)) {
+            recordOut.writeInt(gameScore.getMaxDeaths());
+            recordOut.writeInt(gameScore.getScore());
+            recordOut.writeInt(gameScore.getDeaths());
+            recordOut.writeUTF(gameScore.getPlayerName());
+            Map<String, Float> areaTimes = gameScore.getOrderedAreaHistoryTimes();
+            recordOut.writeShort(areaTimes.size());
+            for (Map.Entry<String, Float> areaTime : areaTimes.entrySet()) {
+                recordOut.writeUTF(areaTime.getKey());
+                recordOut.writeFloat(areaTime.getValue());
+            }
+        } catch (IOException i) {
+            // Cannot happen when writing into memory
+            i.printStackTrace();
+        }
+        return record.toByteArray();
+    }
+
+    /**
+     * Method to compute the checksum of a log record
+     * @param record the record bytes
+     * @return the CRC-32 of the bytes
+     */
+    private static int checksum(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Method to decode a log record written by encode
+     * @param record the record bytes
+     * @return the decoded GameScore
+     * @throws IOException if the record is malformed
+     */
+    private static GameScore decode(byte[] record) throws IOException {
+        DataInputStream recordIn = new DataInputStream(new ByteArrayInputStream(record));
+        int maxDeaths = recordIn.readInt();
+        int score = recordIn.readInt();
+        int deaths = recordIn.readInt();
+        String playerName = recordIn.readUTF();
+        int areaCount = recordIn.readShort();
+        Map<String, Float> areaTimes = new HashMap<>();
+        for (int i = 0; i < areaCount; ++i) {
+            areaTimes.put(recordIn.readUTF(), recordIn.readFloat());
+        }
+        if (recordIn.available() > 0) {
+            throw new IOException("unexpected bytes at the end of a record");
+        }
+        GameScore gameScore = new GameScore(maxDeaths, areaTimes, score, maxDeaths - deaths);
+        gameScore.setPlayerName(playerName);
+        return gameScore;
+    }
+
+    /**
+     * GameScore with its insertion order, to rank equal scores
+     */
+    private static final class RankedGameScore {
+        private final GameScore gameScore;
+        private final int sequence;
+
+        private RankedGameScore(GameScore gameScore, int sequence) {
+            this.gameScore = gameScore;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * Serialized form of the previous LeaderboardGameScores, holding every game in a List
+     */
+    private static final class LegacyLeaderboard implements Serializable {
+        // Computed serialVersionUID of the previous LeaderboardGameScores
+        private static final long serialVersionUID = 7814893428939391308L;
+        private List<GameScore> gameScores;
+    }
+
+    /**
+     * ObjectInputStream reading the previous LeaderboardGameScores as a LegacyLeaderboard
+     */
+    private static final class LegacyInputStream extends ObjectInputStream {
+        private LegacyInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+            ObjectStreamClass descriptor = super.readClassDescriptor();
+            if (descriptor.getName().equals(LeaderboardGameScores.class.getName())) {
+                ObjectStreamClass legacyDescriptor = ObjectStreamClass.lookup(LegacyLeaderboard.class);
+                if (descriptor.getSerialVersionUID() != legacyDescriptor.getSerialVersionUID()) {
+                    throw new InvalidClassException(descriptor.getName(), "unknown leaderboard version");
+                }
+                return legacyDescriptor;
+            }
+            return descriptor;
+        }
     }
 }
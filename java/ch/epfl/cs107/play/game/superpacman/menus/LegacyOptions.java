@@ -0,0 +1,294 @@
+package ch.epfl.cs107.play.game.superpacman.menus;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reader of the options.ser saved by the previous versions, a Java-serialized Options menu.
+ * The menu classes changed since, so the stream is walked without them, following the serialization grammar,
+ * and only the EnumMap of the menu holding the selected SubOption of every Option is kept
+ */
+final class LegacyOptions implements ObjectStreamConstants {
+    // Markers of the block data and of the end of an annotation, returned as contents
+    private static final Object BLOCK_DATA = new Object();
+    private static final Object END_BLOCK_DATA = new Object();
+
+    private final DataInputStream in;
+    private final List<Object> handles = new ArrayList<>();
+    private final Map<Option, SubOption> selections = new EnumMap<>(Option.class);
+
+    private LegacyOptions(byte[] data) {
+        in = new DataInputStream(new ByteArrayInputStream(data));
+    }
+
+    /**
+     * Method to read the selected SubOptions of a legacy options.ser
+     * @param data the content of the file
+     * @return the selected SubOption of every Option, the ones that no longer exist are skipped
+     * @throws IOException if the content is not a serialized stream
+     */
+    static Map<Option, SubOption> read(byte[] data) throws IOException {
+        LegacyOptions legacyOptions = new LegacyOptions(data);
+        if (legacyOptions.in.readShort() != STREAM_MAGIC || legacyOptions.in.readShort() != STREAM_VERSION) {
+            throw new StreamCorruptedException("not a serialized stream");
+        }
+        legacyOptions.readContent();
+        return legacyOptions.selections;
+    }
+
+    /**
+     * Method to read the next content of the stream
+     * @return the read object, a ClassDescription, an EnumConstant, a String, a placeholder or a marker
+     * @throws IOException if the stream is malformed
+     */
+    private Object readContent() throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TC_NULL:
+                return null;
+            case TC_REFERENCE:
+                int handle = in.readInt() - baseWireHandle;
+                if (handle < 0 || handle >= handles.size()) {
+                    throw new StreamCorruptedException("invalid handle");
+                }
+                return handles.get(handle);
+            case TC_CLASSDESC:
+                return readClassDescription();
+            case TC_PROXYCLASSDESC:
+                return readProxyClassDescription();
+            case TC_OBJECT:
+                return readObject();
+            case TC_STRING:
+                return newHandle(in.readUTF());
+            case TC_LONGSTRING:
+                byte[] bytes = new byte[(int) in.readLong()];
+                in.readFully(bytes);
+                return newHandle(new String(bytes, StandardCharsets.UTF_8));
+            case TC_ARRAY:
+                return readArray();
+            case TC_ENUM:
+                ClassDescription enumDescription = (ClassDescription) readContent();
+                EnumConstant enumConstant = new EnumConstant(enumDescription.name);
+                newHandle(enumConstant);
+                enumConstant.name = (String) readContent();
+                return enumConstant;
+            case TC_CLASS:
+                return newHandle(readContent());
+            case TC_BLOCKDATA:
+                in.skipNBytes(in.readUnsignedByte());
+                return BLOCK_DATA;
+            case TC_BLOCKDATALONG:
+                in.skipNBytes(in.readInt());
+                return BLOCK_DATA;
+            case TC_ENDBLOCKDATA:
+                return END_BLOCK_DATA;
+            case TC_RESET:
+                handles.clear();
+                return readContent();
+            default:
+                throw new StreamCorruptedException("unsupported tag " + tag);
+        }
+    }
+
+    /**
+     * Method to read a class description, after its tag
+     * @return the ClassDescription
+     * @throws IOException if the stream is malformed
+     */
+    private ClassDescription readClassDescription() throws IOException {
+        ClassDescription description = new ClassDescription(in.readUTF());
+        in.readLong();
+        newHandle(description);
+        description.flags = in.readByte();
+        int fieldCount = in.readShort();
+        for (int i = 0; i < fieldCount; ++i) {
+            char type = (char) in.readByte();
+            in.readUTF();
+            if (type == '[' || type == 'L') {
+                // Class name of the field
+                readContent();
+            }
+            description.fieldTypes.append(type);
+        }
+        readAnnotation();
+        description.superDescription = (ClassDescription) readContent();
+        return description;
+    }
+
+    /**
+     * Method to read a proxy class description, after its tag
+     * @return the ClassDescription, without fields
+     * @throws IOException if the stream is malformed
+     */
+    private ClassDescription readProxyClassDescription() throws IOException {
+        ClassDescription description = new ClassDescription("proxy");
+        newHandle(description);
+        description.flags = SC_SERIALIZABLE;
+        int interfaceCount = in.readInt();
+        for (int i = 0; i < interfaceCount; ++i) {
+            in.readUTF();
+        }
+        readAnnotation();
+        description.superDescription = (ClassDescription) readContent();
+        return description;
+    }
+
+    /**
+     * Method to read an object, after its tag, keeping the selections if it is the EnumMap of the menu
+     * @return a placeholder of the object
+     * @throws IOException if the stream is malformed
+     */
+    private Object readObject() throws IOException {
+        ClassDescription description = (ClassDescription) readContent();
+        Object object = newHandle(new Object());
+        // Class data of the superclasses first
+        List<ClassDescription> hierarchy = new ArrayList<>();
+        for (ClassDescription current = description; current != null; current = current.superDescription) {
+            hierarchy.add(0, current);
+        }
+        for (ClassDescription current : hierarchy) {
+            if ((current.flags & SC_SERIALIZABLE) == 0) {
+                continue;
+            }
+            if ((current.flags & SC_EXTERNALIZABLE) != 0) {
+                if ((current.flags & SC_BLOCK_DATA) == 0) {
+                    throw new StreamCorruptedException("unsupported externalizable " + current.name);
+                }
+                readAnnotation();
+                continue;
+            }
+            for (int i = 0; i < current.fieldTypes.length(); ++i) {
+                readValue(current.fieldTypes.charAt(i));
+            }
+            if ((current.flags & SC_WRITE_METHOD) != 0) {
+                List<Object> annotation = readAnnotation();
+                if (current.name.equals(EnumMap.class.getName())) {
+                    keepSelections(annotation);
+                }
+            }
+        }
+        return object;
+    }
+
+    /**
+     * Method to read an array, after its tag
+     * @return a placeholder of the array
+     * @throws IOException if the stream is malformed
+     */
+    private Object readArray() throws IOException {
+        ClassDescription description = (ClassDescription) readContent();
+        Object array = newHandle(new Object());
+        int size = in.readInt();
+        char type = description.name.charAt(1);
+        for (int i = 0; i < size; ++i) {
+            readValue(type);
+        }
+        return array;
+    }
+
+    /**
+     * Method to read a field or array element value
+     * @param type the type code of the value
+     * @throws IOException if the stream is malformed
+     */
+    private void readValue(char type) throws IOException {
+        switch (type) {
+            case 'B':
+            case 'Z':
+                in.readByte();
+                break;
+            case 'C':
+            case 'S':
+                in.readShort();
+                break;
+            case 'I':
+            case 'F':
+                in.readInt();
+                break;
+            case 'J':
+            case 'D':
+                in.readLong();
+                break;
+            case 'L':
+            case '[':
+                readContent();
+                break;
+            default:
+                throw new StreamCorruptedException("unsupported type code " + type);
+        }
+    }
+
+    /**
+     * Method to read the contents written by a writeObject method, up to their end marker
+     * @return the objects, without the block data
+     * @throws IOException if the stream is malformed
+     */
+    private List<Object> readAnnotation() throws IOException {
+        List<Object> objects = new ArrayList<>();
+        Object content = readContent();
+        while (content != END_BLOCK_DATA) {
+            if (content != BLOCK_DATA) {
+                objects.add(content);
+            }
+            content = readContent();
+        }
+        return objects;
+    }
+
+    /**
+     * Method to keep the pairs of an EnumMap that map an Option to a SubOption
+     * @param annotation the keys and values written by the EnumMap, alternately
+     */
+    private void keepSelections(List<Object> annotation) {
+        for (int i = 0; i + 1 < annotation.size(); i += 2) {
+            if (!(annotation.get(i) instanceof EnumConstant) || !(annotation.get(i + 1) instanceof EnumConstant)) {
+                continue;
+            }
+            EnumConstant key = (EnumConstant) annotation.get(i);
+            EnumConstant value = (EnumConstant) annotation.get(i + 1);
+            if (!key.className.equals(Option.class.getName()) || !value.className.equals(SubOption.class.getName())) {
+                continue;
+            }
+            try {
+                selections.put(Option.valueOf(key.name), SubOption.valueOf(value.name));
+            } catch (IllegalArgumentException e) {
+                // Option or SubOption removed since, skipped
+            }
+        }
+    }
+
+    private Object newHandle(Object object) {
+        handles.add(object);
+        return object;
+    }
+
+    /**
+     * Class of serialized objects, with the type codes of its serialized fields
+     */
+    private static final class ClassDescription {
+        private final String name;
+        private final StringBuilder fieldTypes = new StringBuilder();
+        private byte flags;
+        private ClassDescription superDescription;
+
+        private ClassDescription(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Serialized enum constant, by class and constant names
+     */
+    private static final class EnumConstant {
+        private final String className;
+        private String name;
+
+        private EnumConstant(String className) {
+            this.className = className;
+        }
+    }
+}
@@ -11,9 +11,7 @@ import ch.epfl.cs107.play.game.actor.Graphics;
 import ch.epfl.cs107.play.game.actor.*;
 import ch.epfl.cs107.play.game.areagame.io.ResourcePath;
 import ch.epfl.cs107.play.game.superpacman.SoundUtility;
-import ch.epfl.cs107.play.game.superpacman.area.SuperPacmanAreaBehavior;
 import ch.epfl.cs107.play.game.superpacman.globalenums.SuperPacmanDepth;
-import ch.epfl.cs107.play.game.superpacman.globalenums.SuperPacmanDifficulty;
 import ch.epfl.cs107.play.game.superpacman.globalenums.SuperPacmanSound;
 import ch.epfl.cs107.play.math.RegionOfInterest;
 import ch.epfl.cs107.play.math.Vector;
@@ -23,15 +21,12 @@ import ch.epfl.cs107.play.window.Keyboard;
 import ch.epfl.cs107.play.window.Window;
 
 import java.awt.*;
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
-public abstract class Menu implements Graphics, Acoustics, Serializable {
+public abstract class Menu implements Graphics, Acoustics {
     protected static final float HEADER_FONT_SIZE = 5;
     protected static final float SUB_HEADER_FONT_SIZE = 3;
     protected static final float BODY_FONT_SIZE = 2;
@@ -40,11 +35,11 @@ public abstract class Menu implements Graphics, Acoustics, Serializable {
     private final EnumMap<Option, List<SubOption>> subOptionList = new EnumMap<>(Option.class);
     private final EnumMap<Option, SubOption> subOptionSectionList = new EnumMap<>(Option.class);
     private final List<Option> optionList = new ArrayList<>();
-    private transient SoundAcoustics SELECT_SOUND = SuperPacmanSound.MENU_SELECT.sound;
-    private transient SoundAcoustics KEY_CLICK_SOUND = SuperPacmanSound.MENU_KEY_CLICK.sound;
-    private transient SoundAcoustics ERROR_SOUND = SuperPacmanSound.MENU_ERROR.sound;
-    private transient SoundUtility menuSoundUtility;
-    private transient Keyboard keyboard;
+    private final SoundAcoustics SELECT_SOUND = SuperPacmanSound.MENU_SELECT.sound;
+    private final SoundAcoustics KEY_CLICK_SOUND = SuperPacmanSound.MENU_KEY_CLICK.sound;
+    private final SoundAcoustics ERROR_SOUND = SuperPacmanSound.MENU_ERROR.sound;
+    private final SoundUtility menuSoundUtility;
+    private final Keyboard keyboard;
     private float scaledWidth;
     private float scaledHeight;
     private float initScaledWidth;
@@ -121,32 +116,24 @@ public abstract class Menu implements Graphics, Acoustics, Serializable {
         this.subSelectionCount = subSelectionCount;
     }
 
-    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
-        in.defaultReadObject();
-
-        keyboard = MenuStateManager.getWindow().getKeyboard();
-        SELECT_SOUND = SuperPacmanSound.MENU_SELECT.sound;
-        KEY_CLICK_SOUND = SuperPacmanSound.MENU_KEY_CLICK.sound;
-        ERROR_SOUND = SuperPacmanSound.MENU_ERROR.sound;
-        menuSoundUtility = new SoundUtility(new SoundAcoustics[]{SELECT_SOUND, KEY_CLICK_SOUND, ERROR_SOUND}, false);
-        // Reset all options
-        SuperPacmanDifficulty defaultDifficulty =
-                SuperPacmanDifficulty.getDifficulty(getOptionSubSelection(Option.DIFFICULTY));
-        SuperPacmanAreaBehavior.setInitDifficulty(defaultDifficulty);
-        MenuStateManager.setSoundDeactivated(!getOptionLogic(Option.SOUND));
-        MenuStateManager.setGlowDeactivated(!getOptionLogic(Option.GLOW));
-        MenuStateManager.setCameraSmoothingOption(getOptionSubSelection(Option.CAMERA_SMOOTHING));
-        MenuStateManager.setCameraShakeDeactivated(!getOptionLogic(Option.CAMERA_SHAKE));
-        MenuStateManager.setShowFps(getOptionLogic(Option.FPS));
-
-        reset();
-
-    }
-
     protected SubOption getOptionSubSelection(Option option) {
         return subOptionSectionList.get(option);
     }
 
+    /**
+     * Method to select a SubOption of an Option, ignored if the Option does not offer it
+     * @param option    the Option
+     * @param subOption the SubOption to select
+     */
+    protected void setOptionSubSelection(Option option, SubOption subOption) {
+        if (subOptionList.containsKey(option) && subOptionList.get(option).contains(subOption)) {
+            subOptionSectionList.replace(option, subOption);
+            if (option.equals(currentSelection)) {
+                currentSubSelection = subOption;
+            }
+        }
+    }
+
     protected boolean getOptionLogic(Option option) {
         return subOptionSectionList.get(option).equals(SubOption.TOGGLE_ON);
     }
@@ -20,7 +20,6 @@ import ch.epfl.cs107.play.game.superpacman.globalenums.SuperPacmanDifficulty;
 import ch.epfl.cs107.play.game.superpacman.globalenums.SuperPacmanSound;
 import ch.epfl.cs107.play.game.superpacman.graphics.ScreenFade;
 import ch.epfl.cs107.play.game.superpacman.menus.pages.*;
-import ch.epfl.cs107.play.io.Serialization;
 import ch.epfl.cs107.play.window.Audio;
 import ch.epfl.cs107.play.window.Canvas;
 import ch.epfl.cs107.play.window.Keyboard;
@@ -41,8 +40,6 @@ public final class MenuStateManager implements Updatable, Graphics, Acoustics {
 
     private static final SoundAcoustics ENTER_SOUND = SuperPacmanSound.MENU_ENTER.sound;
     private static final SoundAcoustics EXIT_SOUND = SuperPacmanSound.MENU_EXIT.sound;
-    private static final String LEADERBOARD_TMP_FILENAME = "leaderboard.ser";
-    private static final String OPTIONS_TMP_FILENAME = "options.ser";
     private static boolean isMenuIntractable = true;
     private static boolean startGame = false;
     private static boolean endGame = false;
@@ -53,11 +50,14 @@ public final class MenuStateManager implements Updatable, Graphics, Acoustics {
     private static boolean quit = false;
     private static boolean paused = false;
     private static boolean soundDeactivated = false;
-    private static boolean glowDeactivated = false;
+    private static SubOption glowOption = SubOption.TOGGLE_ON;
     private static SubOption cameraSmoothingOption = SubOption.CAMERA_SMOOTH;
     private static boolean cameraChangeRequest = false;
     private static boolean cameraShakeDeactivated = false;
     private static boolean showFps = false;
+    private static SubOption renderScaleOption = SubOption.RENDER_SCALE_FULL;
+    // Quality tier chosen by the quality governor, lowering the settings above
+    private static int qualityTier = 0;
     private static Window window;
     private final SoundUtility menuStateSoundUtility;
     private final ScreenFade screenFade = new ScreenFade(SuperPacmanDepth.MENU_SCREEN_FADE.value, 0.005f);
@@ -77,12 +77,7 @@ public final class MenuStateManager implements Updatable, Graphics, Acoustics {
         menuStates.put(MenuState.MAIN_MENU, mainMenu);
         menuStack.push(mainMenu);
 
-        Object optionsMenu = Serialization.deserialize(OPTIONS_TMP_FILENAME);
-        if (optionsMenu == null) {
-            menuStates.put(MenuState.OPTIONS, new Options(window));
-        } else {
-            menuStates.put(MenuState.OPTIONS, (Menu) optionsMenu);
-        }
+        menuStates.put(MenuState.OPTIONS, new Options(window));
 
         menuStates.put(MenuState.HELP, new Help(window));
         menuStates.put(MenuState.HELP_GHOSTS, new HelpGhosts(window));
@@ -125,11 +120,66 @@ public final class MenuStateManager implements Updatable, Graphics, Acoustics {
     }
 
     public static boolean isGlowDeactivated() {
-        return glowDeactivated;
+        return glowOption == SubOption.TOGGLE_OFF || qualityTier >= 2;
+    }
+
+    /**
+     * Method to change the glow quality, the low one blurs the glows at half resolution
+     * @param glowOption TOGGLE_ON, GLOW_LOW or TOGGLE_OFF
+     */
+    public static void setGlowOption(SubOption glowOption) {
+        MenuStateManager.glowOption = glowOption;
+        applyRenderQuality();
     }
 
-    public static void setGlowDeactivated(boolean glowDeactivated) {
-        MenuStateManager.glowDeactivated = glowDeactivated;
+    /**
+     * Method to render the scene at a fraction of the window resolution, the GUIs and menus stay at full resolution
+     * @param renderScaleOption one of the RENDER_SCALE SubOptions
+     */
+    public static void setRenderScaleOption(SubOption renderScaleOption) {
+        MenuStateManager.renderScaleOption = renderScaleOption;
+        applyRenderQuality();
+    }
+
+    /**
+     * Method to lower the quality below the user settings when frames run long
+     * @param qualityTier from 0 (the user settings) to 4: 1 lowers the glow resolution, 2 deactivates the glow,
+     *                    camera shake and antialiasing, 3 and 4 lower the render scale to 75% and 50%
+     */
+    public static void setQualityTier(int qualityTier) {
+        MenuStateManager.qualityTier = qualityTier;
+        applyRenderQuality();
+    }
+
+    /**
+     * Method to apply the render scale and glow options and the quality tier to the window
+     */
+    private static void applyRenderQuality() {
+        float scale;
+        boolean filtered = true;
+        switch (renderScaleOption) {
+            case RENDER_SCALE_THREE_QUARTERS:
+                scale = 0.75f;
+                break;
+            case RENDER_SCALE_HALF:
+                scale = 0.5f;
+                break;
+            case RENDER_SCALE_HALF_SHARP:
+                scale = 0.5f;
+                filtered = false;
+                break;
+            default:
+                scale = 1.0f;
+                break;
+        }
+        if (qualityTier >= 4) {
+            scale = Math.min(scale, 0.5f);
+        } else if (qualityTier >= 3) {
+            scale = Math.min(scale, 0.75f);
+        }
+        window.setRenderScale(scale, filtered, SuperPacmanDepth.PAYER_GUI.value);
+        window.setAntialiasing(qualityTier < 2);
+        window.setGlowResolution(glowOption == SubOption.GLOW_LOW || qualityTier >= 1 ? 0.5f : 1.0f);
     }
 
     public static boolean isPaused() {
@@ -153,7 +203,7 @@ public final class MenuStateManager implements Updatable, Graphics, Acoustics {
     }
 
     public static boolean isCameraShakeDeactivated() {
-        return cameraShakeDeactivated;
+        return cameraShakeDeactivated || qualityTier >= 2;
     }
 
     public static void setCameraShakeDeactivated(boolean cameraShakeDeactivated) {
@@ -233,7 +283,7 @@ public final class MenuStateManager implements Updatable, Graphics, Acoustics {
                     startGame = true;
                     break;
                 case RESTART:
-                    Serialization.serialize(SuperPacman.getLeaderboardScores(), LEADERBOARD_TMP_FILENAME);
+                    SuperPacman.getLeaderboardScores().save();
                     menuStack.push(menuStates.get(MenuState.PLAY));
                     startGame = true;
                     break;
@@ -252,7 +302,7 @@ public final class MenuStateManager implements Updatable, Graphics, Acoustics {
                     menuStack.push(menuStates.get(MenuState.CREDITS));
                     break;
                 case BACK_TO_MAIN_MENU:
-                    Serialization.serialize(SuperPacman.getLeaderboardScores(), LEADERBOARD_TMP_FILENAME);
+                    SuperPacman.getLeaderboardScores().save();
                     menu.reset();
                     menuStack.clear();
                     menuStack.push(menuStates.get(MenuState.MAIN_MENU));
@@ -266,7 +316,7 @@ public final class MenuStateManager implements Updatable, Graphics, Acoustics {
                 case BACK:
                     assert menuStack.peek() != null;
                     if (menuStack.peek().equals(menuStates.get(MenuState.OPTIONS))) {
-                        Serialization.serialize(menuStack.peek(), OPTIONS_TMP_FILENAME);
+                        Settings.save();
                     }
                     menuStack.removeFirst();
                     menu.reset();
@@ -295,7 +345,11 @@ public final class MenuStateManager implements Updatable, Graphics, Acoustics {
                     break;
                 case GLOW:
                     menu.updateSubSelection();
-                    glowDeactivated = !menu.isToggleLogic();
+                    setGlowOption(menu.getCurrentSubSelection());
+                    break;
+                case RENDER_SCALE:
+                    menu.updateSubSelection();
+                    setRenderScaleOption(menu.getCurrentSubSelection());
                     break;
                 case CAMERA_SMOOTHING:
                     menu.updateSubSelection();
@@ -318,10 +372,9 @@ public final class MenuStateManager implements Updatable, Graphics, Acoustics {
                     break;
                 case CLEAR_LEADERBOARD:
                     SuperPacman.getLeaderboardScores().clear();
-                    Serialization.delete(LEADERBOARD_TMP_FILENAME);
                     break;
                 case RESTORE_DEFAULT:
-                    Serialization.delete(OPTIONS_TMP_FILENAME);
+                    Settings.clear();
                     menuStack.removeFirst();
                     Menu newOption = new Options(window);
                     // Set same selection
@@ -14,6 +14,7 @@ public enum Option {
     RESUME("Resume"),
     SOUND("Sound"),
     GLOW("Glow Effect"),
+    RENDER_SCALE("Render scale"),
     CAMERA_SMOOTHING("Camera smoothing"),
     CAMERA_SHAKE("Camera Shake"),
     FPS("Show fps"),
@@ -0,0 +1,186 @@
+package ch.epfl.cs107.play.game.superpacman.menus;
+
+import ch.epfl.cs107.play.io.Serialization;
+
+import java.io.*;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+
+/**
+ * Typed store of the user settings, saved as a small versioned key-value file in /tmp
+ * and only loaded on the first access
+ */
+public final class Settings {
+    private static final String SETTINGS_TMP_FILENAME = "settings.dat";
+    // Java-serialized Options menu of the previous versions, imported into the settings once
+    private static final String LEGACY_FILENAME = "options.ser";
+    private static final int SCHEMA_VERSION = 1;
+    // Schema: the SubOptions allowed for every stored Option
+    private static final Map<Option, EnumSet<SubOption>> SCHEMA = new EnumMap<>(Option.class);
+    private static final Map<Option, SubOption> values = new EnumMap<>(Option.class);
+    private static boolean loaded = false;
+    private static boolean modified = false;
+
+    static {
+        EnumSet<SubOption> toggle = EnumSet.of(SubOption.TOGGLE_ON, SubOption.TOGGLE_OFF);
+        SCHEMA.put(Option.DIFFICULTY, EnumSet.of(SubOption.DIFFICULTY_EASY, SubOption.DIFFICULTY_NORMAL,
+                                                 SubOption.DIFFICULTY_HARD, SubOption.DIFFICULTY_IMPOSSIBLE));
+        SCHEMA.put(Option.SOUND, toggle);
+        SCHEMA.put(Option.GLOW, EnumSet.of(SubOption.TOGGLE_ON, SubOption.GLOW_LOW, SubOption.TOGGLE_OFF));
+        SCHEMA.put(Option.RENDER_SCALE, EnumSet.of(SubOption.RENDER_SCALE_FULL, SubOption.RENDER_SCALE_THREE_QUARTERS,
+                                                   SubOption.RENDER_SCALE_HALF, SubOption.RENDER_SCALE_HALF_SHARP));
+        SCHEMA.put(Option.CAMERA_SMOOTHING, EnumSet.of(SubOption.CAMERA_NO_SMOOTH, SubOption.CAMERA_SMOOTH,
+                                                       SubOption.CAMERA_VERY_SMOOTH));
+        SCHEMA.put(Option.CAMERA_SHAKE, toggle);
+        SCHEMA.put(Option.FPS, toggle);
+    }
+
+    private Settings() {
+        throw new IllegalStateException("Settings class");
+    }
+
+    /* ----------------------------------- ACCESSORS ----------------------------------- */
+
+    /**
+     * Method to know if an Option is kept in the settings
+     * @param option the Option
+     * @return (true) if the Option is part of the schema
+     */
+    public static boolean isStored(Option option) {
+        return SCHEMA.containsKey(option);
+    }
+
+    /**
+     * Method to get the saved SubOption of an Option
+     * @param option the stored Option
+     * @return the SubOption or (null) if the user never changed it
+     */
+    public static SubOption get(Option option) {
+        load();
+        return values.get(option);
+    }
+
+    /**
+     * Method to change the SubOption of an Option, written on the next save
+     * @param option    the stored Option
+     * @param subOption a SubOption allowed for this Option
+     */
+    public static void set(Option option, SubOption subOption) {
+        if (!isStored(option) || !SCHEMA.get(option).contains(subOption)) {
+            throw new IllegalArgumentException(option + " cannot be set to " + subOption);
+        }
+        load();
+        if (values.put(option, subOption) != subOption) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Method to write the settings to /tmp if they changed since the last save
+     */
+    public static void save() {
+        if (!modified) {
+            return;
+        }
+        ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+        try (DataOutputStream settingsOut = new DataOutputStream(bytesOut)) {
+            settingsOut.writeShort(SCHEMA_VERSION);
+            settingsOut.writeByte(values.size());
+            for (Map.Entry<Option, SubOption> entry : values.entrySet()) {
+                // Names and not ordinals, the enums may be reordered
+                settingsOut.writeUTF(entry.getKey().name());
+                settingsOut.writeUTF(entry.getValue().name());
+            }
+        } catch (IOException i) {
+            // Cannot happen when writing into memory
+            i.printStackTrace();
+        }
+        Serialization.write(bytesOut.toByteArray(), SETTINGS_TMP_FILENAME);
+        modified = false;
+    }
+
+    /**
+     * Method to restore the default settings, deleting the saved ones
+     */
+    public static void clear() {
+        values.clear();
+        loaded = true;
+        modified = false;
+        Serialization.delete(SETTINGS_TMP_FILENAME);
+    }
+
+    /**
+     * Method to import the options.ser left by a previous version into the settings, then delete it
+     * @return (true) if options were imported
+     */
+    private static boolean importLegacy() {
+        byte[] legacy = Serialization.read(LEGACY_FILENAME);
+        if (legacy == null) {
+            return false;
+        }
+        try {
+            for (Map.Entry<Option, SubOption> entry : LegacyOptions.read(legacy).entrySet()) {
+                if (isStored(entry.getKey()) && SCHEMA.get(entry.getKey()).contains(entry.getValue())) {
+                    values.put(entry.getKey(), entry.getValue());
+                }
+            }
+        } catch (IOException | RuntimeException i) {
+            // Kept on the disk, the import is tried again on the next start
+            System.out.println("An ERROR occurred while importing \"" + LEGACY_FILENAME + "\"...");
+            i.printStackTrace();
+            values.clear();
+            return false;
+        }
+        // Written before the deletion, in the order of the requests
+        modified = true;
+        save();
+        Serialization.delete(LEGACY_FILENAME);
+        System.out.println("Imported " + values.size() + " options from " + LEGACY_FILENAME + " into " +
+                                   SETTINGS_TMP_FILENAME);
+        return true;
+    }
+
+    /**
+     * Method to read the saved settings, only done once.
+     * Unknown or invalid entries are skipped, and a newer schema version is ignored
+     */
+    private static void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        byte[] data = Serialization.read(SETTINGS_TMP_FILENAME);
+        if (data == null) {
+            if (!importLegacy()) {
+                System.out.println(SETTINGS_TMP_FILENAME + " is not yet saved, so using default settings");
+            }
+            return;
+        }
+        try (DataInputStream settingsIn = new DataInputStream(new ByteArrayInputStream(data))) {
+            int version = settingsIn.readShort();
+            if (version > SCHEMA_VERSION) {
+                System.out.println(SETTINGS_TMP_FILENAME + " has an unknown version " + version +
+                                           ", so using default settings");
+                return;
+            }
+            int size = settingsIn.readUnsignedByte();
+            for (int i = 0; i < size; ++i) {
+                String optionName = settingsIn.readUTF();
+                String subOptionName = settingsIn.readUTF();
+                try {
+                    Option option = Option.valueOf(optionName);
+                    SubOption subOption = SubOption.valueOf(subOptionName);
+                    if (isStored(option) && SCHEMA.get(option).contains(subOption)) {
+                        values.put(option, subOption);
+                    }
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Skipped unknown setting " + optionName + "=" + subOptionName);
+                }
+            }
+        } catch (IOException i) {
+            System.out.println("An ERROR occurred while reading \"" + SETTINGS_TMP_FILENAME + "\"...");
+            i.printStackTrace();
+        }
+    }
+}
@@ -3,13 +3,18 @@ package ch.epfl.cs107.play.game.superpacman.menus;
 public enum SubOption {
     TOGGLE_ON("On"),
     TOGGLE_OFF("Off"),
+    GLOW_LOW("Low"),
     DIFFICULTY_EASY("Easy"),
     DIFFICULTY_NORMAL("Normal"),
     DIFFICULTY_HARD("Hard"),
     DIFFICULTY_IMPOSSIBLE("Impossible"),
     CAMERA_NO_SMOOTH("None"),
     CAMERA_SMOOTH("Smooth"),
-    CAMERA_VERY_SMOOTH("Very Smooth");
+    CAMERA_VERY_SMOOTH("Very Smooth"),
+    RENDER_SCALE_FULL("100%"),
+    RENDER_SCALE_THREE_QUARTERS("75%"),
+    RENDER_SCALE_HALF("50%"),
+    RENDER_SCALE_HALF_SHARP("50% Sharp");
 
     public final String text;
 
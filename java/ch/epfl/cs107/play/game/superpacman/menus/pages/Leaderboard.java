@@ -17,6 +17,7 @@ import ch.epfl.cs107.play.window.Canvas;
 import ch.epfl.cs107.play.window.Window;
 
 import java.awt.*;
+import java.util.List;
 
 public class Leaderboard extends Menu {
     private static final float CENTER_X_OFFSET = -45;
@@ -69,17 +70,17 @@ public class Leaderboard extends Menu {
         subTitle.draw(canvas);
 
         // LeaderBoard table
-        LeaderboardGameScores leaderboardGameScores = SuperPacman.getLeaderboardScores();
-        String[][] leaderboardTable = new String[leaderboardGameScores.getSortedGameScores().size() + 1][5];
+        List<GameScore> sortedGameScores = SuperPacman.getLeaderboardScores().getSortedGameScores();
+        String[][] leaderboardTable = new String[sortedGameScores.size() + 1][5];
         leaderboardTable[0][0] = "Pos";
         leaderboardTable[0][1] = "Player";
         leaderboardTable[0][2] = "Score";
         leaderboardTable[0][3] = "Deaths";
         leaderboardTable[0][4] = "Time";
         boolean isTableEmpty = true;
-        for (int i = 1; i < leaderboardTable.length && i < 11; ++i) {
+        for (int i = 1; i < leaderboardTable.length && i <= LeaderboardGameScores.TOP_K; ++i) {
             isTableEmpty = false;
-            GameScore gameScore = leaderboardGameScores.getSortedGameScores().get(i - 1);
+            GameScore gameScore = sortedGameScores.get(i - 1);
             leaderboardTable[i][0] = String.valueOf(i);
             leaderboardTable[i][1] = gameScore.getPlayerName();
             leaderboardTable[i][2] = String.valueOf(gameScore.getScore());
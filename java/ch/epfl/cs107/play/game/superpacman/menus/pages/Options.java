@@ -13,15 +13,15 @@ import ch.epfl.cs107.play.game.superpacman.globalenums.SuperPacmanDifficulty;
 import ch.epfl.cs107.play.game.superpacman.menus.Menu;
 import ch.epfl.cs107.play.game.superpacman.menus.MenuStateManager;
 import ch.epfl.cs107.play.game.superpacman.menus.Option;
+import ch.epfl.cs107.play.game.superpacman.menus.Settings;
 import ch.epfl.cs107.play.game.superpacman.menus.SubOption;
 import ch.epfl.cs107.play.window.Canvas;
 import ch.epfl.cs107.play.window.Window;
 
-import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 
-public class Options extends Menu implements Serializable {
+public class Options extends Menu {
     private static final float TEXT_PADDING = -5;
     private static final float HEADER_PADDING = 0;
     private final TextGraphics title;
@@ -31,6 +31,7 @@ public class Options extends Menu implements Serializable {
     private final TextGraphics performanceSubTitle;
     private final TextGraphics sound;
     private final TextGraphics glow;
+    private final TextGraphics renderScale;
     private final TextGraphics cameraSmoothing;
     private final TextGraphics cameraShake;
     private final TextGraphics resetSubTitle;
@@ -51,6 +52,7 @@ public class Options extends Menu implements Serializable {
         performanceSubTitle = createText(SUB_HEADER_FONT_SIZE);
         sound = createText(BODY_FONT_SIZE);
         glow = createText(BODY_FONT_SIZE);
+        renderScale = createText(BODY_FONT_SIZE);
         cameraSmoothing = createText(BODY_FONT_SIZE);
         cameraShake = createText(BODY_FONT_SIZE);
         resetSubTitle = createText(SUB_HEADER_FONT_SIZE);
@@ -58,16 +60,25 @@ public class Options extends Menu implements Serializable {
         restoreDefault = createText(BODY_FONT_SIZE);
         back = createText(BODY_FONT_SIZE);
 
-        // Reset setting
-        SuperPacmanDifficulty defaultDifficulty =
+        // Saved settings, the first SubOption of each list is the default
+        for (Option option : getSubOptionList().keySet()) {
+            SubOption savedSubOption = Settings.isStored(option) ? Settings.get(option) : null;
+            if (savedSubOption != null) {
+                setOptionSubSelection(option, savedSubOption);
+            }
+        }
+
+        // Apply settings
+        SuperPacmanDifficulty difficulty =
                 SuperPacmanDifficulty.getDifficulty(getOptionSubSelection(Option.DIFFICULTY));
-        SuperPacmanAreaBehavior.setInitDifficulty(defaultDifficulty);
-        MenuStateManager.setSoundDeactivated(false);
-        MenuStateManager.setGlowDeactivated(false);
+        SuperPacmanAreaBehavior.setInitDifficulty(difficulty);
+        MenuStateManager.setSoundDeactivated(!getOptionLogic(Option.SOUND));
+        MenuStateManager.setGlowOption(getOptionSubSelection(Option.GLOW));
+        MenuStateManager.setRenderScaleOption(getOptionSubSelection(Option.RENDER_SCALE));
         MenuStateManager.setCameraSmoothingOption(getOptionSubSelection(Option.CAMERA_SMOOTHING));
         MenuStateManager.setCameraChangeRequest(true);
-        MenuStateManager.setCameraShakeDeactivated(false);
-        MenuStateManager.setShowFps(false);
+        MenuStateManager.setCameraShakeDeactivated(!getOptionLogic(Option.CAMERA_SHAKE));
+        MenuStateManager.setShowFps(getOptionLogic(Option.FPS));
     }
 
     @Override
@@ -81,6 +92,7 @@ public class Options extends Menu implements Serializable {
         getOptionList().add(Option.FPS);
         getOptionList().add(Option.SOUND);
         getOptionList().add(Option.GLOW);
+        getOptionList().add(Option.RENDER_SCALE);
         getOptionList().add(Option.CAMERA_SMOOTHING);
         getOptionList().add(Option.CAMERA_SHAKE);
         getOptionList().add(Option.CLEAR_LEADERBOARD);
@@ -93,11 +105,21 @@ public class Options extends Menu implements Serializable {
         getSubOptionList().put(Option.DIFFICULTY, new ArrayList<>(Arrays.asList(SubOption.DIFFICULTY_NORMAL, SubOption.DIFFICULTY_HARD, SubOption.DIFFICULTY_IMPOSSIBLE,SubOption.DIFFICULTY_EASY)));
         getSubOptionList().put(Option.FPS, new ArrayList<>(Arrays.asList(SubOption.TOGGLE_OFF, SubOption.TOGGLE_ON)));
         getSubOptionList().put(Option.SOUND, new ArrayList<>(Arrays.asList(SubOption.TOGGLE_ON, SubOption.TOGGLE_OFF)));
-        getSubOptionList().put(Option.GLOW, new ArrayList<>(Arrays.asList(SubOption.TOGGLE_ON, SubOption.TOGGLE_OFF)));
+        getSubOptionList().put(Option.GLOW, new ArrayList<>(Arrays.asList(SubOption.TOGGLE_ON, SubOption.GLOW_LOW, SubOption.TOGGLE_OFF)));
+        getSubOptionList().put(Option.RENDER_SCALE, new ArrayList<>(Arrays.asList(SubOption.RENDER_SCALE_FULL, SubOption.RENDER_SCALE_THREE_QUARTERS, SubOption.RENDER_SCALE_HALF, SubOption.RENDER_SCALE_HALF_SHARP)));
         getSubOptionList().put(Option.CAMERA_SMOOTHING, new ArrayList<>(Arrays.asList(SubOption.CAMERA_SMOOTH, SubOption.CAMERA_VERY_SMOOTH, SubOption.CAMERA_NO_SMOOTH)));
         getSubOptionList().put(Option.CAMERA_SHAKE, new ArrayList<>(Arrays.asList(SubOption.TOGGLE_ON, SubOption.TOGGLE_OFF)));
     }
 
+    @Override
+    protected void updateSubSelection() {
+        super.updateSubSelection();
+        // Write through the settings store, saved when leaving the menu
+        if (Settings.isStored(getCurrentSelection())) {
+            Settings.set(getCurrentSelection(), getCurrentSubSelection());
+        }
+    }
+
     @Override
     public void draw(Canvas canvas) {
         super.draw(canvas);
@@ -144,6 +166,12 @@ public class Options extends Menu implements Serializable {
         glow.draw(canvas);
         ++paddingCount;
 
+        // Render scale options text
+        updateText(renderScale, Option.RENDER_SCALE.text + ": " + getSubOptionText(Option.RENDER_SCALE), 0,
+                   centerYOffset + TEXT_PADDING * paddingCount + HEADER_PADDING);
+        renderScale.draw(canvas);
+        ++paddingCount;
+
         // Camera shake options text
         updateText(cameraSmoothing, Option.CAMERA_SMOOTHING.text + ": " + getSubOptionText(Option.CAMERA_SMOOTHING), 0,
                    centerYOffset + TEXT_PADDING * paddingCount + HEADER_PADDING);
@@ -0,0 +1,210 @@
+package ch.epfl.cs107.play.io;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Background writer used by Serialization: file operations are queued by name and applied on
+ * a single daemon thread. Repeated operations on the same name coalesce into a single one
+ */
+final class AsyncFileWriter implements Runnable {
+
+    private enum Kind {WRITE, APPEND, DELETE}
+
+    private final File directory;
+    /// Pending operations by file name, in submission order
+    private final Map<String, PendingOperation> pendingOperations = new LinkedHashMap<>();
+    /// True while an operation taken from the queue is applied
+    private boolean applying = false;
+    /// True once the writer thread ended, nothing is applied anymore
+    private boolean stopped = false;
+
+    /**
+     * Constructor for AsyncFileWriter, starts the writer thread
+     * @param directory (File): directory of the written files, not null
+     */
+    AsyncFileWriter(File directory) {
+        if (directory == null) {
+            throw new NullPointerException();
+        }
+        this.directory = directory;
+        Thread thread = new Thread(this, "Serialization writer");
+        thread.setDaemon(true);
+        thread.start();
+        // Do not lose the pending saves when the game exits
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush));
+    }
+
+    /**
+     * Queue the full replacement of a file, overriding any pending operation on it
+     * @param fileName (String): name of the file, not null
+     * @param data     (byte[]): the new content, not null
+     */
+    synchronized void write(String fileName, byte[] data) {
+        pendingOperations.put(fileName, new PendingOperation(Kind.WRITE, data));
+        notifyAll();
+    }
+
+    /**
+     * Queue bytes to append to a file, merged with the pending operation on it if any
+     * @param fileName (String): name of the file, not null
+     * @param data     (byte[]): the bytes to append, not null
+     */
+    synchronized void append(String fileName, byte[] data) {
+        PendingOperation pending = pendingOperations.get(fileName);
+        if (pending == null) {
+            pendingOperations.put(fileName, new PendingOperation(Kind.APPEND, data));
+        } else if (pending.kind == Kind.DELETE) {
+            // The file is created again with only these bytes
+            pendingOperations.put(fileName, new PendingOperation(Kind.WRITE, data));
+        } else {
+            byte[] merged = new byte[pending.data.length + data.length];
+            System.arraycopy(pending.data, 0, merged, 0, pending.data.length);
+            System.arraycopy(data, 0, merged, pending.data.length, data.length);
+            pending.data = merged;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Queue the deletion of a file, overriding any pending operation on it
+     * @param fileName (String): name of the file, not null
+     */
+    synchronized void delete(String fileName) {
+        pendingOperations.put(fileName, new PendingOperation(Kind.DELETE, null));
+        notifyAll();
+    }
+
+    /**
+     * Block until every queued operation is applied, or until the writer thread ended
+     */
+    synchronized void flush() {
+        while ((!pendingOperations.isEmpty() || applying) && !stopped) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            applyPendingOperations();
+        } finally {
+            // Do not let flush wait forever for a thread that died
+            synchronized (this) {
+                stopped = true;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Apply the queued operations one by one, as they come
+     */
+    private void applyPendingOperations() {
+        while (true) {
+            String fileName;
+            PendingOperation operation;
+            synchronized (this) {
+                while (pendingOperations.isEmpty()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                Iterator<Map.Entry<String, PendingOperation>> iterator = pendingOperations.entrySet().iterator();
+                Map.Entry<String, PendingOperation> next = iterator.next();
+                iterator.remove();
+                fileName = next.getKey();
+                operation = next.getValue();
+                applying = true;
+            }
+            try {
+                apply(fileName, operation);
+            } finally {
+                synchronized (this) {
+                    applying = false;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply an operation on the disk
+     * @param fileName  (String): name of the file, not null
+     * @param operation (PendingOperation): the operation to apply, not null
+     */
+    private void apply(String fileName, PendingOperation operation) {
+        File file = new File(directory, fileName);
+        try {
+            switch (operation.kind) {
+                case WRITE:
+                    directory.mkdirs();
+                    // Write aside then rename, a crash never leaves a half written file
+                    File tmpFile = new File(directory, fileName + ".tmp");
+                    writeSynced(tmpFile, operation.data, false);
+                    try {
+                        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                                   StandardCopyOption.ATOMIC_MOVE);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    System.out.println("Successfully saved " + fileName + " in /" + directory.getPath());
+                    break;
+                case APPEND:
+                    directory.mkdirs();
+                    writeSynced(file, operation.data, true);
+                    break;
+                case DELETE:
+                    Files.deleteIfExists(file.toPath());
+                    break;
+                default:
+                    // empty on purpose, do nothing
+            }
+        } catch (IOException | RuntimeException i) {
+            // Only this operation is lost, the following ones are still applied
+            System.out.println("An ERROR occurred while saving " + fileName + "...");
+            i.printStackTrace();
+        }
+    }
+
+    /**
+     * Write bytes into a file and force them to the disk
+     * @param file   (File): the destination file, not null
+     * @param data   (byte[]): the bytes to write, not null
+     * @param append (boolean): true to append at the end of the file instead of replacing it
+     * @throws IOException if the file cannot be written
+     */
+    private static void writeSynced(File file, byte[] data, boolean append) throws IOException {
+        try (FileOutputStream fileOut = new FileOutputStream(file, append)) {
+            fileOut.write(data);
+            fileOut.getFD().sync();
+        }
+    }
+
+    /**
+     * Operation waiting to be applied on a file
+     */
+    private static final class PendingOperation {
+        private final Kind kind;
+        private byte[] data;
+
+        private PendingOperation(Kind kind, byte[] data) {
+            this.kind = kind;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package ch.epfl.cs107.play.io;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read-only implementation of file system, providing access to a packed resource archive.
+ * The archive is memory-mapped and its entries are served as zero-copy ByteBuffer slices.
+ * Archive layout: magic, version, entry count, index sorted by name (name, offset, length), data
+ */
+public class PackedFileSystem implements FileSystem {
+
+    /// Default archive name, built from res/ by the main method
+    public static final String DEFAULT_ARCHIVE = "res.pak";
+    private static final int MAGIC = 0x43535041; // "CSPA"
+    private static final short VERSION = 1;
+
+    private final FileSystem fallback;
+    /// Whole archive, mapped or read into memory
+    private final ByteBuffer archive;
+    /// Sorted entry names with their offset (from the start of the data) and length
+    private final String[] names;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final int dataStart;
+
+    /**
+     * Creates a new packed file system.
+     * @param fallback (FileSystem): secondary file system used for missing entries, not null
+     * @param archiveFile (File): packed archive, not null
+     * @throws IOException if the archive cannot be read or is not a valid archive
+     */
+    public PackedFileSystem(FileSystem fallback, File archiveFile) throws IOException {
+        if (fallback == null || archiveFile == null)
+            throw new NullPointerException();
+        this.fallback = fallback;
+        this.archive = open(archiveFile);
+
+        if (archive.getInt() != MAGIC || archive.getShort() != VERSION)
+            throw new IOException(archiveFile + " is not a supported resource archive");
+        int count = archive.getInt();
+        names = new String[count];
+        offsets = new int[count];
+        lengths = new int[count];
+        for (int i = 0; i < count; ++i) {
+            byte[] name = new byte[archive.getShort() & 0xFFFF];
+            archive.get(name);
+            names[i] = new String(name, StandardCharsets.UTF_8);
+            offsets[i] = archive.getInt();
+            lengths[i] = archive.getInt();
+        }
+        dataStart = archive.position();
+    }
+
+    /**
+     * Map the archive in memory, or read it whole when mapping is not supported
+     * @param archiveFile (File): packed archive, not null
+     * @return (ByteBuffer): content of the archive, read-only
+     * @throws IOException if the archive cannot be read
+     */
+    private static ByteBuffer open(File archiveFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(archiveFile.toPath(), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (UnsupportedOperationException e) {
+            return ByteBuffer.wrap(Files.readAllBytes(archiveFile.toPath())).asReadOnlyBuffer();
+        }
+    }
+
+    /**
+     * @param name (String): unique identifier, not null
+     * @return (boolean): true if the entry is in the archive
+     */
+    public boolean contains(String name) {
+        return Arrays.binarySearch(names, name) >= 0;
+    }
+
+    /**
+     * Get the content of a file without copying it when it is in the archive.
+     * Preferred to read by the decoders that accept a buffer, read is their stream fallback
+     * @param name (String): unique identifier, not null
+     * @return (ByteBuffer): read-only content, positioned at 0, not null
+     * @throws IOException if the file is neither in the archive nor in the fallback
+     */
+    public ByteBuffer readBuffer(String name) throws IOException {
+        int index = Arrays.binarySearch(names, name);
+        if (index >= 0)
+            return slice(index);
+        try (InputStream input = fallback.read(name)) {
+            return ByteBuffer.wrap(input.readAllBytes()).asReadOnlyBuffer();
+        }
+    }
+
+    /**
+     * @param index (int): index of the entry
+     * @return (ByteBuffer): view on the entry content, not null
+     */
+    private ByteBuffer slice(int index) {
+        ByteBuffer entry = archive.duplicate();
+        entry.position(dataStart + offsets[index]);
+        entry.limit(dataStart + offsets[index] + lengths[index]);
+        return entry.slice();
+    }
+
+    @Override
+    public InputStream read(String name) throws IOException {
+        int index = Arrays.binarySearch(names, name);
+        if (index >= 0)
+            return new ByteBufferInputStream(slice(index));
+        return fallback.read(name);
+    }
+
+    @Override
+    public OutputStream write(String name) throws IOException {
+        return fallback.write(name);
+    }
+
+    /// Archive creation
+
+    /**
+     * Pack all files of a directory into an archive, named by their path relative to the directory.
+     * @param directory (File): the root directory, not null
+     * @param archiveFile (File): the archive to create or overwrite, not null
+     * @throws IOException if a file cannot be read or the archive cannot be written
+     */
+    public static void pack(File directory, File archiveFile) throws IOException {
+        List<String> names = new ArrayList<>();
+        collect(directory, "", names);
+        // Binary search relies on the natural String order
+        names.sort(null);
+
+        List<byte[]> contents = new ArrayList<>();
+        for (String name : names) {
+            contents.add(Files.readAllBytes(new File(directory, name).toPath()));
+        }
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(archiveFile)))) {
+            output.writeInt(MAGIC);
+            output.writeShort(VERSION);
+            output.writeInt(names.size());
+            int offset = 0;
+            for (int i = 0; i < names.size(); ++i) {
+                byte[] name = names.get(i).getBytes(StandardCharsets.UTF_8);
+                output.writeShort(name.length);
+                output.write(name);
+                output.writeInt(offset);
+                output.writeInt(contents.get(i).length);
+                offset += contents.get(i).length;
+            }
+            for (byte[] content : contents) {
+                output.write(content);
+            }
+        }
+    }
+
+    /**
+     * Tell whether the archive misses changes of its source directory, i.e. whether a file or a directory
+     * (changed when an entry is added, removed or renamed) was modified after the archive
+     * @param directory (File): the root directory, not null
+     * @param archiveFile (File): the archive, not null
+     * @return (boolean): true if the archive does not exist or is older than the directory content
+     */
+    public static boolean isStale(File directory, File archiveFile) {
+        return !archiveFile.isFile() || lastModified(directory) > archiveFile.lastModified();
+    }
+
+    /**
+     * @param file (File): a file or directory, not null
+     * @return (long): latest modification time of the file, or of the directory and its content
+     */
+    private static long lastModified(File file) {
+        long lastModified = file.lastModified();
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files)
+                lastModified = Math.max(lastModified, lastModified(child));
+        }
+        return lastModified;
+    }
+
+    /**
+     * Recursively list the files of a directory
+     * @param directory (File): current directory, not null
+     * @param prefix (String): path of the directory relative to the root, not null
+     * @param names (List of String): destination list of relative paths, not null
+     */
+    private static void collect(File directory, String prefix, List<String> names) {
+        File[] files = directory.listFiles();
+        if (files == null)
+            return;
+        for (File file : files) {
+            if (file.isDirectory())
+                collect(file, prefix + file.getName() + "/", names);
+            else
+                names.add(prefix + file.getName());
+        }
+    }
+
+    /**
+     * Build the resource archive.
+     * @param args (Array of String): source directory and archive name, res/ and DEFAULT_ARCHIVE by default
+     */
+    public static void main(String[] args) {
+        File directory = new File(args.length > 0 ? args[0] : "res");
+        File archiveFile = new File(args.length > 1 ? args[1] : DEFAULT_ARCHIVE);
+        try {
+            pack(directory, archiveFile);
+            System.out.println("Packed " + directory + " into " + archiveFile);
+        } catch (IOException e) {
+            System.out.println("An ERROR occurred while packing " + directory + "...");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Stream over a ByteBuffer, used to serve archive entries to stream based readers
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0)
+                return 0;
+            if (!buffer.hasRemaining())
+                return -1;
+            length = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, length);
+            return length;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -8,57 +8,66 @@
 package ch.epfl.cs107.play.io;
 
 import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * Saves are written to /tmp by a background thread, and loads are served from a read-through cache
+ */
 public final class Serialization {
     private static final String WORKING_DIR = "tmp";
+    private static final AsyncFileWriter writer = new AsyncFileWriter(new File(WORKING_DIR));
+    // File contents by name, a (null) content means that the file does not exist
+    private static final Map<String, byte[]> cache = new HashMap<>();
 
     private Serialization() {
         throw new IllegalStateException("Serialization class");
     }
 
     /**
-     * Method to serialize Object into /tmp
-     * @param serializableObject the Object to serialize
-     * @param fileOutName        the new .ser filename
+     * Method to replace the content of a file in /tmp with raw bytes, the file is written in the background
+     * @param data        the new content
+     * @param fileOutName the filename to write
      */
-    public static void serialize(Object serializableObject, String fileOutName) {
-        try {
-            File directory = new File(WORKING_DIR);
-            File file = new File(directory, fileOutName);
-            file.getParentFile().mkdirs();
-            file.createNewFile();
-            ObjectOutputStream fileOut = new ObjectOutputStream(new FileOutputStream(file));
-            fileOut.writeObject(serializableObject);
-            fileOut.close();
-            System.out.println("Successfully saved " + fileOutName + " in /" + WORKING_DIR);
-        } catch (IOException i) {
-            System.out.println("An ERROR occurred while serializing " + fileOutName + "...");
-            i.printStackTrace();
+    public static void write(byte[] data, String fileOutName) {
+        byte[] copy = data.clone();
+        synchronized (cache) {
+            cache.put(fileOutName, copy);
+            writer.write(fileOutName, copy);
         }
     }
 
     /**
-     * Method to read serialized file into an Object
-     * @param fileName the .ser filename that should be read
-     * @return an Object from the .ser file or (null) if any exception happened
+     * Method to append raw bytes at the end of a file in /tmp, creating it if needed
+     * @param data        the bytes to append
+     * @param fileOutName the filename to append to
      */
-    public static Object deserialize(String fileName) {
-        Object object = null;
-        try {
-            File directory = new File(WORKING_DIR);
-            File file = new File(directory, fileName);
-            ObjectInputStream fileIn = new ObjectInputStream(new FileInputStream(file));
-            object = fileIn.readObject();
-            fileIn.close();
-        } catch (FileNotFoundException f) {
-            System.out.println(
-                    f.getLocalizedMessage() + " -> file is not yet saved in /" + WORKING_DIR + ", so created new object for \"" +
-                            fileName.substring(0, fileName.length() - 4) + "\"");
-        } catch (IOException | ClassNotFoundException i) {
-            System.out.println("An ERROR occurred while deserializing \"" + fileName + "\"...");
-            i.printStackTrace();
+    public static void append(byte[] data, String fileOutName) {
+        byte[] copy = data.clone();
+        synchronized (cache) {
+            if (cache.containsKey(fileOutName)) {
+                byte[] cached = cache.get(fileOutName);
+                if (cached == null) {
+                    cache.put(fileOutName, copy);
+                } else {
+                    byte[] merged = new byte[cached.length + copy.length];
+                    System.arraycopy(cached, 0, merged, 0, cached.length);
+                    System.arraycopy(copy, 0, merged, cached.length, copy.length);
+                    cache.put(fileOutName, merged);
+                }
+            }
+            writer.append(fileOutName, copy);
         }
-        return object;
+    }
+
+    /**
+     * Method to read all the bytes of a file in /tmp
+     * @param fileName the filename that should be read
+     * @return the content of the file or (null) if it does not exist or any exception happened
+     */
+    public static byte[] read(String fileName) {
+        byte[] data = readCached(fileName);
+        return data == null ? null : data.clone();
     }
 
     /**
@@ -66,8 +75,45 @@ public final class Serialization {
      * @param fileName the name of the file to be deleted
      */
     public static void delete(String fileName) {
-        File directory = new File(WORKING_DIR);
-        File file = new File(directory, fileName);
-        file.delete();
+        synchronized (cache) {
+            cache.put(fileName, null);
+            writer.delete(fileName);
+        }
+    }
+
+    /**
+     * Method to wait until all the pending saves are written to /tmp
+     */
+    public static void flush() {
+        writer.flush();
+    }
+
+    /**
+     * Method to get the content of a file, only read from the disk on the first access
+     * @param fileName the filename that should be read
+     * @return the cached content, or (null) if the file does not exist or could not be read
+     */
+    private static byte[] readCached(String fileName) {
+        synchronized (cache) {
+            if (cache.containsKey(fileName)) {
+                return cache.get(fileName);
+            }
+            // The disk must be up to date with the pending appends before reading it
+            writer.flush();
+            byte[] data = null;
+            File file = new File(new File(WORKING_DIR), fileName);
+            if (file.exists()) {
+                try (FileInputStream fileIn = new FileInputStream(file)) {
+                    data = fileIn.readAllBytes();
+                } catch (IOException i) {
+                    System.out.println("An ERROR occurred while reading \"" + fileName + "\"...");
+                    i.printStackTrace();
+                    // Not cached, the next access reads the disk again
+                    return null;
+                }
+            }
+            cache.put(fileName, data);
+            return data;
+        }
     }
 }
@@ -43,6 +43,9 @@ public class Node implements Attachable {
         Transform relative = getRelativeTransform();
         if (parent == null)
             return relative;
+        // [modification] - Nodes are usually not moved relatively to their parent, no need to compose
+        if (relative == Transform.I)
+            return parent.getTransform();
         Transform absolute = relative.transformed(parent.getTransform());
         return absolute;
     }
@@ -14,6 +14,18 @@ import ch.epfl.cs107.play.math.Vector;
  */
 public interface Canvas extends Positionable {
 
+    /**
+     * Draws content on a canvas, used to rasterize it offscreen.
+     */
+    @FunctionalInterface
+    interface Painter {
+        /**
+         * Draws the content.
+         * @param canvas (Canvas): target, not null
+         */
+        void paint(Canvas canvas);
+    }
+
     /**
      * Gets image from file system.
      * @param name (String): full name of image, not null
@@ -32,6 +44,67 @@ public interface Canvas extends Positionable {
      */
     void drawImage(Image image, Transform transform, float alpha, float depth);
 
+    /**
+     * Gets a handle on an image from file system, to draw it without looking it up by name.
+     * Images sharing a name share the same pixels, whatever their region of interest.
+     * @param name (String): full name of image, not null
+     * @param roi (RegionOfInterest): region of interest, may be null
+     * @param removeBackground (boolean): which indicate if we need to remove an uniform background
+     * @return (int): the image handle, negative on error
+     */
+    int getImageHandle(String name, RegionOfInterest roi, boolean removeBackground);
+
+    /** Color of the pixels replaced by the tint of a tinted image, e.g. in a greyscale mask sheet */
+    int TINT_MASK = 0x808080;
+
+    /**
+     * Gets a handle on a tinted copy of an image: its pixels of the TINT_MASK color take the tint color, keeping their alpha.
+     * The copy is made on first use and shared by all the users of the same image, region and tint.
+     * @param name (String): full name of image, not null
+     * @param roi (RegionOfInterest): region of interest, may be null
+     * @param removeBackground (boolean): which indicate if we need to remove an uniform background
+     * @param tint (Color): color replacing the mask color, its alpha is ignored, null for the image as is
+     * @return (int): the image handle, negative on error
+     */
+    int getImageHandle(String name, RegionOfInterest roi, boolean removeBackground, Color tint);
+
+    /**
+     * Draws the image of specified handle.
+     * @param handle (int): any handle given by getImageHandle, nothing is drawn if negative
+     * @param transform (Transform): any affine transform, not null
+     * @param alpha (float): transparency, between 0.0 and 1.0
+     * @param depth (float): any real, larger values are drawn afterward, i.e. above
+     */
+    void drawImage(int handle, Transform transform, float alpha, float depth);
+
+    /**
+     * Draws the image of specified handle, with the transform given by its coefficients (see Transform).
+     * Unlike the other drawing methods, no object is needed per call.
+     * @param handle (int): any handle given by getImageHandle, nothing is drawn if negative
+     * @param m00 (float): transform coefficient
+     * @param m01 (float): transform coefficient
+     * @param m02 (float): transform coefficient
+     * @param m10 (float): transform coefficient
+     * @param m11 (float): transform coefficient
+     * @param m12 (float): transform coefficient
+     * @param alpha (float): transparency, between 0.0 and 1.0
+     * @param depth (float): any real, larger values are drawn afterward, i.e. above
+     */
+    void drawImage(int handle, float m00, float m01, float m02, float m10, float m11, float m12, float alpha, float depth);
+
+    /** Number of floats per instance of an image batch: x, y, width, height and alpha */
+    int BATCH_STRIDE = 5;
+
+    /**
+     * Draws many instances of the same image at the same depth, submitted and rendered as a single item.
+     * @param handle (int): any handle given by getImageHandle, nothing is drawn if negative
+     * @param instances (Array of float): BATCH_STRIDE floats per instance, the world position of its bottom left corner,
+     *                  its world size and its transparency. Copied, so it can be reused right away, not null
+     * @param count (int): number of instances
+     * @param depth (float): any real, larger values are drawn afterward, i.e. above
+     */
+    void drawImageBatch(int handle, float[] instances, int count, float depth);
+
     /**
      * Draws specified image
      * @param shape (Shape): any shape, may be null
@@ -43,7 +116,33 @@ public interface Canvas extends Positionable {
      * @param depth (float): any real, larger values are drawn afterward, i.e. above
      */
     void drawShape(Shape shape, Transform transform, Color fillColor, Color outlineColor, float thickness, float alpha, float depth);
+
+    /**
+     * Draws an emissive spot. The spots of a frame are not drawn one by one, they are all blurred
+     * together into a single glow layer, drawn at the depth of the lowest spot.
+     * @param x (float): world X coordinate of the center
+     * @param y (float): world Y coordinate of the center
+     * @param radius (float): radius of the emissive disc, before the blur
+     * @param color (Color): glow color, not null
+     * @param alpha (float): transparency, between 0.0 and 1.0
+     * @param depth (float): any real, larger values are drawn afterward, i.e. above
+     */
+    void drawGlow(float x, float y, float radius, Color color, float alpha, float depth);
     
+    /**
+     * Rasterizes once what the painter draws into an offscreen image,
+     * which can then be drawn back with drawImage as a single image.
+     * The glows are not part of the pixels, they are kept with the image and blurred again whenever it is drawn
+     * @param painter (Painter): draws the content in world coordinates, not null
+     * @param x (float): left of the covered world region
+     * @param y (float): bottom of the covered world region
+     * @param width (float): width of the covered world region, positive
+     * @param height (float): height of the covered world region, positive
+     * @param pixelsPerUnit (int): resolution of the image, in pixel per world unit, positive
+     * @return an image object, null if the region cannot be rasterized
+     */
+    Image rasterize(Painter painter, float x, float y, float width, float height, int pixelsPerUnit);
+
     /**
      * Register all the font in a directory
      * @param directoryName (String): the name of the directory
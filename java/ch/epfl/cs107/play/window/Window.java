@@ -28,4 +28,47 @@ public interface Window extends Canvas, Audio, Attachable {
     
     /** Destroys and closes the window */
     void dispose();
+
+    /**
+     * Starts a new resource scope, e.g. when entering a new level: the images and sounds used from now on
+     * are pinned in memory, the ones only used before may be evicted when over the memory budget.
+     */
+    default void beginResourceScope() {
+        // Resources are never evicted by default
+    }
+
+    /**
+     * Changes the resolution at which the scene is rendered, before being upscaled to the window size.
+     * The overlay, e.g. the user interface, is always rendered at full resolution
+     * @param scale (float): fraction of the window resolution, 1 for full resolution
+     * @param filtered (boolean): whether the upscale is bilinear, nearest neighbor otherwise
+     * @param overlayDepth (float): the drawables at or above this depth are part of the overlay
+     */
+    default void setRenderScale(float scale, boolean filtered, float overlayDepth) {
+        // Always rendered at full resolution by default
+    }
+
+    /**
+     * Enables or disables the antialiasing of the shapes and text, enabled by default
+     * @param antialiasing (boolean): whether the shapes and text are antialiased
+     */
+    default void setAntialiasing(boolean antialiasing) {
+        // Always antialiased by default
+    }
+
+    /**
+     * Changes the resolution at which the glows are blurred, lower is cheaper but blockier
+     * @param resolution (float): fraction of the default glow resolution, 1 for full resolution
+     */
+    default void setGlowResolution(float resolution) {
+        // Always at full resolution by default
+    }
+
+    /**
+     * @return (float): time in seconds spent rendering the last frame on a dedicated thread,
+     * 0 when the frames are rendered during update
+     */
+    default float getRenderTime() {
+        return 0.0f;
+    }
 }
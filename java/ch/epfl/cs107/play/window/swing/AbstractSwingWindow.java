@@ -0,0 +1,346 @@
+package ch.epfl.cs107.play.window.swing;
+
+import ch.epfl.cs107.play.io.FileSystem;
+import ch.epfl.cs107.play.math.Node;
+import ch.epfl.cs107.play.math.RegionOfInterest;
+import ch.epfl.cs107.play.math.Shape;
+import ch.epfl.cs107.play.math.TextAlign;
+import ch.epfl.cs107.play.math.Transform;
+import ch.epfl.cs107.play.math.Vector;
+import ch.epfl.cs107.play.window.Image;
+import ch.epfl.cs107.play.window.Window;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+
+/**
+ * Drawing and viewport shared by the Java2D windows, on screen or offscreen.
+ * Draw calls are recorded into the draw list given by the window, which renders it with render.
+ * The view covers a unit length along the largest side of the window, centered on the window transform.
+ */
+abstract class AbstractSwingWindow extends Node implements Window {
+
+	// Sheets and their regions, referred to by handle
+	final SpriteAtlas atlas;
+	// Geometry of the shapes, only used by the game thread
+	final ShapeCache shapes;
+	// Scene rendered at reduced resolution, only used by the rendering thread
+	private final SceneBuffer scene;
+	private volatile boolean antialiasing = true;
+	private volatile float glowResolution = 1.0f;
+
+	/**
+	 * Creates a new window content.
+	 * @param fileSystem (FileSystem): source used to load images, not null
+	 * @param imageBudget (long): memory budget of the images not used by the current scope, in bytes, positive
+	 */
+	AbstractSwingWindow(FileSystem fileSystem, long imageBudget) {
+		atlas = new SpriteAtlas(fileSystem, imageBudget);
+		shapes = new ShapeCache();
+		scene = new SceneBuffer();
+	}
+
+	/** @return (DrawList): the draw list recorded by the game thread, not null */
+	abstract DrawList getDrawList();
+
+	/** @return (boolean): false if drawing does nothing, e.g. for a window only measuring the simulation */
+	boolean isRenderEnabled() {
+		return true;
+	}
+
+	/// Viewport
+
+	/**
+	 * @param width (int): width in pixel of the window
+	 * @param height (int): height in pixel of the window
+	 * @return (float): width of the view, 1 unless the window is taller than wide
+	 */
+	static float getViewWidth(int width, int height) {
+		return width > height ? 1.0f : (float) width / (float) height;
+	}
+
+	/**
+	 * @param width (int): width in pixel of the window
+	 * @param height (int): height in pixel of the window
+	 * @return (float): height of the view, 1 unless the window is wider than tall
+	 */
+	static float getViewHeight(int width, int height) {
+		return width > height ? (float) height / (float) width : 1.0f;
+	}
+
+	/**
+	 * Converts a pixel location of the window into world coordinates, from the current view.
+	 * @param x (float): X coordinate in pixel, from the left
+	 * @param y (float): Y coordinate in pixel, from the top
+	 * @return (Vector): the world location, not null
+	 */
+	final Vector pixelToWorld(float x, float y) {
+		final int width = getWidth();
+		final int height = getHeight();
+		final float viewX = (x - 0.5f * width) * getViewWidth(width, height) / width;
+		final float viewY = (y - 0.5f * height) * -getViewHeight(width, height) / height;
+		return getTransform().onPoint(viewX, viewY);
+	}
+
+	/**
+	 * Converts world coordinates into a pixel location of the window, from the current view.
+	 * @param coord (Vector): the world location, not null
+	 * @return (Vector): the pixel location, from the top left corner, not null
+	 */
+	final Vector worldToPixel(Vector coord) {
+		final int width = getWidth();
+		final int height = getHeight();
+		final Vector pointInView = getTransform().inverted().onPoint(coord.x, coord.y);
+		return new Vector(pointInView.x / (getViewWidth(width, height) / width) + 0.5f * width,
+						  pointInView.y / (-getViewHeight(width, height) / height) + 0.5f * height);
+	}
+
+	/**
+	 * Renders a draw list, from the view it was recorded from.
+	 * @param graphics (Graphics2D): destination context, without transform, not null
+	 * @param frame (DrawList): the draw list, not null
+	 * @param width (int): width in pixel of the destination
+	 * @param height (int): height in pixel of the destination
+	 * @param background (Color): color of the background, not null
+	 */
+	final void render(Graphics2D graphics, DrawList frame, int width, int height, Color background) {
+		// Compute viewport metrics
+		final float halfX = getViewWidth(width, height);
+		final float halfY = getViewHeight(width, height);
+		final Transform viewToWorld = frame.viewToWorld;
+		final Transform worldToView = viewToWorld.inverted();
+		final Transform projection = new Transform(width / halfX, 0.0f, 0.5f * width, 0.0f, -height / halfY, 0.5f * height);
+		final Transform transform = worldToView.transformed(projection);
+
+		// Clear background
+		graphics.setColor(background);
+		graphics.fillRect(0, 0, width, height);
+
+		// Enable anti-aliasing, unless lowered for performance
+		graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+								  antialiasing ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+		graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+								  antialiasing ? RenderingHints.VALUE_TEXT_ANTIALIAS_ON : RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+
+		// Set view transform
+		final AffineTransform affine = new AffineTransform(transform.m00, transform.m10, transform.m01,
+				transform.m11, transform.m02, transform.m12);
+
+		// Composite the glow spots as one layer
+		if (!frame.bloom.isEmpty()) {
+			final Vector min = viewToWorld.onPoint(-0.5f * halfX, -0.5f * halfY);
+			final Vector max = viewToWorld.onPoint(0.5f * halfX, 0.5f * halfY);
+			final float minX = Math.min(min.x, max.x);
+			final float minY = Math.min(min.y, max.y);
+			final float worldWidth = Math.abs(max.x - min.x);
+			final float worldHeight = Math.abs(max.y - min.y);
+			final SwingImage glow = frame.bloom.render(minX, minY, worldWidth, worldHeight,
+													   scene.getSceneSize(width), scene.getSceneSize(height), glowResolution);
+			if (glow != null)
+				frame.items.addImage(glow, worldWidth, 0.0f, minX, 0.0f, worldHeight, minY, 1.0f, frame.bloom.getDepth());
+		}
+
+		// Render ordered drawable, the scene possibly at reduced resolution
+		frame.items.sort();
+		scene.render(graphics, frame.items, affine, width, height, background);
+
+		// Between two frames, no accelerated copy is flushed while being drawn
+		ImageAcceleration.applyReleases();
+	}
+
+	/**
+	 * Releases the rendering buffers.
+	 */
+	void disposeRendering() {
+		scene.dispose();
+	}
+
+	@Override
+	public void setRenderScale(float scale, boolean filtered, float overlayDepth) {
+		scene.set(scale, filtered, overlayDepth);
+	}
+
+	@Override
+	public void setAntialiasing(boolean antialiasing) {
+		this.antialiasing = antialiasing;
+	}
+
+	@Override
+	public void setGlowResolution(float resolution) {
+		glowResolution = resolution;
+	}
+
+	/// AbstractSwingWindow implements Canvas
+
+	@Override
+	public SwingImage getImage(String name, RegionOfInterest roi, boolean removeBackground) {
+		return atlas.get(getImageHandle(name, roi, removeBackground));
+	}
+
+	@Override
+	public int getImageHandle(String name, RegionOfInterest roi, boolean removeBackground) {
+		return getImageHandle(name, roi, removeBackground, null);
+	}
+
+	@Override
+	public int getImageHandle(String name, RegionOfInterest roi, boolean removeBackground, Color tint) {
+		if (name == null)
+			throw new NullPointerException();
+		return atlas.register(name, roi, removeBackground, tint);
+	}
+
+	@Override
+	public void drawImage(Image image, Transform transform, float alpha, float depth) {
+		if (transform == null)
+			throw new NullPointerException();
+		if (!isRenderEnabled() || image == null || alpha <= 0.0f)
+			return;
+		final SwingImage swingImage = (SwingImage) image;
+		final DrawList drawList = getDrawList();
+		drawList.items.addImage(swingImage, transform.m00, transform.m01, transform.m02, transform.m10, transform.m11, transform.m12, alpha, depth);
+		// Glows of rasterized content are blurred again every frame
+		if (swingImage.glows != null)
+			swingImage.glows.replay(drawList.bloom::add, transform.m00, transform.m01, transform.m02, transform.m10, transform.m11, transform.m12, alpha);
+	}
+
+	@Override
+	public void drawImage(int handle, Transform transform, float alpha, float depth) {
+		drawImage(atlas.get(handle), transform, alpha, depth);
+	}
+
+	@Override
+	public void drawImage(int handle, float m00, float m01, float m02, float m10, float m11, float m12, float alpha, float depth) {
+		if (!isRenderEnabled() || alpha <= 0.0f)
+			return;
+		SwingImage image = atlas.get(handle);
+		if (image != null)
+			getDrawList().items.addImage(image, m00, m01, m02, m10, m11, m12, alpha, depth);
+	}
+
+	@Override
+	public void drawImageBatch(int handle, float[] instances, int count, float depth) {
+		if (instances == null)
+			throw new NullPointerException();
+		if (!isRenderEnabled() || count <= 0)
+			return;
+		SwingImage image = atlas.get(handle);
+		if (image != null)
+			getDrawList().items.addBatch(image, instances, count, depth);
+	}
+
+	@Override
+	public void drawShape(Shape shape, Transform transform, Color fillColor, Color outlineColor, float thickness, float alpha, float depth) {
+		if (transform == null)
+			throw new NullPointerException();
+		if (!isRenderEnabled() || shape == null || alpha <= 0.0f || (fillColor == null && (outlineColor == null || thickness <= 0.0f)))
+			return;
+		// Reuse the paths and strokes of the previous frames
+		getDrawList().items.add(new ShapeItem(shapes.getPath(shape, transform), fillColor, outlineColor,
+											  outlineColor == null ? null : shapes.getStroke(thickness), alpha, depth));
+	}
+
+	@Override
+	public void drawGlow(float x, float y, float radius, Color color, float alpha, float depth) {
+		if (color == null)
+			throw new NullPointerException();
+		if (!isRenderEnabled() || radius <= 0.0f || alpha <= 0.0f)
+			return;
+		getDrawList().bloom.add(x, y, radius, color.getRGB() & 0xFFFFFF, alpha, depth);
+	}
+
+	@Override
+	public SwingImage rasterize(Painter painter, float x, float y, float width, float height, int pixelsPerUnit) {
+		if (painter == null)
+			throw new NullPointerException();
+		final int pixelWidth = (int) Math.ceil(width * pixelsPerUnit);
+		final int pixelHeight = (int) Math.ceil(height * pixelsPerUnit);
+		// Nothing is drawn anyway when rendering is disabled
+		if (!isRenderEnabled() || pixelWidth <= 0 || pixelHeight <= 0)
+			return null;
+
+		// Record the content, then render it once in an optimized image
+		OffscreenCanvas offscreen = new OffscreenCanvas(this, atlas, shapes, x, y, width, height, pixelWidth, pixelHeight);
+		painter.paint(offscreen);
+		final BufferedImage image = SwingImage.createCompatibleImage(pixelWidth, pixelHeight);
+		offscreen.render(image);
+		final SwingImage rasterized = new SwingImage(image);
+		rasterized.glows = offscreen.getGlows();
+		return rasterized;
+	}
+
+	@Override
+	public void registerFonts(String directoryName) {
+		try {
+			ClassLoader loader = AbstractSwingWindow.class.getClassLoader();
+			URL url = loader.getResource(directoryName);
+			String path = new URI(url.toString()).getPath();
+			File directory = new File(path);
+			for(File fontFile : directory.listFiles()) {
+				if (fontFile.isDirectory()) {
+					System.out.println(fontFile.getName());
+//					registerFonts(fontFile.getName());
+				}
+				else {
+					Font font = Font.createFont(Font.TRUETYPE_FONT, fontFile);
+					GraphicsEnvironment.getLocalGraphicsEnvironment().registerFont(font);
+				}
+			}
+		}catch(Exception e) {
+			//Empty on purpose
+			e.printStackTrace();
+		}
+	}
+
+	@Override
+	public void drawText(String text, float fontSize, Transform transform, Color fillColor, Color outlineColor, float thickness, String fontName,
+			boolean bold, boolean italics, Vector anchor, TextAlign.Horizontal hAlign, TextAlign.Vertical vAlign, float alpha, float depth) {
+		if (transform == null)
+			throw new NullPointerException();
+		if (!isRenderEnabled() || text == null || fontSize <= 0.0f || alpha <= 0.0f || (fillColor == null && (outlineColor == null || thickness <= 0.0f)))
+			return;
+
+		getDrawList().items.add(new TextItem(text, fontSize, transform, fillColor, outlineColor, thickness, fontName, bold, italics, anchor, hAlign, vAlign, depth, alpha));
+	}
+
+	@Override
+	public float getXScale() {
+		return getTransform().getX().getX();
+	}
+
+	@Override
+	public float getYScale() {
+		return getTransform().getY().getY();
+	}
+
+	@Override
+    public float getScaledWidth() {
+		 float width = getXScale();
+		 float height = getYScale();
+
+		 float ratio = getWidth()/(float)getHeight();
+		 if(ratio <= 1) {
+			 width = height * ratio;
+		 }
+		 return width;
+	 }
+
+    @Override
+    public float getScaledHeight() {
+    	 float width = getXScale();
+		 float height = getYScale();
+
+		 float ratio = getWidth()/(float)getHeight();
+		 if(ratio > 1) {
+			 height = width / ratio;
+		 }
+		 return height;
+    }
+}
@@ -0,0 +1,106 @@
+package ch.epfl.cs107.play.window.swing;
+
+import ch.epfl.cs107.play.window.Canvas;
+
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.util.Arrays;
+
+/**
+ * Draw many instances of the same image, at the same depth.
+ * Mutable, so that items and their instance arrays can be reused from frame to frame.
+ */
+final class BatchItem implements Item {
+
+    private SwingImage image;
+    /// Instances, see Canvas.drawImageBatch
+    private float[] instances;
+    private int count;
+    private float depth;
+    private final AffineTransform affine;
+
+    /**
+     * Creates a new empty batch item, to be set before rendering.
+     */
+    BatchItem() {
+        instances = new float[0];
+        affine = new AffineTransform();
+    }
+
+    /**
+     * Replaces the content of this item, copying the instances.
+     * @param image (SwingImage): swing image, not null
+     * @param instances (Array of float): Canvas.BATCH_STRIDE floats per instance, not null
+     * @param count (int): number of instances
+     * @param depth (float): associated depth
+     */
+    void set(SwingImage image, float[] instances, int count, float depth) {
+        int length = count * Canvas.BATCH_STRIDE;
+        if (this.instances.length < length)
+            this.instances = new float[length];
+        System.arraycopy(instances, 0, this.instances, 0, length);
+        this.image = image;
+        this.count = count;
+        this.depth = depth;
+    }
+
+    /** Releases the image, the instance array is kept for reuse. */
+    void clear() {
+        image = null;
+        count = 0;
+    }
+
+    /// BatchItem implements Item
+
+    @Override
+    public float getDepth() {
+        return depth;
+    }
+
+    @Override
+    public void render(Graphics2D g) {
+        render(g, RenderQueue.getPixelScale(g));
+    }
+
+    /**
+     * Renders all the instances, changing the mipmap level and the composite only when needed.
+     * @param g (Graphics2D): target context, not null
+     * @param pixelScale (float): number of device pixels per unit of the context
+     */
+    void render(Graphics2D g, float pixelScale) {
+        final Composite composite = g.getComposite();
+        float currentAlpha = 1.0f;
+        int currentLevel = -1;
+        java.awt.Image source = null;
+        float sx = 0.0f;
+        float sy = 0.0f;
+        for (int i = 0, end = count * Canvas.BATCH_STRIDE; i < end; i += Canvas.BATCH_STRIDE) {
+            float x = instances[i];
+            float y = instances[i + 1];
+            float width = instances[i + 2];
+            float height = instances[i + 3];
+            float alpha = Math.min(1.0f, instances[i + 4]);
+            if (alpha <= 0.0f)
+                continue;
+
+            int level = image.getMipmapLevel(pixelScale * Math.abs(width), pixelScale * Math.abs(height));
+            if (level != currentLevel) {
+                SwingImage drawn = image.getMipmap(level);
+                source = ImageAcceleration.select(drawn, g);
+                sx = 1.0f / drawn.image.getWidth();
+                sy = 1.0f / drawn.image.getHeight();
+                currentLevel = level;
+            }
+            if (alpha != currentAlpha) {
+                g.setComposite(alpha >= 1.0f ? composite : AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+                currentAlpha = alpha;
+            }
+            // Note: image space has inverted Y-axis, need to flip vertically
+            affine.setTransform(width * sx, 0.0f, 0.0f, -height * sy, x, y + height);
+            g.drawImage(source, affine, null);
+        }
+        g.setComposite(composite);
+    }
+}
@@ -0,0 +1,215 @@
+package ch.epfl.cs107.play.window.swing;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Post-process rendering all the glow spots of a frame as a single layer.
+ * Spots are drawn as discs into a buffer of reduced resolution, which is blurred once
+ * with a separable gaussian kernel, and then composited over the scene as one image.
+ */
+final class BloomPass {
+
+    /// Default resolution of the buffer, as a fraction of the screen resolution
+    private static final int DOWNSCALE = 4;
+    /// Standard deviation of the blur, in world units
+    private static final float BLUR_SIGMA = 0.35f;
+    private static final int MAX_KERNEL_RADIUS = 24;
+    /// Fixed point precision of the kernel weights
+    private static final int WEIGHT_BITS = 16;
+    /// Spot attributes: x, y, radius, color (raw int bits), alpha
+    private static final int SPOT_SIZE = 5;
+
+    private float[] spots;
+    private int spotCount;
+    private float depth;
+
+    private BufferedImage buffer;
+    private SwingImage image;
+    private int[] pixels;
+    private int[] blurred;
+    private int[] kernel;
+    private float kernelSigma;
+
+    /**
+     * Creates a new empty bloom pass.
+     */
+    BloomPass() {
+        spots = new float[64 * SPOT_SIZE];
+        spotCount = 0;
+        kernel = new int[0];
+    }
+
+    /**
+     * Adds a glow spot to the current frame.
+     * @param x (float): world X coordinate of the center
+     * @param y (float): world Y coordinate of the center
+     * @param radius (float): world radius of the emissive disc, positive
+     * @param rgb (int): color of the glow, as 0xRRGGBB
+     * @param alpha (float): transparency, between 0 (invisible) and 1 (opaque)
+     * @param depth (float): render priority of the glow
+     */
+    void add(float x, float y, float radius, int rgb, float alpha, float depth) {
+        if (spotCount == 0 || depth < this.depth)
+            this.depth = depth;
+        if ((spotCount + 1) * SPOT_SIZE > spots.length)
+            spots = Arrays.copyOf(spots, 2 * spots.length);
+        int offset = spotCount * SPOT_SIZE;
+        spots[offset] = x;
+        spots[offset + 1] = y;
+        spots[offset + 2] = radius;
+        spots[offset + 3] = Float.intBitsToFloat(rgb);
+        spots[offset + 4] = alpha;
+        ++spotCount;
+    }
+
+    /** @return (boolean): true if no spot was added since the last clear */
+    boolean isEmpty() {
+        return spotCount == 0;
+    }
+
+    /** @return (float): depth of the glow layer, the lowest one of the spots */
+    float getDepth() {
+        return depth;
+    }
+
+    /** Removes all the spots of the current frame. */
+    void clear() {
+        spotCount = 0;
+    }
+
+    /**
+     * Renders the spots of the current frame.
+     * @param minX (float): left of the visible world region
+     * @param minY (float): bottom of the visible world region
+     * @param width (float): width of the visible world region, positive
+     * @param height (float): height of the visible world region, positive
+     * @param screenWidth (int): width in pixel of the screen
+     * @param screenHeight (int): height in pixel of the screen
+     * @param resolution (float): fraction of the default buffer resolution, the blur keeps its world size, positive
+     * @return (SwingImage): the glow layer covering the visible region, reused by the next frames, null if empty
+     */
+    SwingImage render(float minX, float minY, float width, float height, int screenWidth, int screenHeight,
+                      float resolution) {
+        int downscale = Math.max(1, Math.round(DOWNSCALE / resolution));
+        int w = Math.max(1, screenWidth / downscale);
+        int h = Math.max(1, screenHeight / downscale);
+        if (spotCount == 0 || width <= 0.0f || height <= 0.0f)
+            return null;
+        if (buffer == null || buffer.getWidth() != w || buffer.getHeight() != h) {
+            buffer = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+            pixels = ((DataBufferInt) buffer.getRaster().getDataBuffer()).getData();
+            blurred = new int[pixels.length];
+            // Redrawn every frame, a derived copy would be stale
+            image = new SwingImage(buffer, true);
+        }
+        Arrays.fill(pixels, 0);
+
+        // Buffer Y-axis points down
+        float sx = w / width;
+        float sy = h / height;
+        for (int i = 0; i < spotCount; ++i) {
+            int offset = i * SPOT_SIZE;
+            drawDisc((spots[offset] - minX) * sx, h - (spots[offset + 1] - minY) * sy, spots[offset + 2] * sx,
+                     Float.floatToRawIntBits(spots[offset + 3]), spots[offset + 4], w, h);
+        }
+
+        updateKernel(BLUR_SIGMA * sx);
+        blur(pixels, blurred, w, h, 1, w);
+        blur(blurred, pixels, h, w, w, 1);
+        return image;
+    }
+
+    /**
+     * Blends a disc of uniform color over the buffer.
+     */
+    private void drawDisc(float cx, float cy, float radius, int rgb, float alpha, int w, int h) {
+        int a = Math.round(Math.min(1.0f, Math.max(0.0f, alpha)) * 255);
+        if (a == 0)
+            return;
+        // Premultiplied source color
+        int r = ((rgb >> 16) & 0xFF) * a / 255;
+        int g = ((rgb >> 8) & 0xFF) * a / 255;
+        int b = (rgb & 0xFF) * a / 255;
+        int minX = Math.max(0, (int) Math.floor(cx - radius));
+        int maxX = Math.min(w - 1, (int) Math.ceil(cx + radius));
+        int minY = Math.max(0, (int) Math.floor(cy - radius));
+        int maxY = Math.min(h - 1, (int) Math.ceil(cy + radius));
+        float radius2 = Math.max(radius * radius, 0.25f);
+        for (int y = minY; y <= maxY; ++y) {
+            float dy = y + 0.5f - cy;
+            for (int x = minX; x <= maxX; ++x) {
+                float dx = x + 0.5f - cx;
+                if (dx * dx + dy * dy > radius2)
+                    continue;
+                int index = y * w + x;
+                int dst = pixels[index];
+                int inverse = 255 - a;
+                int da = a + ((dst >>> 24) * inverse) / 255;
+                int dr = r + (((dst >> 16) & 0xFF) * inverse) / 255;
+                int dg = g + (((dst >> 8) & 0xFF) * inverse) / 255;
+                int db = b + ((dst & 0xFF) * inverse) / 255;
+                pixels[index] = (da << 24) | (dr << 16) | (dg << 8) | db;
+            }
+        }
+    }
+
+    /**
+     * Computes the fixed point gaussian kernel, only when its deviation changes.
+     * @param sigma (float): standard deviation, in buffer pixels
+     */
+    private void updateKernel(float sigma) {
+        if (kernel.length > 0 && sigma == kernelSigma)
+            return;
+        kernelSigma = sigma;
+        int radius = Math.min(MAX_KERNEL_RADIUS, Math.max(1, (int) Math.ceil(3 * sigma)));
+        float[] weights = new float[2 * radius + 1];
+        float sum = 0.0f;
+        for (int i = -radius; i <= radius; ++i) {
+            weights[i + radius] = (float) Math.exp(-(i * i) / (2 * sigma * sigma));
+            sum += weights[i + radius];
+        }
+        kernel = new int[weights.length];
+        int total = 0;
+        for (int i = 0; i < weights.length; ++i) {
+            kernel[i] = (int) (weights[i] / sum * (1 << WEIGHT_BITS));
+            total += kernel[i];
+        }
+        // Exact unit sum, so that the channels cannot overflow
+        kernel[radius] += (1 << WEIGHT_BITS) - total;
+    }
+
+    /**
+     * Blurs the lines of an image along one axis.
+     * @param src (Array of int): source premultiplied pixels, not null
+     * @param dst (Array of int): destination premultiplied pixels, not null
+     * @param length (int): number of pixels along the blurred axis
+     * @param lines (int): number of lines
+     * @param step (int): index offset between two pixels of a line
+     * @param lineStep (int): index offset between two lines
+     */
+    private void blur(int[] src, int[] dst, int length, int lines, int step, int lineStep) {
+        int radius = kernel.length / 2;
+        for (int line = 0; line < lines; ++line) {
+            int start = line * lineStep;
+            for (int i = 0; i < length; ++i) {
+                long a = 0, r = 0, g = 0, b = 0;
+                int from = Math.max(0, i - radius);
+                int to = Math.min(length - 1, i + radius);
+                for (int j = from; j <= to; ++j) {
+                    int pixel = src[start + j * step];
+                    if (pixel == 0)
+                        continue;
+                    int weight = kernel[j - i + radius];
+                    a += (long) (pixel >>> 24) * weight;
+                    r += (long) ((pixel >> 16) & 0xFF) * weight;
+                    g += (long) ((pixel >> 8) & 0xFF) * weight;
+                    b += (long) (pixel & 0xFF) * weight;
+                }
+                dst[start + i * step] = (int) (((a >> WEIGHT_BITS) << 24) | ((r >> WEIGHT_BITS) << 16)
+                        | ((g >> WEIGHT_BITS) << 8) | (b >> WEIGHT_BITS));
+            }
+        }
+    }
+}
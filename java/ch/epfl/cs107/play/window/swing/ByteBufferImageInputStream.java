@@ -0,0 +1,54 @@
+package ch.epfl.cs107.play.window.swing;
+
+import javax.imageio.stream.ImageInputStreamImpl;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Image input stream reading directly from a buffer, e.g. a slice of a memory-mapped archive.
+ * Unlike the streams ImageIO creates for an InputStream, nothing is cached in memory or in a temporary file.
+ */
+final class ByteBufferImageInputStream extends ImageInputStreamImpl {
+
+    private final ByteBuffer buffer;
+
+    /**
+     * Creates a new stream over the content of a buffer.
+     * @param buffer (ByteBuffer): content, from position 0 to its limit, not null
+     */
+    ByteBufferImageInputStream(ByteBuffer buffer) {
+        if (buffer == null)
+            throw new NullPointerException();
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkClosed();
+        bitOffset = 0;
+        if (streamPos >= buffer.limit())
+            return -1;
+        return buffer.get((int) streamPos++) & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        checkClosed();
+        if (offset < 0 || length < 0 || offset + length > bytes.length)
+            throw new IndexOutOfBoundsException();
+        bitOffset = 0;
+        if (length == 0)
+            return 0;
+        if (streamPos >= buffer.limit())
+            return -1;
+        length = (int) Math.min(length, buffer.limit() - streamPos);
+        buffer.get((int) streamPos, bytes, offset, length);
+        streamPos += length;
+        return length;
+    }
+
+    @Override
+    public long length() {
+        return buffer.limit();
+    }
+}
@@ -0,0 +1,23 @@
+package ch.epfl.cs107.play.window.swing;
+
+import ch.epfl.cs107.play.math.Transform;
+
+/**
+ * Content of a frame: the items ordered by depth, the glow spots, and the view they were recorded from.
+ * Reused from frame to frame.
+ */
+final class DrawList {
+
+    final RenderQueue items = new RenderQueue();
+    final BloomPass bloom = new BloomPass();
+    /// View of the update that recorded the content, the frame is drawn from it
+    Transform viewToWorld = Transform.I;
+
+    /**
+     * Removes all the items and spots, the view is kept.
+     */
+    void clear() {
+        items.clear();
+        bloom.clear();
+    }
+}
@@ -0,0 +1,91 @@
+package ch.epfl.cs107.play.window.swing;
+
+import java.util.Arrays;
+
+/**
+ * Glow spots drawn into rasterized content, kept apart from its pixels.
+ * The glows are blurred at screen resolution, so they are added to the frame each time the image is drawn.
+ * Positions are relative to the image, (0, 0) being its bottom left corner and (1, 1) its top right corner.
+ */
+final class GlowSpots {
+
+    /**
+     * Receives glow spots in world coordinates.
+     */
+    @FunctionalInterface
+    interface Target {
+        /**
+         * Adds a glow spot.
+         * @param x (float): world X coordinate of the center
+         * @param y (float): world Y coordinate of the center
+         * @param radius (float): world radius of the emissive disc, positive
+         * @param rgb (int): color of the glow, as 0xRRGGBB
+         * @param alpha (float): transparency, between 0 (invisible) and 1 (opaque)
+         * @param depth (float): render priority of the glow
+         */
+        void add(float x, float y, float radius, int rgb, float alpha, float depth);
+    }
+
+    /// Spot attributes: x, y, radius relative to the image width, color (raw int bits), alpha, depth
+    private static final int SPOT_SIZE = 6;
+
+    private float[] spots;
+    private int spotCount;
+
+    /**
+     * Creates a new empty list of spots.
+     */
+    GlowSpots() {
+        spots = new float[16 * SPOT_SIZE];
+        spotCount = 0;
+    }
+
+    /**
+     * Adds a glow spot, in coordinates relative to the image.
+     * @param x (float): X coordinate of the center, 0 on the left of the image and 1 on its right
+     * @param y (float): Y coordinate of the center, 0 at the bottom of the image and 1 at its top
+     * @param radius (float): radius of the emissive disc, as a fraction of the image width, positive
+     * @param rgb (int): color of the glow, as 0xRRGGBB
+     * @param alpha (float): transparency, between 0 (invisible) and 1 (opaque)
+     * @param depth (float): render priority of the glow
+     */
+    void add(float x, float y, float radius, int rgb, float alpha, float depth) {
+        if ((spotCount + 1) * SPOT_SIZE > spots.length)
+            spots = Arrays.copyOf(spots, 2 * spots.length);
+        int offset = spotCount * SPOT_SIZE;
+        spots[offset] = x;
+        spots[offset + 1] = y;
+        spots[offset + 2] = radius;
+        spots[offset + 3] = Float.intBitsToFloat(rgb);
+        spots[offset + 4] = alpha;
+        spots[offset + 5] = depth;
+        ++spotCount;
+    }
+
+    /** @return (boolean): true if there is no spot */
+    boolean isEmpty() {
+        return spotCount == 0;
+    }
+
+    /**
+     * Adds the spots to a target, placed as the image drawn with the given transform.
+     * @param target (Target): receiver of the spots in world coordinates, not null
+     * @param m00 (float): X-axis of the image, X coordinate
+     * @param m01 (float): Y-axis of the image, X coordinate
+     * @param m02 (float): origin of the image, X coordinate
+     * @param m10 (float): X-axis of the image, Y coordinate
+     * @param m11 (float): Y-axis of the image, Y coordinate
+     * @param m12 (float): origin of the image, Y coordinate
+     * @param alpha (float): transparency of the image, between 0 (invisible) and 1 (opaque)
+     */
+    void replay(Target target, float m00, float m01, float m02, float m10, float m11, float m12, float alpha) {
+        float scale = (float) Math.hypot(m00, m10);
+        for (int i = 0; i < spotCount; ++i) {
+            int offset = i * SPOT_SIZE;
+            float x = spots[offset];
+            float y = spots[offset + 1];
+            target.add(m00 * x + m01 * y + m02, m10 * x + m11 * y + m12, spots[offset + 2] * scale,
+                       Float.floatToRawIntBits(spots[offset + 3]), spots[offset + 4] * alpha, spots[offset + 5]);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package ch.epfl.cs107.play.window.swing;
+
+import ch.epfl.cs107.play.io.FileSystem;
+import ch.epfl.cs107.play.math.Vector;
+import ch.epfl.cs107.play.window.Button;
+import ch.epfl.cs107.play.window.Keyboard;
+import ch.epfl.cs107.play.window.Mouse;
+import ch.epfl.cs107.play.window.Sound;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Window rendering into an offscreen image, without any display, audio device or user input.
+ * Keyboard and mouse are virtual and fed by the program. Sounds are not supported, the ones played are only counted.
+ * Rendering can be disabled, to measure the simulation alone.
+ */
+public final class HeadlessWindow extends AbstractSwingWindow {
+
+	/// Memory budget of the images not used by the current scope, in bytes
+	private static final long IMAGE_BUDGET = 64L << 20;
+
+	// Image stuff
+	private final DrawList drawList;
+	private final BufferedImage frame;
+	private final boolean renderEnabled;
+
+	// Sound stuff
+	private final Map<String, Sound> sounds;
+	private int playedSoundCount;
+
+	// State information
+	private volatile boolean closeRequested;
+	private final Button focus;
+	private final VirtualMouse mouse;
+	private final VirtualKeyboard keyboard;
+	private long frameCount;
+
+	// Define virtual mouse
+	private final class VirtualMouse implements Mouse {
+
+		private int previous = 0;
+		private int current = 0;
+		private int buffer = 0;
+		// Position in pixel in the window, Y-axis pointing down
+		private float pixelX = 0.0f;
+		private float pixelY = 0.0f;
+		private Vector position = Vector.ZERO;
+
+		@Override
+		public Vector getPosition() {
+			return position;
+		}
+
+		@Override
+		public Button getButton(int index) {
+			int mask = 1 << index;
+			return new Button((previous & mask) != 0, (current & mask) != 0);
+		}
+
+		@Override
+		public Vector getVelocity() {
+			return Vector.ZERO;
+		}
+	}
+
+	// Define virtual keyboard
+	private final class VirtualKeyboard implements Keyboard {
+
+		private Set<Integer> previous;
+		private Set<Integer> current;
+		private Set<Integer> buffer;
+		private int lastBufferAdd;
+		private int lastPressed;
+
+		private VirtualKeyboard() {
+			previous = new HashSet<>();
+			current = new HashSet<>();
+			buffer = new HashSet<>();
+			lastBufferAdd = -1;
+			lastPressed = -1;
+		}
+
+		@Override
+		public Button get(int code) {
+			return new Button(previous.contains(code), current.contains(code), code == lastPressed);
+		}
+	}
+
+	// Sound stand-in, only identified by its name
+	private static final class HeadlessSound implements Sound {
+		private final String name;
+
+		private HeadlessSound(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	/**
+	 * Creates a new headless window.
+	 * @param fileSystem (FileSystem): source used to load images, not null
+	 * @param width (int): width in pixel of the rendered frames, positive
+	 * @param height (int): height in pixel of the rendered frames, positive
+	 * @param renderEnabled (boolean): whether the frames are rendered, if false drawing does nothing
+	 */
+	public HeadlessWindow(FileSystem fileSystem, int width, int height, boolean renderEnabled) {
+		// The atlas checks the file system
+		super(fileSystem, IMAGE_BUDGET);
+		if (width <= 0 || height <= 0)
+			throw new IllegalArgumentException("Invalid window size: " + width + "x" + height);
+		drawList = new DrawList();
+		frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		this.renderEnabled = renderEnabled;
+		sounds = new HashMap<>();
+		focus = new Button(true);
+		mouse = new VirtualMouse();
+		keyboard = new VirtualKeyboard();
+	}
+
+	/// Virtual devices, the changes are visible after the next update, as with a real window
+
+	/**
+	 * Presses a key of the virtual keyboard.
+	 * @param code (int): key code, see Keyboard
+	 */
+	public synchronized void pressKey(int code) {
+		keyboard.buffer.add(code);
+		keyboard.lastBufferAdd = code;
+	}
+
+	/**
+	 * Releases a key of the virtual keyboard.
+	 * @param code (int): key code, see Keyboard
+	 */
+	public synchronized void releaseKey(int code) {
+		keyboard.buffer.remove(code);
+		if (code == keyboard.lastBufferAdd)
+			keyboard.lastBufferAdd = -1;
+	}
+
+	/**
+	 * Presses a button of the virtual mouse.
+	 * @param index (int): 0 for left, 1 for middle, 2 for right
+	 */
+	public synchronized void pressMouseButton(int index) {
+		mouse.buffer |= 1 << index;
+	}
+
+	/**
+	 * Releases a button of the virtual mouse.
+	 * @param index (int): 0 for left, 1 for middle, 2 for right
+	 */
+	public synchronized void releaseMouseButton(int index) {
+		mouse.buffer &= ~(1 << index);
+	}
+
+	/**
+	 * Moves the virtual mouse.
+	 * @param x (float): X coordinate in pixel in the window, from the left
+	 * @param y (float): Y coordinate in pixel in the window, from the top
+	 */
+	public synchronized void moveMouse(float x, float y) {
+		mouse.pixelX = x;
+		mouse.pixelY = y;
+	}
+
+	/**
+	 * Requests the window to close, as the close button of a real window.
+	 */
+	public void requestClose() {
+		closeRequested = true;
+	}
+
+	/** @return (BufferedImage): the last rendered frame, black if rendering is disabled */
+	public BufferedImage getFrame() {
+		return frame;
+	}
+
+	/** @return (long): number of updates since creation */
+	public long getFrameCount() {
+		return frameCount;
+	}
+
+	/** @return (int): number of sounds played since creation */
+	public int getPlayedSoundCount() {
+		return playedSoundCount;
+	}
+
+	/// HeadlessWindow implements Window
+
+	@Override
+	public Button getFocus() {
+		return focus;
+	}
+
+	@Override
+	public Mouse getMouse() {
+		return mouse;
+	}
+
+	@Override
+	public Keyboard getKeyboard() {
+		return keyboard;
+	}
+
+	@Override
+	public boolean isCloseRequested() {
+		return closeRequested;
+	}
+
+	@Override
+	public void update() {
+		drawList.viewToWorld = getTransform();
+		if (renderEnabled) {
+			final Graphics2D graphics = frame.createGraphics();
+			render(graphics, drawList, frame.getWidth(), frame.getHeight(), Color.BLACK);
+			graphics.dispose();
+		} else
+			ImageAcceleration.applyReleases();
+		drawList.clear();
+		++frameCount;
+
+		synchronized (this) {
+
+			// Update mouse
+			mouse.position = pixelToWorld(mouse.pixelX, mouse.pixelY);
+			mouse.previous = mouse.current;
+			mouse.current = mouse.buffer;
+
+			// Update keyboard buttons
+			final Set<Integer> tmp = keyboard.previous;
+			keyboard.previous = keyboard.current;
+			keyboard.current = keyboard.buffer;
+			keyboard.lastPressed = keyboard.lastBufferAdd;
+			keyboard.buffer = tmp;
+			keyboard.buffer.clear();
+			keyboard.buffer.addAll(keyboard.current);
+		}
+	}
+
+	@Override
+	public void dispose() {
+		drawList.clear();
+		disposeRendering();
+	}
+
+	@Override
+	public void beginResourceScope() {
+		atlas.beginScope();
+	}
+
+	/**
+	 * Sets the memory budget of the images, the ones used by the current scope are not accounted for.
+	 * @param imageBytes (long): maximal number of bytes of the images, positive
+	 */
+	public void setResourceBudget(long imageBytes) {
+		atlas.setBudget(imageBytes);
+	}
+
+	/** @return (String): human readable image cache statistics */
+	public String getResourceStatistics() {
+		return atlas.getStatistics();
+	}
+
+	/** @return (String): human readable shape cache statistics */
+	public String getShapeStatistics() {
+		return shapes.getStatistics();
+	}
+
+	/// HeadlessWindow implements Canvas
+
+	@Override
+	DrawList getDrawList() {
+		return drawList;
+	}
+
+	@Override
+	boolean isRenderEnabled() {
+		return renderEnabled;
+	}
+
+	@Override
+	public Vector convertPositionOnScreen(Vector coord) {
+		// No screen, the position is given in pixel in the frame
+		return worldToPixel(coord);
+	}
+
+	@Override
+	public int getWidth() {
+		return frame.getWidth();
+	}
+
+	@Override
+	public int getHeight() {
+		return frame.getHeight();
+	}
+
+	/// HeadlessWindow implements Audio
+
+	@Override
+	public Sound getSound(String name) {
+		return sounds.computeIfAbsent(name, HeadlessSound::new);
+	}
+
+	@Override
+	public void playSound(Sound sound, boolean randomFirstStart, float volume, boolean fadeIn, boolean loop, boolean stopOthersOnStart) {
+		// No audio device, sounds are only counted
+		if (sound != null)
+			++playedSoundCount;
+	}
+
+	@Override
+	public boolean isSoundSupported() {
+		// Nothing is heard, the sounds played anyway are counted
+		return false;
+	}
+}
@@ -0,0 +1,177 @@
+package ch.epfl.cs107.play.window.swing;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.Transparency;
+import java.awt.image.VolatileImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Promotes the frequently drawn images to accelerated copies in video memory.
+ * An image drawn on screen more than HOT_DRAW_COUNT times gets a VolatileImage copy, restored
+ * whenever its contents are lost. Images are drawn from their software copy until then,
+ * or when the pipeline does not accelerate translucent volatile images.
+ * The copies are only used and changed by the thread rendering on screen: the releases requested by other threads
+ * are queued, and applied by the render thread once its current frame is done.
+ */
+final class ImageAcceleration {
+
+    /// Number of draws after which an image is promoted
+    private static final int HOT_DRAW_COUNT = 30;
+    /// Budget of video memory used by the copies, in pixels
+    private static final long MAX_ACCELERATED_PIXELS = 16L * 1024 * 1024;
+
+    private static boolean supported = true;
+    private static long acceleratedPixels = 0;
+    /// Images whose copies are released after the current frame, guarded by the class lock
+    private static List<SwingImage> pendingReleases = new ArrayList<>();
+    private static List<SwingImage> releasing = new ArrayList<>();
+    /// Statistics: draws from a copy, draws from software, promotions, restores
+    private static long hits = 0;
+    private static long misses = 0;
+    private static int promotions = 0;
+    private static int restores = 0;
+
+    private ImageAcceleration() {
+        throw new IllegalStateException("ImageAcceleration class");
+    }
+
+    /**
+     * Selects the copy of an image to draw, promoting or restoring its accelerated copy if needed.
+     * Only called by the render thread, for other targets the software image is returned right away
+     * @param image (SwingImage): drawn image, not null
+     * @param g (Graphics2D): target context, not null
+     * @return (java.awt.Image): the accelerated copy when valid, the software image otherwise, not null
+     */
+    static java.awt.Image select(SwingImage image, Graphics2D g) {
+        // Only screen targets benefit from video memory
+        GraphicsConfiguration config = g.getDeviceConfiguration();
+        if (config.getDevice().getType() != GraphicsDevice.TYPE_RASTER_SCREEN)
+            return image.image;
+        if (!supported || !image.accelerable) {
+            ++misses;
+            return image.image;
+        }
+        VolatileImage accelerated = image.accelerated;
+        if (accelerated == null) {
+            if (++image.drawCount < HOT_DRAW_COUNT || !promote(image, config)) {
+                ++misses;
+                return image.image;
+            }
+            accelerated = image.accelerated;
+        }
+
+        switch (accelerated.validate(config)) {
+            case VolatileImage.IMAGE_INCOMPATIBLE:
+                // Display changed, create a new copy on the next draws
+                releaseNow(image);
+                ++misses;
+                return image.image;
+            case VolatileImage.IMAGE_RESTORED:
+                copy(image, accelerated);
+                ++restores;
+                break;
+            default:
+                break;
+        }
+        if (accelerated.contentsLost()) {
+            ++misses;
+            return image.image;
+        }
+        ++hits;
+        return accelerated;
+    }
+
+    /**
+     * Requests the release of the accelerated copies of an image and of its mipmaps, if any.
+     * The image may still be drawn by the frame being rendered, the copies are released after it.
+     * @param image (SwingImage): any image, not null
+     */
+    static synchronized void release(SwingImage image) {
+        pendingReleases.add(image);
+    }
+
+    /**
+     * Applies the requested releases. Called by the render thread between two frames.
+     */
+    static void applyReleases() {
+        synchronized (ImageAcceleration.class) {
+            if (pendingReleases.isEmpty())
+                return;
+            List<SwingImage> requested = pendingReleases;
+            pendingReleases = releasing;
+            releasing = requested;
+        }
+        for (SwingImage image : releasing) {
+            SwingImage[] mipmaps = image.getMipmaps();
+            if (mipmaps != null) {
+                for (SwingImage mipmap : mipmaps) {
+                    if (mipmap != null)
+                        releaseNow(mipmap);
+                }
+            }
+            releaseNow(image);
+        }
+        releasing.clear();
+    }
+
+    /**
+     * Releases the accelerated copy of an image, if any.
+     */
+    private static synchronized void releaseNow(SwingImage image) {
+        if (image.accelerated == null)
+            return;
+        acceleratedPixels -= (long) image.accelerated.getWidth() * image.accelerated.getHeight();
+        image.accelerated.flush();
+        image.accelerated = null;
+        image.drawCount = 0;
+    }
+
+    /** @return (String): human readable acceleration statistics */
+    static synchronized String getStatistics() {
+        long total = hits + misses;
+        return String.format("Image acceleration: %s, %d hits, %d misses (%.1f%% hits), %d images promoted (%d pixels), %d restores",
+                             supported ? "supported" : "not supported", hits, misses, total == 0 ? 0.0 : 100.0 * hits / total,
+                             promotions, acceleratedPixels, restores);
+    }
+
+    /**
+     * Creates the accelerated copy of an image.
+     * @return (boolean): true if the copy was created
+     */
+    private static synchronized boolean promote(SwingImage image, GraphicsConfiguration config) {
+        long pixels = (long) image.image.getWidth() * image.image.getHeight();
+        if (acceleratedPixels + pixels > MAX_ACCELERATED_PIXELS) {
+            // Not hot enough to stay above the budget, never try again
+            image.accelerable = false;
+            return false;
+        }
+        VolatileImage accelerated = config.createCompatibleVolatileImage(image.image.getWidth(), image.image.getHeight(), Transparency.TRANSLUCENT);
+        if (accelerated == null || !accelerated.getCapabilities().isAccelerated()) {
+            // Software fallback for all the images
+            if (accelerated != null)
+                accelerated.flush();
+            supported = false;
+            return false;
+        }
+        image.accelerated = accelerated;
+        acceleratedPixels += pixels;
+        ++promotions;
+        accelerated.validate(config);
+        copy(image, accelerated);
+        return true;
+    }
+
+    /**
+     * Copies the software image into its accelerated copy.
+     */
+    private static void copy(SwingImage image, VolatileImage accelerated) {
+        Graphics2D g = accelerated.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(image.image, 0, 0, null);
+        g.dispose();
+    }
+}
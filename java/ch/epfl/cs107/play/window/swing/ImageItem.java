@@ -13,10 +13,20 @@ import java.awt.image.BufferedImage;
  */
 public final class ImageItem implements Item {
 
-    private final float depth;
-    private final float alpha;
-    private final Transform transform;
-    private final SwingImage image;
+    // [modification] - Mutable, so that items can be reused from frame to frame
+    private float depth;
+    private float alpha;
+    /// Transform coefficients, see Transform
+    private float m00, m01, m02, m10, m11, m12;
+    private SwingImage image;
+    private final AffineTransform affine;
+
+    /**
+     * Creates a new empty image item, to be set before rendering.
+     */
+    ImageItem() {
+        affine = new AffineTransform();
+    }
 
     /**
      * Creates a new image item.
@@ -26,10 +36,32 @@ public final class ImageItem implements Item {
      * @param image (SwingImage): swing image, not null
      */
     public ImageItem(float depth, float alpha, Transform transform, SwingImage image) {
-        this.depth = depth;
-        this.alpha = alpha;
-        this.transform = transform;
+        this();
+        set(image, transform.m00, transform.m01, transform.m02, transform.m10, transform.m11, transform.m12, alpha, depth);
+    }
+
+    /**
+     * Replaces the content of this item.
+     * @param image (SwingImage): swing image, not null
+     * @param m00 (float): transform coefficient, see Transform
+     * @param m01 (float): transform coefficient, see Transform
+     * @param m02 (float): transform coefficient, see Transform
+     * @param m10 (float): transform coefficient, see Transform
+     * @param m11 (float): transform coefficient, see Transform
+     * @param m12 (float): transform coefficient, see Transform
+     * @param alpha (float): transparency, between 0 (invisible) and 1 (opaque)
+     * @param depth (float): associated depth
+     */
+    void set(SwingImage image, float m00, float m01, float m02, float m10, float m11, float m12, float alpha, float depth) {
         this.image = image;
+        this.m00 = m00;
+        this.m01 = m01;
+        this.m02 = m02;
+        this.m10 = m10;
+        this.m11 = m11;
+        this.m12 = m12;
+        this.alpha = alpha;
+        this.depth = depth;
     }
 
     /// ImageItem implements Item
@@ -41,23 +73,40 @@ public final class ImageItem implements Item {
     
     @Override
     public void render(Graphics2D g) {
+        render(g, RenderQueue.getPixelScale(g));
+    }
+
+    /**
+     * Renders this image, from the mipmap level closest to its size on screen.
+     * @param g (Graphics2D): target context, not null
+     * @param pixelScale (float): number of device pixels per unit of the context
+     */
+    void render(Graphics2D g, float pixelScale) {
         if (alpha <= 0.0f)
             return;
+        // [modification] - Images shrunk more than twice are drawn from a smaller copy
+        SwingImage drawn = image.getMipmap(image.getMipmapLevel(
+            pixelScale * (float) Math.hypot(m00, m10),
+            pixelScale * (float) Math.hypot(m01, m11)
+        ));
+
         // Note: image space has inverted Y-axis, need to flip vertically
-        BufferedImage i = image.image;
-        float sx = 1.0f / i.getWidth();
-        float sy = 1.0f / i.getHeight();
-        AffineTransform a = new AffineTransform(
-            transform.m00 * sx, transform.m10 * sx,
-            transform.m01 * sy, -transform.m11 * sy,
-            transform.m02 + transform.m01, transform.m12 + transform.m11
+        BufferedImage source = drawn.image;
+        float sx = 1.0f / source.getWidth();
+        float sy = 1.0f / source.getHeight();
+        affine.setTransform(
+            m00 * sx, m10 * sx,
+            m01 * sy, -m11 * sy,
+            m02 + m01, m12 + m11
         );
+        // [modification] - Hot images are drawn from video memory when supported
+        java.awt.Image i = ImageAcceleration.select(drawn, g);
         if (alpha >= 1.0f)
-            g.drawImage(i, a, null);
+            g.drawImage(i, affine, null);
         else {
             Composite composite = g.getComposite();
             g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
-            g.drawImage(i, a, null);
+            g.drawImage(i, affine, null);
             g.setComposite(composite);
         }
     }
@@ -0,0 +1,234 @@
+package ch.epfl.cs107.play.window.swing;
+
+import ch.epfl.cs107.play.math.RegionOfInterest;
+import ch.epfl.cs107.play.math.Shape;
+import ch.epfl.cs107.play.math.TextAlign;
+import ch.epfl.cs107.play.math.Transform;
+import ch.epfl.cs107.play.math.Vector;
+import ch.epfl.cs107.play.window.Canvas;
+import ch.epfl.cs107.play.window.Image;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * Canvas recording drawables into an offscreen image instead of the screen.
+ * Used to rasterize once content that does not change between frames.
+ */
+final class OffscreenCanvas implements Canvas {
+
+    // Window providing images and fonts
+    private final Canvas owner;
+    // Images of the owner, by handle
+    private final SpriteAtlas atlas;
+    // Geometry of the owner shapes
+    private final ShapeCache shapes;
+    // World region covered by the image
+    private final float x, y, width, height;
+    private final int pixelWidth, pixelHeight;
+    private final RenderQueue items;
+    private final GlowSpots glows;
+
+    /**
+     * Creates a new offscreen canvas.
+     * @param owner (Canvas): window used to load images, not null
+     * @param atlas (SpriteAtlas): images of the window, by handle, not null
+     * @param shapes (ShapeCache): geometry of the window shapes, not null
+     * @param x (float): left of the covered world region
+     * @param y (float): bottom of the covered world region
+     * @param width (float): width of the covered world region, positive
+     * @param height (float): height of the covered world region, positive
+     * @param pixelWidth (int): width in pixel of the image
+     * @param pixelHeight (int): height in pixel of the image
+     */
+    OffscreenCanvas(Canvas owner, SpriteAtlas atlas, ShapeCache shapes, float x, float y, float width, float height, int pixelWidth, int pixelHeight) {
+        if (owner == null || atlas == null || shapes == null)
+            throw new NullPointerException();
+        this.owner = owner;
+        this.atlas = atlas;
+        this.shapes = shapes;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.pixelWidth = pixelWidth;
+        this.pixelHeight = pixelHeight;
+        items = new RenderQueue();
+        glows = new GlowSpots();
+    }
+
+    /** @return (GlowSpots): the glows drawn on this canvas, relative to the image, null if none */
+    GlowSpots getGlows() {
+        return glows.isEmpty() ? null : glows;
+    }
+
+    /**
+     * Render the recorded drawables, ordered by depth.
+     * @param target (BufferedImage): destination image of the canvas size, not null
+     */
+    void render(BufferedImage target) {
+        Graphics2D graphics = target.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        // World to image transform, with the image Y-axis pointing down
+        float sx = pixelWidth / width;
+        float sy = pixelHeight / height;
+        graphics.transform(new AffineTransform(sx, 0.0f, 0.0f, -sy, -x * sx, pixelHeight + y * sy));
+
+        items.sort();
+        items.render(graphics);
+        graphics.dispose();
+        items.clear();
+    }
+
+    /// OffscreenCanvas implements Canvas
+
+    @Override
+    public Image getImage(String name, RegionOfInterest roi, boolean removeBackground) {
+        return owner.getImage(name, roi, removeBackground);
+    }
+
+    @Override
+    public void drawImage(Image image, Transform transform, float alpha, float depth) {
+        if (transform == null)
+            throw new NullPointerException();
+        if (image == null || alpha <= 0.0f)
+            return;
+        final SwingImage swingImage = (SwingImage) image;
+        items.addImage(swingImage, transform.m00, transform.m01, transform.m02, transform.m10, transform.m11, transform.m12, alpha, depth);
+        if (swingImage.glows != null)
+            swingImage.glows.replay(this::addGlow, transform.m00, transform.m01, transform.m02, transform.m10, transform.m11, transform.m12, alpha);
+    }
+
+    @Override
+    public int getImageHandle(String name, RegionOfInterest roi, boolean removeBackground) {
+        return owner.getImageHandle(name, roi, removeBackground);
+    }
+
+    @Override
+    public int getImageHandle(String name, RegionOfInterest roi, boolean removeBackground, Color tint) {
+        return owner.getImageHandle(name, roi, removeBackground, tint);
+    }
+
+    @Override
+    public void drawImage(int handle, Transform transform, float alpha, float depth) {
+        drawImage(atlas.get(handle), transform, alpha, depth);
+    }
+
+    @Override
+    public void drawImage(int handle, float m00, float m01, float m02, float m10, float m11, float m12, float alpha, float depth) {
+        SwingImage image = atlas.get(handle);
+        if (image == null || alpha <= 0.0f)
+            return;
+        items.addImage(image, m00, m01, m02, m10, m11, m12, alpha, depth);
+    }
+
+    @Override
+    public void drawImageBatch(int handle, float[] instances, int count, float depth) {
+        if (instances == null)
+            throw new NullPointerException();
+        SwingImage image = atlas.get(handle);
+        if (image == null || count <= 0)
+            return;
+        items.addBatch(image, instances, count, depth);
+    }
+
+    @Override
+    public void drawShape(Shape shape, Transform transform, Color fillColor, Color outlineColor, float thickness, float alpha, float depth) {
+        if (transform == null)
+            throw new NullPointerException();
+        if (shape == null || alpha <= 0.0f || (fillColor == null && (outlineColor == null || thickness <= 0.0f)))
+            return;
+        items.add(new ShapeItem(shapes.getPath(shape, transform), fillColor, outlineColor,
+                                outlineColor == null ? null : shapes.getStroke(thickness), alpha, depth));
+    }
+
+    @Override
+    public void drawGlow(float x, float y, float radius, Color color, float alpha, float depth) {
+        if (color == null)
+            throw new NullPointerException();
+        // Glows are blurred over the whole screen, they are kept apart and drawn with the image
+        addGlow(x, y, radius, color.getRGB() & 0xFFFFFF, alpha, depth);
+    }
+
+    /**
+     * Records a glow spot, relative to the image.
+     */
+    private void addGlow(float x, float y, float radius, int rgb, float alpha, float depth) {
+        if (radius <= 0.0f || alpha <= 0.0f)
+            return;
+        glows.add((x - this.x) / width, (y - this.y) / height, radius / width, rgb, alpha, depth);
+    }
+
+    @Override
+    public void registerFonts(String directoryName) {
+        owner.registerFonts(directoryName);
+    }
+
+    @Override
+    public void drawText(String text, float fontSize, Transform transform, Color fillColor, Color outlineColor, float thickness, String fontName,
+                         boolean bold, boolean italics, Vector anchor, TextAlign.Horizontal hAlign, TextAlign.Vertical vAlign, float alpha, float depth) {
+        if (transform == null)
+            throw new NullPointerException();
+        if (text == null || fontSize <= 0.0f || alpha <= 0.0f || (fillColor == null && (outlineColor == null || thickness <= 0.0f)))
+            return;
+        items.add(new TextItem(text, fontSize, transform, fillColor, outlineColor, thickness, fontName, bold, italics, anchor, hAlign, vAlign, depth, alpha));
+    }
+
+    @Override
+    public Image rasterize(Painter painter, float x, float y, float width, float height, int pixelsPerUnit) {
+        return owner.rasterize(painter, x, y, width, height, pixelsPerUnit);
+    }
+
+    @Override
+    public Vector convertPositionOnScreen(Vector coord) {
+        // Not shown on screen
+        return null;
+    }
+
+    @Override
+    public int getWidth() {
+        return pixelWidth;
+    }
+
+    @Override
+    public int getHeight() {
+        return pixelHeight;
+    }
+
+    @Override
+    public float getXScale() {
+        return width;
+    }
+
+    @Override
+    public float getYScale() {
+        return height;
+    }
+
+    @Override
+    public float getScaledWidth() {
+        return width;
+    }
+
+    @Override
+    public float getScaledHeight() {
+        return height;
+    }
+
+    /// OffscreenCanvas implements Positionable
+
+    @Override
+    public Transform getTransform() {
+        return Transform.I.translated(x + width / 2, y + height / 2);
+    }
+
+    @Override
+    public Vector getVelocity() {
+        return Vector.ZERO;
+    }
+}
@@ -0,0 +1,235 @@
+package ch.epfl.cs107.play.window.swing;
+
+import java.awt.Graphics2D;
+import java.util.Arrays;
+
+/**
+ * Draw list ordered by depth, reused from frame to frame.
+ * Items are sorted with a stable radix sort on their depth, so that ordering is linear in the number of items.
+ * The radix passes on bytes shared by all the depths are skipped: as drawables mostly use a few discrete layers,
+ * most frames only need one or two passes.
+ * Image and batch items are pooled: their slots are reused by the next frames, so that drawing images does not allocate.
+ */
+final class RenderQueue {
+
+    private static final int INITIAL_CAPACITY = 512;
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    private Item[] items;
+    private Item[] sortedItems;
+    /// Depths as integers with the same (unsigned) order
+    private int[] keys;
+    private int[] sortedKeys;
+    private final int[] counts;
+    private int size;
+    /// Pool of image items, the first imageItemCount ones are in use
+    private ImageItem[] imageItems;
+    private int imageItemCount;
+    /// Pool of batch items, the first batchItemCount ones are in use
+    private BatchItem[] batchItems;
+    private int batchItemCount;
+
+    /**
+     * Creates a new empty render queue.
+     */
+    RenderQueue() {
+        items = new Item[INITIAL_CAPACITY];
+        sortedItems = new Item[INITIAL_CAPACITY];
+        keys = new int[INITIAL_CAPACITY];
+        sortedKeys = new int[INITIAL_CAPACITY];
+        counts = new int[RADIX];
+        size = 0;
+        imageItems = new ImageItem[INITIAL_CAPACITY];
+        imageItemCount = 0;
+        batchItems = new BatchItem[16];
+        batchItemCount = 0;
+    }
+
+    /**
+     * Adds an item at the end of the queue.
+     * @param item (Item): any item, not null
+     */
+    void add(Item item) {
+        if (item == null)
+            throw new NullPointerException();
+        if (size == items.length) {
+            items = Arrays.copyOf(items, 2 * size);
+            sortedItems = new Item[2 * size];
+            keys = Arrays.copyOf(keys, 2 * size);
+            sortedKeys = new int[2 * size];
+        }
+        items[size] = item;
+        keys[size] = toKey(item.getDepth());
+        ++size;
+    }
+
+    /**
+     * Adds an image at the end of the queue, using a pooled image item.
+     * @param image (SwingImage): swing image, not null
+     * @param m00 (float): transform coefficient, see Transform
+     * @param m01 (float): transform coefficient, see Transform
+     * @param m02 (float): transform coefficient, see Transform
+     * @param m10 (float): transform coefficient, see Transform
+     * @param m11 (float): transform coefficient, see Transform
+     * @param m12 (float): transform coefficient, see Transform
+     * @param alpha (float): transparency, between 0 (invisible) and 1 (opaque)
+     * @param depth (float): associated depth
+     */
+    void addImage(SwingImage image, float m00, float m01, float m02, float m10, float m11, float m12, float alpha, float depth) {
+        if (imageItemCount == imageItems.length)
+            imageItems = Arrays.copyOf(imageItems, 2 * imageItemCount);
+        ImageItem item = imageItems[imageItemCount];
+        if (item == null) {
+            item = new ImageItem();
+            imageItems[imageItemCount] = item;
+        }
+        ++imageItemCount;
+        item.set(image, m00, m01, m02, m10, m11, m12, alpha, depth);
+        add(item);
+    }
+
+    /**
+     * Adds a batch of instances of an image at the end of the queue, using a pooled batch item.
+     * @param image (SwingImage): swing image, not null
+     * @param instances (Array of float): Canvas.BATCH_STRIDE floats per instance, copied, not null
+     * @param count (int): number of instances
+     * @param depth (float): associated depth
+     */
+    void addBatch(SwingImage image, float[] instances, int count, float depth) {
+        if (batchItemCount == batchItems.length)
+            batchItems = Arrays.copyOf(batchItems, 2 * batchItemCount);
+        BatchItem item = batchItems[batchItemCount];
+        if (item == null) {
+            item = new BatchItem();
+            batchItems[batchItemCount] = item;
+        }
+        ++batchItemCount;
+        item.set(image, instances, count, depth);
+        add(item);
+    }
+
+    /** @return (int): number of items in the queue */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Sorts the items by increasing depth, items of same depth keep their submission order.
+     */
+    void sort() {
+        // Bits which differ among the keys, the other bytes need no pass
+        int varying = 0;
+        for (int i = 1; i < size; ++i)
+            varying |= keys[i] ^ keys[0];
+
+        for (int shift = 0; shift < Integer.SIZE; shift += RADIX_BITS) {
+            if (((varying >>> shift) & (RADIX - 1)) == 0)
+                continue;
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < size; ++i)
+                ++counts[(keys[i] >>> shift) & (RADIX - 1)];
+            int offset = 0;
+            for (int b = 0; b < RADIX; ++b) {
+                int count = counts[b];
+                counts[b] = offset;
+                offset += count;
+            }
+            for (int i = 0; i < size; ++i) {
+                int destination = counts[(keys[i] >>> shift) & (RADIX - 1)]++;
+                sortedItems[destination] = items[i];
+                sortedKeys[destination] = keys[i];
+            }
+            swapBuffers();
+        }
+    }
+
+    /**
+     * Renders all the items in their current order.
+     * @param g (Graphics2D): target context, not null
+     */
+    void render(Graphics2D g) {
+        render(g, 0, size);
+    }
+
+    /**
+     * Renders a range of the items in their current order.
+     * @param g (Graphics2D): target context, not null
+     * @param from (int): index of the first rendered item, inclusive
+     * @param to (int): index of the last rendered item, exclusive
+     */
+    void render(Graphics2D g, int from, int to) {
+        float pixelScale = getPixelScale(g);
+        for (int i = from; i < to; ++i) {
+            Item item = items[i];
+            if (item instanceof ImageItem)
+                ((ImageItem) item).render(g, pixelScale);
+            else if (item instanceof BatchItem)
+                ((BatchItem) item).render(g, pixelScale);
+            else
+                item.render(g);
+        }
+    }
+
+    /**
+     * Finds the first item at or above a depth, once sorted.
+     * @param depth (float): any real
+     * @return (int): index of the first item whose depth is not lower, size if there is none
+     */
+    int indexOf(float depth) {
+        // Compared as unsigned keys, like the sort
+        int key = toKey(depth) ^ Integer.MIN_VALUE;
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if ((keys[middle] ^ Integer.MIN_VALUE) < key)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * @param g (Graphics2D): any context, not null
+     * @return (float): number of device pixels per unit of the context, assuming a uniform scale
+     */
+    static float getPixelScale(Graphics2D g) {
+        return (float) Math.sqrt(Math.abs(g.getTransform().getDeterminant()));
+    }
+
+    /**
+     * Removes all the items, keeping the allocated capacity and the pooled items.
+     */
+    void clear() {
+        // Release the references, so that items can be collected
+        Arrays.fill(items, 0, size, null);
+        Arrays.fill(sortedItems, 0, size, null);
+        size = 0;
+        imageItemCount = 0;
+        for (int i = 0; i < batchItemCount; ++i)
+            batchItems[i].clear();
+        batchItemCount = 0;
+    }
+
+    private void swapBuffers() {
+        Item[] tmpItems = items;
+        items = sortedItems;
+        sortedItems = tmpItems;
+        int[] tmpKeys = keys;
+        keys = sortedKeys;
+        sortedKeys = tmpKeys;
+    }
+
+    /**
+     * Maps a float to an int whose unsigned order is the order of Float.compare.
+     * @param depth (float): any float
+     * @return (int): sortable key
+     */
+    private static int toKey(float depth) {
+        int bits = Float.floatToIntBits(depth);
+        // Negative values: flip all the bits, positive values: flip the sign bit
+        return bits ^ ((bits >> 31) | Integer.MIN_VALUE);
+    }
+}
@@ -0,0 +1,196 @@
+package ch.epfl.cs107.play.window.swing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Cache of loaded resources by name, bounded by a budget in bytes.
+ * The resources used since the beginning of the current scope (e.g. the current level) are pinned and not accounted
+ * for in the budget. When the other resident resources exceed it, the least recently used ones are evicted.
+ * Failed loads are kept as empty entries of a nominal size, so that they are not retried until evicted.
+ * @param <V> type of the resources
+ */
+final class ResourceCache<V> {
+
+    /**
+     * Resident resource, with its accounting information.
+     */
+    static final class Entry<V> {
+        final String name;
+        final V value;
+        private long bytes;
+        private long lastUse;
+        private int scope;
+        private boolean evicted;
+
+        private Entry(String name, V value, long bytes) {
+            this.name = name;
+            this.value = value;
+            this.bytes = bytes;
+        }
+
+        /** @return (boolean): true if this entry was evicted, its value is then no more accounted for */
+        boolean isEvicted() {
+            return evicted;
+        }
+    }
+
+    /// Nominal size of a failed load, so that it is accounted for and evicted as the other entries
+    private static final long FAILED_ENTRY_BYTES = 256;
+
+    private final String label;
+    private final Map<String, Entry<V>> entries;
+    /// Called on each evicted entry, may be null
+    private final Consumer<Entry<V>> evictionListener;
+    private long budget;
+    /// Sizes of the resources used by the current scope, and of the other ones
+    private long pinnedBytes;
+    private long unpinnedBytes;
+    private long clock;
+    private int scope;
+    /// Statistics
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long evictedBytes;
+
+    /**
+     * Creates a new empty cache.
+     * @param label (String): name of the cache in the statistics, not null
+     * @param budget (long): maximal number of bytes of the unpinned resources, positive
+     * @param evictionListener (Consumer): called on each evicted entry, may be null
+     */
+    ResourceCache(String label, long budget, Consumer<Entry<V>> evictionListener) {
+        if (label == null)
+            throw new NullPointerException();
+        this.label = label;
+        this.budget = budget;
+        this.evictionListener = evictionListener;
+        entries = new HashMap<>();
+    }
+
+    /**
+     * Looks up a resource, marking it as used.
+     * @param name (String): name of the resource, not null
+     * @return (Entry): the entry, null if the resource is not resident
+     */
+    Entry<V> lookup(String name) {
+        Entry<V> entry = entries.get(name);
+        if (entry == null) {
+            ++misses;
+            return null;
+        }
+        ++hits;
+        touch(entry);
+        return entry;
+    }
+
+    /**
+     * Marks an entry as used, without lookup. Cheap enough to be called on every draw.
+     * @param entry (Entry): resident entry, not null
+     */
+    void touch(Entry<V> entry) {
+        entry.lastUse = ++clock;
+        if (entry.scope != scope) {
+            entry.scope = scope;
+            unpinnedBytes -= entry.bytes;
+            pinnedBytes += entry.bytes;
+        }
+    }
+
+    /**
+     * Adds a newly loaded resource, pinned by the current scope.
+     * @param name (String): name of the resource, not null
+     * @param value (V): loaded resource, null if the load failed
+     * @param size (long): size in bytes of the resource, ignored if the load failed
+     * @return (Entry): the new entry, marked as used, not null
+     */
+    Entry<V> insert(String name, V value, long size) {
+        Entry<V> entry = new Entry<>(name, value, value == null ? FAILED_ENTRY_BYTES : size);
+        Entry<V> previous = entries.put(name, entry);
+        if (previous != null)
+            remove(previous);
+        entry.lastUse = ++clock;
+        entry.scope = scope;
+        pinnedBytes += entry.bytes;
+        return entry;
+    }
+
+    /**
+     * Accounts for additional memory owned by a resource, e.g. derived copies.
+     * @param entry (Entry): resident entry, not null
+     * @param size (long): additional number of bytes
+     */
+    void grow(Entry<V> entry, long size) {
+        if (entry.evicted)
+            return;
+        entry.bytes += size;
+        if (entry.scope == scope)
+            pinnedBytes += size;
+        else {
+            unpinnedBytes += size;
+            trim();
+        }
+    }
+
+    /**
+     * Starts a new scope: the resources used from now on are pinned,
+     * and the ones only used before may be evicted.
+     */
+    void beginScope() {
+        ++scope;
+        unpinnedBytes += pinnedBytes;
+        pinnedBytes = 0;
+        trim();
+    }
+
+    /**
+     * @param budget (long): maximal number of bytes of the unpinned resources, positive
+     */
+    void setBudget(long budget) {
+        this.budget = budget;
+        trim();
+    }
+
+    /** @return (String): human readable cache statistics */
+    String getStatistics() {
+        long total = hits + misses;
+        return String.format("%s cache: %d entries, %d pinned bytes, %d/%d unpinned bytes, %d hits, %d misses (%.1f%% hits), %d evictions (%d bytes)",
+                             label, entries.size(), pinnedBytes, unpinnedBytes, budget, hits, misses, total == 0 ? 0.0 : 100.0 * hits / total,
+                             evictions, evictedBytes);
+    }
+
+    /**
+     * Evicts the least recently used unpinned entries while they are over budget.
+     */
+    private void trim() {
+        if (unpinnedBytes <= budget)
+            return;
+        List<Entry<V>> candidates = new ArrayList<>();
+        for (Entry<V> entry : entries.values()) {
+            if (entry.scope != scope && entry.bytes > 0)
+                candidates.add(entry);
+        }
+        candidates.sort((a, b) -> Long.compare(a.lastUse, b.lastUse));
+        for (int i = 0; i < candidates.size() && unpinnedBytes > budget; ++i) {
+            Entry<V> entry = candidates.get(i);
+            entries.remove(entry.name);
+            ++evictions;
+            evictedBytes += entry.bytes;
+            remove(entry);
+        }
+    }
+
+    private void remove(Entry<V> entry) {
+        if (entry.scope == scope)
+            pinnedBytes -= entry.bytes;
+        else
+            unpinnedBytes -= entry.bytes;
+        entry.evicted = true;
+        if (evictionListener != null)
+            evictionListener.accept(entry);
+    }
+}
@@ -0,0 +1,136 @@
+package ch.epfl.cs107.play.window.swing;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/**
+ * Renders the scene at a fraction of the window resolution, then upscales it in a single draw.
+ * Items at or above the overlay depth, e.g. the user interface and its text, are drawn afterward at full resolution.
+ * The buffer is a volatile image on screen devices, so that it stays in video memory.
+ */
+final class SceneBuffer {
+
+    /// Render scale, as a fraction of the window resolution, 1 when disabled
+    private volatile float scale;
+    private volatile boolean filtered;
+    private volatile float overlayDepth;
+
+    private VolatileImage accelerated;
+    private BufferedImage image;
+
+    /**
+     * Creates a new disabled scene buffer.
+     */
+    SceneBuffer() {
+        scale = 1.0f;
+        filtered = true;
+        overlayDepth = Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Changes the resolution of the scene, can be called from another thread than the rendering one.
+     * @param scale (float): fraction of the window resolution, clamped between 0.1 and 1 which disables the buffer
+     * @param filtered (boolean): whether the upscale is bilinear, nearest neighbor otherwise
+     * @param overlayDepth (float): items at or above this depth are drawn at full resolution
+     */
+    void set(float scale, boolean filtered, float overlayDepth) {
+        this.scale = Math.max(0.1f, Math.min(1.0f, scale));
+        this.filtered = filtered;
+        this.overlayDepth = overlayDepth;
+    }
+
+    /** @return (boolean): true if the scene is rendered at reduced resolution */
+    boolean isEnabled() {
+        return scale < 1.0f;
+    }
+
+    /**
+     * @param size (int): size in pixel of the window
+     * @return (int): matching size in pixel of the scene
+     */
+    int getSceneSize(int size) {
+        return Math.max(1, Math.round(size * scale));
+    }
+
+    /**
+     * Renders sorted items onto the window.
+     * @param target (Graphics2D): window context, without view transform, not null
+     * @param items (RenderQueue): sorted items, not null
+     * @param view (AffineTransform): world to window pixel transform, not null
+     * @param width (int): width in pixel of the window
+     * @param height (int): height in pixel of the window
+     * @param background (Color): color of the background, not null
+     */
+    void render(Graphics2D target, RenderQueue items, AffineTransform view, int width, int height, Color background) {
+        final float scale = this.scale;
+        if (scale >= 1.0f) {
+            target.transform(view);
+            items.render(target);
+            return;
+        }
+        final int sceneWidth = Math.max(1, Math.round(width * scale));
+        final int sceneHeight = Math.max(1, Math.round(height * scale));
+        final int overlay = items.indexOf(overlayDepth);
+
+        // Scene items, at reduced resolution
+        final java.awt.Image buffer = acquire(target.getDeviceConfiguration(), sceneWidth, sceneHeight);
+        final Graphics2D scene = (Graphics2D) buffer.getGraphics();
+        scene.setColor(background);
+        scene.fillRect(0, 0, sceneWidth, sceneHeight);
+        scene.setRenderingHints(target.getRenderingHints());
+        scene.scale((double) sceneWidth / width, (double) sceneHeight / height);
+        scene.transform(view);
+        items.render(scene, 0, overlay);
+        scene.dispose();
+
+        final Object interpolation = target.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+        target.setRenderingHint(RenderingHints.KEY_INTERPOLATION, filtered ? RenderingHints.VALUE_INTERPOLATION_BILINEAR
+                                                                          : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        target.drawImage(buffer, 0, 0, width, height, 0, 0, sceneWidth, sceneHeight, null);
+        if (interpolation != null)
+            target.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+
+        // Overlay, at full resolution
+        target.transform(view);
+        items.render(target, overlay, items.size());
+    }
+
+    /**
+     * Gets a buffer of the given size, (re)created when needed.
+     */
+    private java.awt.Image acquire(GraphicsConfiguration config, int width, int height) {
+        if (config.getDevice().getType() != GraphicsDevice.TYPE_RASTER_SCREEN) {
+            if (image == null || image.getWidth() != width || image.getHeight() != height)
+                image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            return image;
+        }
+        if (accelerated != null && (accelerated.getWidth() != width || accelerated.getHeight() != height ||
+                                    accelerated.validate(config) == VolatileImage.IMAGE_INCOMPATIBLE)) {
+            accelerated.flush();
+            accelerated = null;
+        }
+        if (accelerated == null) {
+            accelerated = config.createCompatibleVolatileImage(width, height);
+            accelerated.validate(config);
+        }
+        // Entirely redrawn every frame, lost contents need no restore
+        return accelerated;
+    }
+
+    /**
+     * Releases the buffers.
+     */
+    void dispose() {
+        if (accelerated != null) {
+            accelerated.flush();
+            accelerated = null;
+        }
+        image = null;
+    }
+}
@@ -0,0 +1,94 @@
+package ch.epfl.cs107.play.window.swing;
+
+import ch.epfl.cs107.play.math.Shape;
+import ch.epfl.cs107.play.math.Transform;
+
+import java.awt.BasicStroke;
+import java.awt.geom.Path2D;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Geometry submitted by drawShape, reused from frame to frame.
+ * Shapes are immutable: the path of each shape is built once, and its transformed copy is kept
+ * as long as the shape is drawn with the same transform. Shapes are weakly referenced, so that they can be collected.
+ * Strokes are shared by thickness.
+ * The cached paths are never modified, so they can be rendered by another thread.
+ */
+final class ShapeCache {
+
+    /**
+     * Paths of a shape.
+     */
+    private static final class Entry {
+        private final Path2D path;
+        private Transform transform;
+        private Path2D transformed;
+
+        private Entry(Path2D path) {
+            this.path = path;
+        }
+    }
+
+    private final Map<Shape, Entry> entries;
+    private final Map<Float, BasicStroke> strokes;
+    private BasicStroke lastStroke;
+    /// Statistics: transformed paths reused, transformed again, and built from the shape
+    private long hits;
+    private long transforms;
+    private long misses;
+
+    /**
+     * Creates a new empty cache.
+     */
+    ShapeCache() {
+        // Shapes do not override equals, so they are compared by identity
+        entries = new WeakHashMap<>();
+        strokes = new HashMap<>();
+    }
+
+    /**
+     * Gets the path of a shape in world coordinates.
+     * @param shape (Shape): any shape, not null
+     * @param transform (Transform): any affine transform, not null
+     * @return (Path2D): the transformed path, which must not be modified, not null
+     */
+    Path2D getPath(Shape shape, Transform transform) {
+        Entry entry = entries.get(shape);
+        if (entry == null) {
+            entry = new Entry(shape.toPath());
+            entries.put(shape, entry);
+            ++misses;
+        } else if (transform.equals(entry.transform)) {
+            ++hits;
+            return entry.transformed;
+        } else
+            ++transforms;
+        entry.transformed = new Path2D.Float(entry.path, transform.getAffineTransform());
+        entry.transform = transform;
+        return entry.transformed;
+    }
+
+    /**
+     * Gets a stroke of the given thickness.
+     * @param thickness (float): line width, not negative
+     * @return (BasicStroke): the shared stroke, not null
+     */
+    BasicStroke getStroke(float thickness) {
+        if (lastStroke == null || lastStroke.getLineWidth() != thickness) {
+            lastStroke = strokes.get(thickness);
+            if (lastStroke == null) {
+                lastStroke = new BasicStroke(thickness);
+                strokes.put(thickness, lastStroke);
+            }
+        }
+        return lastStroke;
+    }
+
+    /** @return (String): human readable cache statistics */
+    String getStatistics() {
+        return String.format("Shape cache: %d shapes, %d strokes, %d hits, %d transforms, %d misses",
+                             entries.size(), strokes.size(), hits, transforms, misses);
+    }
+}
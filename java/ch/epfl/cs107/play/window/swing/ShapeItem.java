@@ -6,6 +6,7 @@ import java.awt.Color;
 import java.awt.Composite;
 import java.awt.Graphics2D;
 import java.awt.Shape;
+import java.awt.Stroke;
 
 
 /**
@@ -16,7 +17,7 @@ public final class ShapeItem implements Item {
 	private final Shape shape;
 	private final Color fillColor;
 	private final Color outlineColor;
-	private final float thickness;
+	private final Stroke stroke;
 	private final float alpha;
 	private final float depth;
 
@@ -30,11 +31,24 @@ public final class ShapeItem implements Item {
      * @param depth (float): associated depth
      */
 	public ShapeItem(Shape shape, Color fillColor, Color outlineColor, float thickness, float alpha, float depth) {
+		this(shape, fillColor, outlineColor, outlineColor == null ? null : new BasicStroke(thickness), alpha, depth);
+	}
+
+    /**
+     * [modification] - Creates a new shape item with a shared stroke.
+     * @param shape (Shape): Swing shape, not modified afterward, not null
+     * @param fillColor (Color): fill color, may be null
+     * @param outlineColor (Color): outline color, may be null
+     * @param stroke (Stroke): outline stroke, not null if there is an outline color
+     * @param alpha (float): transparency, between 0 (invisible) and 1 (opaque)
+     * @param depth (float): associated depth
+     */
+	public ShapeItem(Shape shape, Color fillColor, Color outlineColor, Stroke stroke, float alpha, float depth) {
 		super();
 		this.shape = shape;
 		this.fillColor = fillColor;
 		this.outlineColor = outlineColor;
-		this.thickness = thickness;
+		this.stroke = stroke;
 		this.alpha = alpha;
 		this.depth = depth;
 	}
@@ -61,7 +75,7 @@ public final class ShapeItem implements Item {
 		}
 		if (outlineColor != null) {
 			g.setColor(outlineColor);
-			g.setStroke(new BasicStroke(thickness));
+			g.setStroke(stroke);
 			g.draw(shape);
 		}
         if (old != null)
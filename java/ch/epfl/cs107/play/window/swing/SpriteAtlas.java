@@ -0,0 +1,267 @@
+package ch.epfl.cs107.play.window.swing;
+
+import ch.epfl.cs107.play.io.FileSystem;
+import ch.epfl.cs107.play.io.PackedFileSystem;
+import ch.epfl.cs107.play.math.RegionOfInterest;
+import ch.epfl.cs107.play.window.Canvas;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Registry of the sprite sheets and of their regions.
+ * Each sheet is loaded once, and its regions share its pixels.
+ * Regions are registered once and then referred to by an int handle, so a lookup is an array access.
+ * Sheets are kept in a cache bounded in bytes: the regions of an evicted sheet are released,
+ * and loaded again the next time they are drawn, their handles stay valid.
+ * Tinted regions are copies of the region with the tint applied, counted in the size of their sheet.
+ */
+final class SpriteAtlas {
+
+    /// Handle returned when an image cannot be loaded
+    static final int NO_HANDLE = -1;
+    private static final int INITIAL_CAPACITY = 256;
+    /// Tint of the regions used as is, not a valid RGB color
+    private static final int NO_TINT = -1;
+
+    private final FileSystem fileSystem;
+    /// Loaded sheets by name, with a null value if it could not be loaded
+    private final ResourceCache<SwingImage> sheets;
+    /// Registered regions by key, only used when registering
+    private final Map<Key, Integer> handles;
+    /// Keys, images and sheets by handle, the image and sheet are null when evicted
+    private Key[] keys;
+    private SwingImage[] images;
+    private ResourceCache.Entry<SwingImage>[] sheetEntries;
+    private int size;
+
+    /**
+     * Creates a new empty atlas.
+     * @param fileSystem (FileSystem): source used to load the sheets, not null
+     * @param budget (long): maximal number of bytes of the sheets not used by the current scope, positive
+     */
+    @SuppressWarnings("unchecked")
+    SpriteAtlas(FileSystem fileSystem, long budget) {
+        if (fileSystem == null)
+            throw new NullPointerException();
+        this.fileSystem = fileSystem;
+        sheets = new ResourceCache<>("Image", budget, this::release);
+        handles = new HashMap<>();
+        keys = new Key[INITIAL_CAPACITY];
+        images = new SwingImage[INITIAL_CAPACITY];
+        sheetEntries = (ResourceCache.Entry<SwingImage>[]) new ResourceCache.Entry<?>[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Registers a region of a sheet, if not already done.
+     * @param name (String): full name of the sheet, not null
+     * @param roi (RegionOfInterest): region of interest, null for the whole sheet
+     * @param removeBackground (boolean): whether to remove the uniform background of the region
+     * @param tint (Color): color replacing Canvas.TINT_MASK in the region, null for none
+     * @return (int): handle of the region, NO_HANDLE if the sheet cannot be loaded
+     */
+    int register(String name, RegionOfInterest roi, boolean removeBackground, Color tint) {
+        Key key = new Key(name, roi, removeBackground, tint);
+        Integer handle = handles.get(key);
+        if (handle != null)
+            return handle;
+
+        ResourceCache.Entry<SwingImage> sheet = getSheet(name);
+        if (sheet.value == null) {
+            handles.put(key, NO_HANDLE);
+            return NO_HANDLE;
+        }
+        if (size == images.length) {
+            keys = Arrays.copyOf(keys, 2 * size);
+            images = Arrays.copyOf(images, 2 * size);
+            sheetEntries = Arrays.copyOf(sheetEntries, 2 * size);
+        }
+        keys[size] = key;
+        load(size, sheet);
+        handles.put(key, size);
+        return size++;
+    }
+
+    /**
+     * @param handle (int): any handle
+     * @return (SwingImage): image of the handle, loaded again if evicted, null if the handle is not valid
+     */
+    SwingImage get(int handle) {
+        if (handle < 0 || handle >= size)
+            return null;
+        ResourceCache.Entry<SwingImage> sheet = sheetEntries[handle];
+        if (sheet != null)
+            sheets.touch(sheet);
+        else {
+            sheet = getSheet(keys[handle].name);
+            if (sheet.value == null)
+                return null;
+            load(handle, sheet);
+        }
+        return images[handle];
+    }
+
+    /** @return (int): number of registered regions */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Starts a new scope, e.g. a new level: the sheets used from now on are pinned,
+     * the ones only used before may be evicted.
+     */
+    void beginScope() {
+        sheets.beginScope();
+    }
+
+    /**
+     * @param budget (long): maximal number of bytes of the sheets not used by the current scope, positive
+     */
+    void setBudget(long budget) {
+        sheets.setBudget(budget);
+    }
+
+    /** @return (String): human readable cache statistics */
+    String getStatistics() {
+        return sheets.getStatistics();
+    }
+
+    /**
+     * Loads a sheet, if not resident.
+     * @param name (String): full name of the sheet, not null
+     * @return (Entry): the sheet entry, with a null value on error, not null
+     */
+    private ResourceCache.Entry<SwingImage> getSheet(String name) {
+        ResourceCache.Entry<SwingImage> entry = sheets.lookup(name);
+        if (entry != null)
+            return entry;
+        SwingImage sheet = null;
+        try {
+            // Decoded straight from the archive mapping when packed
+            if (fileSystem instanceof PackedFileSystem)
+                sheet = new SwingImage(((PackedFileSystem) fileSystem).readBuffer(name), null, false);
+            else {
+                try (InputStream input = fileSystem.read(name)) {
+                    sheet = new SwingImage(input, null, false);
+                }
+            }
+        } catch (IOException e) {
+            // Empty on purpose, will return null as an error
+            System.out.println("File :" + name + " not found");
+        }
+        return sheets.insert(name, sheet, sheet == null ? 0 : byteSize(sheet));
+    }
+
+    /**
+     * Extracts the region of a handle from its loaded sheet.
+     * @param handle (int): registered handle
+     * @param sheet (Entry): resident sheet, not null
+     */
+    private void load(int handle, ResourceCache.Entry<SwingImage> sheet) {
+        Key key = keys[handle];
+        SwingImage image = extract(sheet.value, key.toRegion(), key.removeBackground, key.tint);
+        images[handle] = image;
+        sheetEntries[handle] = sheet;
+        // Copied pixels are owned by the region, not shared with the sheet
+        if (image.image.getRaster().getDataBuffer() != sheet.value.image.getRaster().getDataBuffer())
+            sheets.grow(sheet, byteSize(image));
+    }
+
+    /**
+     * Releases the regions of an evicted sheet.
+     * @param sheet (Entry): evicted sheet, not null
+     */
+    private void release(ResourceCache.Entry<SwingImage> sheet) {
+        for (int handle = 0; handle < size; ++handle) {
+            if (sheetEntries[handle] == sheet) {
+                ImageAcceleration.release(images[handle]);
+                images[handle] = null;
+                sheetEntries[handle] = null;
+            }
+        }
+        if (sheet.value != null)
+            ImageAcceleration.release(sheet.value);
+    }
+
+    /**
+     * @param image (SwingImage): any image, not null
+     * @return (long): number of bytes of its pixels
+     */
+    private static long byteSize(SwingImage image) {
+        return 4L * image.image.getWidth() * image.image.getHeight();
+    }
+
+    /**
+     * Extracts a region of a sheet, sharing the sheet pixels when possible.
+     * @param sheet (SwingImage): loaded sheet, not null
+     * @param roi (RegionOfInterest): region of interest, may be null
+     * @param removeBackground (boolean): whether to remove the uniform background of the region
+     * @param tint (int): RGB color replacing Canvas.TINT_MASK, NO_TINT for none
+     * @return (SwingImage): image of the region, not null
+     */
+    private static SwingImage extract(SwingImage sheet, RegionOfInterest roi, boolean removeBackground, int tint) {
+        // The background removal and the tint change the pixels, so they need their own copy
+        if (tint != NO_TINT) {
+            SwingImage image = new SwingImage(sheet.image, roi, removeBackground);
+            image.tint(Canvas.TINT_MASK, tint);
+            return image;
+        }
+        if (removeBackground)
+            return new SwingImage(sheet.image, roi, true);
+        if (roi == null)
+            return sheet;
+        int width = Math.min(roi.w, sheet.image.getWidth() - roi.x);
+        int height = Math.min(roi.h, sheet.image.getHeight() - roi.y);
+        if (roi.x < 0 || roi.y < 0 || width <= 0 || height <= 0)
+            return new SwingImage(sheet.image, roi, false);
+        return new SwingImage(sheet.image.getSubimage(roi.x, roi.y, width, height));
+    }
+
+    /**
+     * Identifies a registered region, the region of interest is copied as it is mutable.
+     */
+    private static final class Key {
+        private final String name;
+        private final int x, y, w, h;
+        private final boolean whole;
+        private final boolean removeBackground;
+        private final int tint;
+
+        private Key(String name, RegionOfInterest roi, boolean removeBackground, Color tint) {
+            this.name = name;
+            this.whole = roi == null;
+            this.x = whole ? 0 : roi.x;
+            this.y = whole ? 0 : roi.y;
+            this.w = whole ? 0 : roi.w;
+            this.h = whole ? 0 : roi.h;
+            this.removeBackground = removeBackground;
+            this.tint = tint == null ? NO_TINT : tint.getRGB() & 0xFFFFFF;
+        }
+
+        /** @return (RegionOfInterest): a new copy of the region, null for the whole sheet */
+        private RegionOfInterest toRegion() {
+            return whole ? null : new RegionOfInterest(x, y, w, h);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, x, y, w, h, whole, removeBackground, tint);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Key))
+                return false;
+            Key other = (Key) object;
+            return name.equals(other.name) && x == other.x && y == other.y && w == other.w && h == other.h
+                    && whole == other.whole && removeBackground == other.removeBackground && tint == other.tint;
+        }
+    }
+}
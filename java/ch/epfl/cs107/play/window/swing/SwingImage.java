@@ -6,10 +6,13 @@ import ch.epfl.cs107.play.window.Image;
 import java.awt.Graphics2D;
 import java.awt.GraphicsConfiguration;
 import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
 import java.awt.Transparency;
 import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import javax.imageio.ImageIO;
 
 /**
@@ -17,8 +20,22 @@ import javax.imageio.ImageIO;
  */
 public final class SwingImage implements Image {
 
+    // [modification] - Largest number of mipmap levels, enough for any image size
+    private static final int MAX_MIPMAP_LEVELS = 16;
+
     // Package-protected, for efficient access
     final BufferedImage image;
+    // True if the pixels are changed after creation, no derived copy can then be kept
+    final boolean dynamic;
+    // [modification] - Accelerated copy in video memory, see ImageAcceleration
+    VolatileImage accelerated;
+    int drawCount;
+    // False if the image is dynamic, or not worth a copy
+    boolean accelerable;
+    // Images of half size, quarter size and so on, built on first use by any thread, guarded by this image
+    private SwingImage[] mipmaps;
+    // Glows drawn into rasterized content, added to the frame with the image, null if none
+    GlowSpots glows;
 
     /**
      * Creates an image from specified image.
@@ -32,9 +49,9 @@ public final class SwingImage implements Image {
 		// http://stackoverflow.com/questions/13605248/java-converting-image-to-bufferedimage
 		// http://stackoverflow.com/questions/148478/java-2d-drawing-optimal-performance
 		
-		// Get system graphical configuration
-		final GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
-		
+		dynamic = false;
+		accelerable = true;
+
 		// Get image size
 		int width = image.getWidth(null);
 		int height = image.getHeight(null);
@@ -45,7 +62,7 @@ public final class SwingImage implements Image {
         }
 
 		// Create optimized buffered image
-		this.image = config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+		this.image = createCompatibleImage(width, height);
 		
 		// Draw original image in buffer
 		final Graphics2D graphics = this.image.createGraphics();
@@ -61,6 +78,80 @@ public final class SwingImage implements Image {
         }
 	}
     
+    /**
+     * Wraps an already optimized image, without copying it.
+     * @param image (BufferedImage): compatible image, not null
+     */
+    SwingImage(BufferedImage image) {
+        this(image, false);
+    }
+
+    /**
+     * Wraps an already optimized image, without copying it.
+     * @param image (BufferedImage): compatible image, not null
+     * @param dynamic (boolean): true if the pixels of the image change after creation
+     */
+    SwingImage(BufferedImage image, boolean dynamic) {
+        if (image == null)
+            throw new NullPointerException();
+        this.image = image;
+        this.dynamic = dynamic;
+        this.accelerable = !dynamic;
+    }
+
+    /**
+     * [modification] - Selects the mipmap level to draw this image at a given size.
+     * @param pixelWidth (float): width in device pixels of the drawn image
+     * @param pixelHeight (float): height in device pixels of the drawn image
+     * @return (int): 0 unless the image is shrunk more than twice, the level not smaller than the drawn size otherwise
+     */
+    int getMipmapLevel(float pixelWidth, float pixelHeight) {
+        float ratio = Math.min(image.getWidth() / pixelWidth, image.getHeight() / pixelHeight);
+        if (ratio >= 2.0f && ratio < Integer.MAX_VALUE)
+            return 31 - Integer.numberOfLeadingZeros((int) ratio);
+        return 0;
+    }
+
+    /**
+     * [modification] - Gets a mipmap level, building the missing levels on first use.
+     * Each level halves the size of the previous one, averaging its pixels.
+     * Images are drawn both by the render thread and by the game thread when rasterizing offscreen
+     * @param level (int): 0 for this image, 1 for half size and so on
+     * @return (SwingImage): the largest available level not above the given one, this image if dynamic
+     */
+    synchronized SwingImage getMipmap(int level) {
+        if (level <= 0 || dynamic)
+            return this;
+        if (mipmaps == null)
+            mipmaps = new SwingImage[MAX_MIPMAP_LEVELS];
+        level = Math.min(level, MAX_MIPMAP_LEVELS);
+        SwingImage previous = this;
+        for (int i = 1; i <= level; ++i) {
+            SwingImage current = mipmaps[i - 1];
+            if (current == null) {
+                int width = previous.image.getWidth() / 2;
+                int height = previous.image.getHeight() / 2;
+                // Too small to be halved again
+                if (width < 1 || height < 1)
+                    return previous;
+                BufferedImage half = createCompatibleImage(width, height);
+                Graphics2D graphics = half.createGraphics();
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(previous.image, 0, 0, width, height, null);
+                graphics.dispose();
+                current = new SwingImage(half);
+                mipmaps[i - 1] = current;
+            }
+            previous = current;
+        }
+        return previous;
+    }
+
+    /** @return (Array of SwingImage): the mipmap levels built so far, by level minus one, null if none */
+    synchronized SwingImage[] getMipmaps() {
+        return mipmaps == null ? null : mipmaps.clone();
+    }
+
     /**
      * Creates an image from specified image input stream.
      * @param stream (InputStream): valid image input stream, not null
@@ -72,6 +163,44 @@ public final class SwingImage implements Image {
         this(ImageIO.read(stream), roi, removeBackground);
     }
 
+    /**
+     * [modification] - Creates an image from the encoded content of a file, decoded without copying it.
+     * @param buffer (ByteBuffer): valid encoded image, from position 0 to its limit, not null
+     * @param roi (RegionOfInterest): rectangle of interest in the image, may be null
+     * @param removeBackground (boolean): which indicate if need to remove an uniform background
+     * @throws IOException if an error occurs during reading
+     */
+    SwingImage(ByteBuffer buffer, RegionOfInterest roi, boolean removeBackground) throws IOException {
+        this(read(buffer), roi, removeBackground);
+    }
+
+    /**
+     * Decodes an image from a buffer.
+     * @param buffer (ByteBuffer): valid encoded image, from position 0 to its limit, not null
+     * @return (BufferedImage): the decoded image, not null
+     * @throws IOException if the image cannot be decoded
+     */
+    private static BufferedImage read(ByteBuffer buffer) throws IOException {
+        // Closed by ImageIO
+        BufferedImage image = ImageIO.read(new ByteBufferImageInputStream(buffer));
+        if (image == null)
+            throw new IOException("Unknown image format");
+        return image;
+    }
+
+    /**
+     * [modification] - Creates an image in the format of the screen, or a plain one when there is no screen.
+     * @param width (int): width in pixel, positive
+     * @param height (int): height in pixel, positive
+     * @return (BufferedImage): translucent image, not null
+     */
+    static BufferedImage createCompatibleImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless())
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        final GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        return config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+
     /**
      * Remove uniform background from an image, putting full alpha instead.
      * Useful to integrate Sprite which are given with uniform background color
@@ -94,6 +223,25 @@ public final class SwingImage implements Image {
         image.setRGB(0, 0, w, h, rgb, 0, w);
     }
 
+    /**
+     * [modification] - Replace a color of the image by another one, keeping the alpha of its pixels.
+     * Only to be called on a copy owned by this image, before it is drawn
+     * @param mask (int): RGB color to replace
+     * @param tint (int): RGB replacement color
+     */
+    void tint(int mask, int tint) {
+        final int w = image.getWidth();
+        final int h = image.getHeight();
+
+        final int[] argb = image.getRGB(0, 0, w, h, null, 0, w);
+        for (int i = 0; i < argb.length; i++) {
+            if ((argb[i] & 0xFFFFFF) == mask && (argb[i] >>> 24) != 0) {
+                argb[i] = (argb[i] & 0xFF000000) | (tint & 0xFFFFFF);
+            }
+        }
+        image.setRGB(0, 0, w, h, argb, 0, w);
+    }
+
 
     /// SwingImage implements Image
 
@@ -61,6 +61,13 @@ public final class SwingSound implements Sound {
         return null;
     }
 
+    /**
+     * @return (int): number of bytes of the decoded audio
+     */
+    public int getByteSize() {
+        return size;
+    }
+
     /**
      * Compute a random integer in the range defined by the sound size
      * @return (int): a random int between 0 (inclusive) and size (exclusive)
@@ -1,43 +1,46 @@
 package ch.epfl.cs107.play.window.swing;
 
 import ch.epfl.cs107.play.io.FileSystem;
-import ch.epfl.cs107.play.math.Shape;
 import ch.epfl.cs107.play.math.Vector;
-import ch.epfl.cs107.play.math.*;
 import ch.epfl.cs107.play.window.Button;
-import ch.epfl.cs107.play.window.Image;
-import ch.epfl.cs107.play.window.Window;
 import ch.epfl.cs107.play.window.*;
 
 import javax.sound.sampled.UnsupportedAudioFileException;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Path2D;
 import java.awt.image.BufferStrategy;
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URI;
-import java.net.URL;
 import java.util.List;
 import java.util.*;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Swing implementation of window context.
  */
-public final class SwingWindow extends Node implements Window {
+public final class SwingWindow extends AbstractSwingWindow {
+
+	// [modification] - Default memory budgets of the resources not used by the current scope, in bytes
+	private static final long DEFAULT_IMAGE_BUDGET = 64L << 20;
+	private static final long DEFAULT_SOUND_BUDGET = 16L << 20;
 
 	// File system
 	private final FileSystem fileSystem;
 
 	// Image stuff
-	private final Map<String, SwingImage> images;
-	private final List<Item> gItems;
+	// [modification] - Draw lists sorted by depth, reused every frame, exchanged with the render thread
+	private final TripleBuffer<DrawList> frames;
+	// Draw list filled by the game thread
+	private DrawList drawing;
+	// Render thread, null when rendering on the game thread
+	private final Thread renderThread;
+	private volatile boolean rendering;
+	// Time spent by the render thread on the last frame, in seconds
+	private volatile float renderTime;
 	
 	//Sound Stuff
-	private final Map<String, SwingSound> sounds;
+	private final ResourceCache<SwingSound> sounds;
 	private final List<SoundItem> aItems;
 
 	// Swing components
@@ -50,7 +53,9 @@ public final class SwingWindow extends Node implements Window {
 	private Button focus;
 	private final MouseProxy mouseProxy;
 	private final KeyboardProxy keyboardProxy;
-	
+	// Last pointer location in pixel in the canvas, null if unknown
+	private volatile Point pointer;
+
 	// Define mouse manager
 	private final class MouseProxy extends MouseAdapter implements Mouse {
 
@@ -144,12 +149,26 @@ public final class SwingWindow extends Node implements Window {
 	 * @param height (int): height in pixel of the window
 	 */
 	public SwingWindow(String title, FileSystem fileSystem, int width, int height) {
+		this(title, fileSystem, width, height, false);
+	}
+
+	/**
+	 * Creates a new window.
+	 * @param title (String): window caption
+	 * @param fileSystem (FileSystem): source used to load images
+	 * @param width (int): width in pixel of the window
+	 * @param height (int): height in pixel of the window
+	 * @param threadedRendering (boolean): whether frames are rendered by a dedicated thread,
+	 *                          while the game thread computes the next one
+	 */
+	public SwingWindow(String title, FileSystem fileSystem, int width, int height, boolean threadedRendering) {
 
 		// Prepare image and sound loader
+		super(fileSystem, DEFAULT_IMAGE_BUDGET);
 		this.fileSystem = fileSystem;
-		images = new HashMap<>();
-		gItems = new ArrayList<>();
-		sounds = new HashMap<>();
+		frames = new TripleBuffer<>(DrawList::new);
+		drawing = frames.getWriting();
+		sounds = new ResourceCache<>("Sound", DEFAULT_SOUND_BUDGET, null);
 		aItems = new ArrayList<>();
 
 		// Create Swing canvas
@@ -190,6 +209,15 @@ public final class SwingWindow extends Node implements Window {
         frame.setVisible(true);
 		// [modification] - Added to center window on screen
         frame.setLocationRelativeTo(null);
+
+		// [modification] - Start rendering thread
+		if (threadedRendering) {
+			rendering = true;
+			renderThread = new Thread(this::renderLoop, "Render");
+			renderThread.setDaemon(true);
+			renderThread.start();
+		} else
+			renderThread = null;
     }
 
 	@Override
@@ -214,74 +242,31 @@ public final class SwingWindow extends Node implements Window {
 
 	@Override
 	public void update() {
-		// Compute viewport metrics
-		final int width = canvas.getWidth();
-		final int height = canvas.getHeight();
-		float halfX;
-		float halfY;
-		if (width > height) {
-			halfX = 1.0f;
-			halfY = (float) height / (float) width;
+		// [modification] - Hand the draw list over to the render thread, or render it now
+		drawing.viewToWorld = getTransform();
+		if (renderThread != null) {
+			drawing = frames.publish();
+			drawing.clear();
+			LockSupport.unpark(renderThread);
 		} else {
-			halfX = (float) width / (float) height;
-			halfY = 1.0f;
-		}
-		final Transform viewToWorld = getTransform();
-		final Transform worldToView = viewToWorld.inverted();
-		final Transform projection = new Transform(width / halfX, 0.0f, 0.5f * width, 0.0f, -height / halfY, 0.5f * height);
-		final Transform transform = worldToView.transformed(projection);
-
-		// Setup double buffering if needed
-		if (strategy == null) {
-			canvas.createBufferStrategy(2);
-			strategy = canvas.getBufferStrategy();
+			render(drawing);
+			drawing.clear();
+			pointer = samplePointer();
 		}
 
-		// Create graphic context
-		final Graphics2D graphics = (Graphics2D) strategy.getDrawGraphics();
-
-		// Clear background
-		graphics.setColor(canvas.getBackground());
-		graphics.fillRect(0, 0, width, height);
-
-		// Enable anti-aliasing
-		graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-		graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-
-		// Set view transform
-		final AffineTransform affine = new AffineTransform(transform.m00, transform.m10, transform.m01,
-				transform.m11, transform.m02, transform.m12);
-		graphics.transform(affine);
-
-		// Render ordered drawable
-		Collections.sort(gItems);
-		for (Item item : gItems)
-			item.render(graphics);
-
 		// Clean the audio item by removing terminated ones
 		if(isSoundSupported())
 			aItems.removeIf(SoundItem::isFinish);
 
-		// Finalize rendering
-		graphics.dispose();
-		strategy.show();
-		Toolkit.getDefaultToolkit().sync();
-		gItems.clear();
-
 		// Update window state
 		focus = focus.updated(canvas.hasFocus());
 
-		// Get mouse pointer location
-		float x = 0.0f;
-		float y = 0.0f;
-		PointerInfo pointer = MouseInfo.getPointerInfo();
-		if (pointer != null) {
-			Point point = pointer.getLocation();
-			SwingUtilities.convertPointFromScreen(point, canvas);
-			x = ((float) point.getX() - 0.5f * width) * halfX / width;
-			y = ((float) point.getY() - 0.5f * height) * -halfY / height;
-		}
-		mouseProxy.position = viewToWorld.onPoint(x, y);
+		// Get mouse pointer location, the view center if unknown
+		final Point point = pointer;
+		if (point != null)
+			mouseProxy.position = pixelToWorld((float) point.getX(), (float) point.getY());
+		else
+			mouseProxy.position = getTransform().onPoint(0.0f, 0.0f);
 
 		synchronized (this) {
 
@@ -300,35 +285,73 @@ public final class SwingWindow extends Node implements Window {
 		}
 	}
 
-	@Override
-	public void dispose() {
-		playSound(null, false,0.0f, false, false, true);
-		frame.dispose();
+	/**
+	 * [modification] - Renders the last published frames, until the window is disposed.
+	 * The pointer location is sampled after each frame and handed back to the game thread
+	 */
+	private void renderLoop() {
+		while (rendering) {
+			if (frames.acquire()) {
+				final long start = System.nanoTime();
+				render(frames.getReading());
+				pointer = samplePointer();
+				renderTime = (System.nanoTime() - start) / 1e9f;
+			} else
+				LockSupport.park(this);
+		}
+	}
+
+	/**
+	 * Renders a frame on screen.
+	 * @param frame (DrawList): the frame to render, not null
+	 */
+	private void render(DrawList frame) {
+		// Setup double buffering if needed
+		if (strategy == null) {
+			canvas.createBufferStrategy(2);
+			strategy = canvas.getBufferStrategy();
+		}
+
+		// Create graphic context and render
+		final Graphics2D graphics = (Graphics2D) strategy.getDrawGraphics();
+		render(graphics, frame, canvas.getWidth(), canvas.getHeight(), canvas.getBackground());
+
+		// Finalize rendering
+		graphics.dispose();
+		strategy.show();
+		Toolkit.getDefaultToolkit().sync();
+	}
+
+	/**
+	 * @return (Point): the pointer location in pixel in the canvas, null if unknown
+	 */
+	private Point samplePointer() {
+		PointerInfo info = MouseInfo.getPointerInfo();
+		if (info == null)
+			return null;
+		Point point = info.getLocation();
+		SwingUtilities.convertPointFromScreen(point, canvas);
+		return point;
 	}
 
 	@Override
-	public SwingImage getImage(String name, RegionOfInterest roi, boolean removeBackground) {
-		SwingImage image = images.get(name+roi);
-		if (image == null) {
-			InputStream input = null;
+	public void dispose() {
+		if (renderThread != null) {
+			rendering = false;
+			LockSupport.unpark(renderThread);
 			try {
-				input = fileSystem.read(name);
-				image = new SwingImage(input, roi, removeBackground);
-			} catch (IOException e) {
-				// Empty on purpose, will return null as an error
-				System.out.println("File :"+ name +" not found");
-			} finally {
-				try {
-					if (input != null)
-						input.close();
-				} catch (IOException e) {
-					// Empty on purpose
-				}
+				renderThread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
 			}
-			images.put(name+roi, image);
-			// finer handling of memory can be added if needed
 		}
-		return image;
+		disposeRendering();
+		playSound(null, false,0.0f, false, false, true);
+		System.out.println(atlas.getStatistics());
+		System.out.println(sounds.getStatistics());
+		System.out.println(ImageAcceleration.getStatistics());
+		System.out.println(shapes.getStatistics());
+		frame.dispose();
 	}
 
 	/**
@@ -338,85 +361,58 @@ public final class SwingWindow extends Node implements Window {
 	public void draw(Item item) {
 		if (item == null)
 			throw new NullPointerException();
-		gItems.add(item);
+		drawing.items.add(item);
 	}
 
 	@Override
-	public void drawImage(Image image, Transform transform, float alpha, float depth) {
-		if (transform == null)
-			throw new NullPointerException();
-		if (image == null || alpha <= 0.0f)
-			return;
-		gItems.add(new ImageItem(depth, alpha, transform, (SwingImage) image));
+	DrawList getDrawList() {
+		return drawing;
 	}
 
 	@Override
-	public void drawShape(Shape shape, Transform transform, Color fillColor, Color outlineColor, float thickness, float alpha, float depth) {
-		if (transform == null)
-			throw new NullPointerException();
-		if (shape == null || alpha <= 0.0f || (fillColor == null && (outlineColor == null || thickness <= 0.0f)))
-			return;
-		Path2D path = shape.toPath();
-		path.transform(transform.getAffineTransform());
-		gItems.add(new ShapeItem(path, fillColor, outlineColor, thickness, alpha, depth));
+	public void beginResourceScope() {
+		atlas.beginScope();
+		sounds.beginScope();
 	}
 
 	@Override
-	public void registerFonts(String directoryName) {
-		try {
-			ClassLoader loader = SwingWindow.class.getClassLoader();
-			URL url = loader.getResource(directoryName);
-			String path = new URI(url.toString()).getPath();
-			File directory = new File(path);
-			for(File fontFile : directory.listFiles()) {
-				if (fontFile.isDirectory()) {
-					System.out.println(fontFile.getName());
-//					registerFonts(fontFile.getName());
-				}
-				else {
-					Font font = Font.createFont(Font.TRUETYPE_FONT, fontFile);
-					GraphicsEnvironment.getLocalGraphicsEnvironment().registerFont(font);
-				}
-			}
-		}catch(Exception e) {
-			//Empty on purpose
-			e.printStackTrace();
-		}
+	public float getRenderTime() {
+		return renderTime;
 	}
-	
-	@Override
-	public void drawText(String text, float fontSize, Transform transform, Color fillColor, Color outlineColor, float thickness, String fontName,
-			boolean bold, boolean italics, Vector anchor, TextAlign.Horizontal hAlign, TextAlign.Vertical vAlign, float alpha, float depth) {
-		if (transform == null)
-			throw new NullPointerException();
-		if (text == null || fontSize <= 0.0f || alpha <= 0.0f || (fillColor == null && (outlineColor == null || thickness <= 0.0f)))
-			return;
-				
-		gItems.add(new TextItem(text, fontSize, transform, fillColor, outlineColor, thickness, fontName, bold, italics, anchor, hAlign, vAlign, depth, alpha));
+
+	/**
+	 * [modification] - Sets the memory budgets of the resources, the ones used by the current scope are not accounted for.
+	 * @param imageBytes (long): maximal number of bytes of the images, positive
+	 * @param soundBytes (long): maximal number of bytes of the sounds, positive
+	 */
+	public void setResourceBudget(long imageBytes, long soundBytes) {
+		atlas.setBudget(imageBytes);
+		sounds.setBudget(soundBytes);
 	}
 
 	@Override
 	public SwingSound getSound(String name) {
 
-		SwingSound sound = sounds.get(name);
-		if (sound == null) {
-			InputStream input = null;
+		ResourceCache.Entry<SwingSound> entry = sounds.lookup(name);
+		if (entry != null)
+			return entry.value;
+		SwingSound sound = null;
+		InputStream input = null;
+		try {
+			input = fileSystem.read(name);
+			sound = new SwingSound(input);
+		} catch (IOException | UnsupportedAudioFileException e) {
+			// Empty on purpose, will return null as an error
+			System.out.println("File :"+ name +" not found or not readable");
+		} finally {
 			try {
-				input = fileSystem.read(name);
-				sound = new SwingSound(input);
-			} catch (IOException | UnsupportedAudioFileException e) {
-				// Empty on purpose, will return null as an error
-				System.out.println("File :"+ name +" not found or not readable");
-			} finally {
-				try {
-					if (input != null)
-						input.close();
-				} catch (IOException e) {
-					// Empty on purpose
-				}
+				if (input != null)
+					input.close();
+			} catch (IOException e) {
+				// Empty on purpose
 			}
-			sounds.put(name, sound);
 		}
+		sounds.insert(name, sound, sound == null ? 0 : sound.getByteSize());
 		return sound;
 	}
 
@@ -449,24 +445,7 @@ public final class SwingWindow extends Node implements Window {
 
 	@Override
 	public Vector convertPositionOnScreen(Vector coord) {
-		final int width = canvas.getWidth();
-		final int height = canvas.getHeight();
-		float halfX;
-		float halfY;
-		if (width > height) {
-			halfX = 1.0f;
-			halfY = (float) height / (float) width;
-		} else {
-			halfX = (float) width / (float) height;
-			halfY = 1.0f;
-		}
-		final Transform viewToWorld = getTransform();
-		final Transform worldToView = viewToWorld.inverted();
-
-		final Vector pointInView = worldToView.onPoint(coord.x, coord.y);
-		final float x = pointInView.getX() / (halfX / width) + 0.5f * width;
-		final float y = pointInView.getY() / (-halfY / height) + 0.5f * height;
-		final Vector pointInViewPixelCoord = new Vector(x, y);
+		final Vector pointInViewPixelCoord = worldToPixel(coord);
 		if(canvas.isShowing()) {
 			final Point canvasLocationInScreen = canvas.getLocationOnScreen();
 			final Vector pointInScreen = pointInViewPixelCoord.add(canvasLocationInScreen.x, canvasLocationInScreen.y);
@@ -484,39 +463,5 @@ public final class SwingWindow extends Node implements Window {
 	public int getHeight() {
 		return canvas.getHeight();
 	}
-
-	@Override
-	public float getXScale() {
-		return getTransform().getX().getX();
-	}
-
-	@Override
-	public float getYScale() {
-		return getTransform().getY().getY();
-	}
-	
-	@Override
-    public float getScaledWidth() {
-		 float width = getXScale();
-		 float height = getYScale();
-	
-		 float ratio = getWidth()/(float)getHeight();
-		 if(ratio <= 1) {
-			 width = height * ratio;
-		 }
-		 return width;
-	 }
-    
-    @Override
-    public float getScaledHeight() {
-    	 float width = getXScale();
-		 float height = getYScale();
-	
-		 float ratio = getWidth()/(float)getHeight();
-		 if(ratio > 1) {
-			 height = width / ratio;
-		 }
-		 return height;
-    }
 	
-}
\ No newline at end of file
+}
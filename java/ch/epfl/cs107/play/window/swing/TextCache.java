@@ -0,0 +1,126 @@
+package ch.epfl.cs107.play.window.swing;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.font.FontRenderContext;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of the fonts and of the layout of the drawn strings, shared by all the text items.
+ * Fonts are kept by name and style, and the layouts (width and outline) by font, string and render context,
+ * the least recently drawn strings being evicted first. The render context holds the scale of the transform
+ * and the antialiasing state, which both change the glyph metrics and outlines.
+ */
+final class TextCache {
+
+    /// Maximal number of string layouts kept per font
+    private static final int MAX_LAYOUTS_PER_FONT = 256;
+
+    /// Fonts by name, then by style (PLAIN, BOLD, ITALIC, BOLD | ITALIC)
+    private static final Map<String, Font[]> fonts = new HashMap<>();
+    /// String layouts by font, then by string and render context, in access order
+    private static final Map<Font, Map<Key, Layout>> layouts = new IdentityHashMap<>();
+
+    private TextCache() {
+        throw new IllegalStateException("TextCache class");
+    }
+
+    /**
+     * Gets a font of unit size.
+     * @param name (String): font name, may be null for the default font
+     * @param style (int): Font.PLAIN, or combination of Font.BOLD and Font.ITALIC
+     * @return (Font): the shared font, not null
+     */
+    static synchronized Font getFont(String name, int style) {
+        Font[] styles = fonts.computeIfAbsent(name, key -> new Font[4]);
+        if (styles[style] == null)
+            styles[style] = new Font(name, style, 1);
+        return styles[style];
+    }
+
+    /**
+     * Gets the layout of a string, computed on its first use in the render context of the graphics.
+     * @param font (Font): font given by getFont, not null
+     * @param text (String): content, not null
+     * @param g (Graphics2D): context used to measure the string, with its final transform, not null
+     * @return (Layout): the layout of the string, not null
+     */
+    static synchronized Layout getLayout(Font font, String text, Graphics2D g) {
+        Map<Key, Layout> fontLayouts = layouts.computeIfAbsent(font, key -> new LinkedHashMap<Key, Layout>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Layout> eldest) {
+                return size() > MAX_LAYOUTS_PER_FONT;
+            }
+        });
+        FontRenderContext frc = g.getFontRenderContext();
+        Key key = new Key(text, frc);
+        Layout layout = fontLayouts.get(key);
+        if (layout == null) {
+            FontMetrics fm = g.getFontMetrics(font);
+            layout = new Layout(font, text, frc, fm.stringWidth(text));
+            fontLayouts.put(key, layout);
+        }
+        return layout;
+    }
+
+    /**
+     * String and render context of a layout. FontRenderContext compares the transform, without its translation,
+     * and the antialiasing and fractional metrics hints.
+     */
+    private static final class Key {
+        private final String text;
+        private final FontRenderContext frc;
+
+        private Key(String text, FontRenderContext frc) {
+            this.text = text;
+            this.frc = frc;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key))
+                return false;
+            Key key = (Key) other;
+            return text.equals(key.text) && frc.equals(key.frc);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * text.hashCode() + frc.hashCode();
+        }
+    }
+
+    /**
+     * Measures and outline of a string in a font.
+     */
+    static final class Layout {
+        private final Font font;
+        private final String text;
+        private final FontRenderContext frc;
+        /// Width of the string, in font units
+        final float width;
+        private Shape outline;
+
+        private Layout(Font font, String text, FontRenderContext frc, float width) {
+            this.font = font;
+            this.text = text;
+            this.frc = frc;
+            this.width = width;
+        }
+
+        /**
+         * Gets the outline of the string in the render context of the layout, computed on its first use.
+         * @return (Shape): the outline, with the origin at the string baseline, not null
+         */
+        synchronized Shape getOutline() {
+            if (outline == null)
+                outline = font.createGlyphVector(frc, text).getOutline();
+            return outline;
+        }
+    }
+}
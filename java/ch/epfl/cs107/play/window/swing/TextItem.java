@@ -1,7 +1,6 @@
 package ch.epfl.cs107.play.window.swing;
 
 import java.awt.*;
-import java.awt.font.GlyphVector;
 import java.awt.geom.AffineTransform;
 
 import ch.epfl.cs107.play.math.TextAlign;
@@ -52,7 +51,8 @@ public final class TextItem implements Item {
         this.fillColor = fillColor;
         this.outlineColor = outlineColor;
         this.thickness = thickness;
-        this.font = new Font(fontName, Font.PLAIN | (bold ? Font.BOLD : 0) | (italics ? Font.ITALIC : 0), 1);
+        // [modification] - Fonts are shared instead of created for every item
+        this.font = TextCache.getFont(fontName, Font.PLAIN | (bold ? Font.BOLD : 0) | (italics ? Font.ITALIC : 0));
         this.anchor = anchor;
         this.depth = depth;
         this.alpha = alpha;
@@ -98,8 +98,9 @@ public final class TextItem implements Item {
 		float y = anchor.getY()/fontSize;
 
 
-		final FontMetrics fm = g.getFontMetrics(font);
-		final float width = fm.stringWidth(text);
+		// [modification] - Width and outline are only computed the first time the string is drawn
+		final TextCache.Layout layout = TextCache.getLayout(font, text, g);
+		final float width = layout.width;
 		if(hAlign == TextAlign.Horizontal.CENTER){
 			x -= (width/2);
 		}else if(hAlign == TextAlign.Horizontal.RIGHT){
@@ -118,8 +119,7 @@ public final class TextItem implements Item {
         // If requested, also draw outline
 		if (outlineColor != null && thickness > 0.0f) {
 			g.setColor(outlineColor);
-			GlyphVector gv = font.createGlyphVector(g.getFontRenderContext(), text);
-			Shape shape = gv.getOutline();
+			Shape shape = layout.getOutline();
 			g.setStroke(new BasicStroke(thickness));
 			g.translate(x, -y);
 			g.draw(shape);
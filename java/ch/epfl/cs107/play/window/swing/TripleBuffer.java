@@ -0,0 +1,70 @@
+package ch.epfl.cs107.play.window.swing;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free exchange of three buffers between one producer thread and one consumer thread.
+ * The producer fills its buffer and publishes it, getting back the buffer not in use.
+ * The consumer always takes the most recently published buffer, older ones are skipped.
+ * Neither thread ever waits on the other.
+ * @param <T> type of the buffers
+ */
+final class TripleBuffer<T> {
+
+    /// Flag of the middle slot, set when it holds a buffer not consumed yet
+    private static final int FRESH = 4;
+    private static final int INDEX_MASK = 3;
+
+    private final Object[] buffers;
+    /// Index of the middle buffer, with the FRESH flag
+    private final AtomicInteger middle;
+    /// Only accessed by the producer
+    private int writeIndex;
+    /// Only accessed by the consumer
+    private int readIndex;
+
+    /**
+     * Creates a new triple buffer.
+     * @param factory (Supplier): creates each of the three buffers, not null
+     */
+    TripleBuffer(Supplier<T> factory) {
+        buffers = new Object[]{factory.get(), factory.get(), factory.get()};
+        writeIndex = 0;
+        readIndex = 1;
+        middle = new AtomicInteger(2);
+    }
+
+    /** @return (T): the buffer owned by the producer */
+    @SuppressWarnings("unchecked")
+    T getWriting() {
+        return (T) buffers[writeIndex];
+    }
+
+    /**
+     * Publishes the producer buffer, replacing a published one not consumed yet.
+     * Called by the producer only.
+     * @return (T): the new buffer owned by the producer, with its previous content
+     */
+    T publish() {
+        writeIndex = middle.getAndSet(writeIndex | FRESH) & INDEX_MASK;
+        return getWriting();
+    }
+
+    /**
+     * Takes the last published buffer, if any. Called by the consumer only.
+     * @return (boolean): true if a new buffer was taken, false if nothing was published since the last call
+     */
+    boolean acquire() {
+        if ((middle.get() & FRESH) == 0)
+            return false;
+        readIndex = middle.getAndSet(readIndex) & INDEX_MASK;
+        return true;
+    }
+
+    /** @return (T): the buffer owned by the consumer */
+    @SuppressWarnings("unchecked")
+    T getReading() {
+        return (T) buffers[readIndex];
+    }
+}
@@ -77,6 +77,9 @@ if [ -d "./bin" -a $progress -ne 0 ]; then
   # wait process to finish
   wait_for_process $BACK_PID 9300 "./bin"
 
+  # Pack res/ into a single archive, read with memory-mapping by Play
+  java -cp bin ch.epfl.cs107.play.io.PackedFileSystem res res.pak
+
   echo -ne "Done!                                             \n\n"
 
   # Yellow Bold High intensity color
@@ -94,7 +97,7 @@ EOF
   echo -ne "\033[0;1mConsole output:\033[0m\n"
 
   # Launch main Class (Play.class)
-  java -cp bin ch.epfl.cs107.play.Play
+  java -cp bin ch.epfl.cs107.play.Play "$@"
 
   # End script
   echo -ne "\n\nThank you for playing! :)\n"